@@ -0,0 +1,159 @@
+package com.example.foods.analytics;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * "Frequently bought together" model: for every pair of foods, the number of orders containing
+ * both, kept in {@code food_cooccurrences}. Only pairs that were actually ordered together have a
+ * row, and both directions are stored, so the foods most often bought with one food are a single
+ * index range scan.
+ *
+ * <p>Committed orders add to the counts as they arrive; a nightly rebuild recomputes them from
+ * {@code order_items} and corrects any drift, e.g. from an order counted while a rebuild ran. The
+ * top related foods of each food are cached in-heap. A node's own updates evict the touched foods,
+ * so other nodes catch up within the cache TTL.
+ */
+@Component
+@Slf4j
+public class FoodCooccurrences {
+
+  private static final String INCREMENT_SQL =
+      "INSERT INTO food_cooccurrences (food_id, other_food_id, order_count) "
+          + "VALUES (:foodId, :otherFoodId, 1) "
+          + "ON CONFLICT (food_id, other_food_id) "
+          + "DO UPDATE SET order_count = food_cooccurrences.order_count + 1";
+
+  private static final String TOP_SQL =
+      "SELECT other_food_id, order_count FROM food_cooccurrences WHERE food_id = :foodId "
+          + "ORDER BY order_count DESC, other_food_id LIMIT :limit";
+
+  private static final String REBUILD_STAGE_SQL =
+      "CREATE TEMPORARY TABLE food_cooccurrences_rebuild ON COMMIT DROP AS "
+          + "SELECT a.food_id, b.food_id AS other_food_id, "
+          + "COUNT(DISTINCT a.order_id) AS order_count "
+          + "FROM order_items a "
+          + "JOIN order_items b ON b.order_id = a.order_id AND b.food_id <> a.food_id "
+          + "GROUP BY a.food_id, b.food_id";
+
+  // Only rows whose count changed are rewritten, so a rebuild over a stable history is cheap.
+  private static final String REBUILD_MERGE_SQL =
+      "INSERT INTO food_cooccurrences (food_id, other_food_id, order_count) "
+          + "SELECT food_id, other_food_id, order_count FROM food_cooccurrences_rebuild "
+          + "ON CONFLICT (food_id, other_food_id) DO UPDATE SET order_count = EXCLUDED.order_count "
+          + "WHERE food_cooccurrences.order_count <> EXCLUDED.order_count";
+
+  private static final String REBUILD_PRUNE_SQL =
+      "DELETE FROM food_cooccurrences c WHERE NOT EXISTS "
+          + "(SELECT 1 FROM food_cooccurrences_rebuild r "
+          + "WHERE r.food_id = c.food_id AND r.other_food_id = c.other_food_id)";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final int topSize;
+  private final LoadingCache<Long, Map<Long, Long>> topByFood;
+
+  public FoodCooccurrences(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      @Value("${app.recommendations.top-size:20}") int topSize,
+      @Value("${app.recommendations.cache-max-size:10000}") long cacheMaxSize,
+      @Value("${app.recommendations.cache-ttl:PT10M}") Duration cacheTtl) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.topSize = topSize;
+    this.topByFood =
+        Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(cacheTtl)
+            .build(this::loadTop);
+  }
+
+  /**
+   * Counts one order containing {@code foodIds}. Runs in its own transaction because it is called
+   * after the order's transaction has committed.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void recordOrder(Collection<Long> foodIds) {
+    List<Long> distinct = foodIds.stream().distinct().sorted().toList();
+    if (distinct.size() < 2) {
+      return;
+    }
+    // Pairs are written in key order so concurrent orders lock shared rows in the same order.
+    SqlParameterSource[] params =
+        distinct.stream()
+            .flatMap(
+                foodId ->
+                    distinct.stream()
+                        .filter(otherFoodId -> !otherFoodId.equals(foodId))
+                        .map(
+                            otherFoodId ->
+                                new MapSqlParameterSource()
+                                    .addValue("foodId", foodId)
+                                    .addValue("otherFoodId", otherFoodId)))
+            .toArray(SqlParameterSource[]::new);
+    jdbcTemplate.batchUpdate(INCREMENT_SQL, params);
+    topByFood.invalidateAll(distinct);
+    log.debug("Recorded {} co-occurrences for {} foods", params.length, distinct.size());
+  }
+
+  /**
+   * Foods most often ordered together with any of {@code foodIds}, excluding those foods, with
+   * their summed co-order counts, highest first. At most {@code limit} entries.
+   */
+  public Map<Long, Long> related(Collection<Long> foodIds, int limit) {
+    Set<Long> given = Set.copyOf(foodIds);
+    Map<Long, Long> counts = new HashMap<>();
+    topByFood
+        .getAll(given)
+        .values()
+        .forEach(top -> top.forEach((foodId, count) -> counts.merge(foodId, count, Long::sum)));
+    Map<Long, Long> related = new LinkedHashMap<>();
+    counts.entrySet().stream()
+        .filter(entry -> !given.contains(entry.getKey()))
+        .sorted(
+            Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()))
+        .limit(limit)
+        .forEach(entry -> related.put(entry.getKey(), entry.getValue()));
+    return related;
+  }
+
+  /** Recomputes every count from {@code order_items}. Returns the number of rows changed. */
+  @Transactional
+  public int rebuild() {
+    jdbcTemplate.getJdbcTemplate().execute(REBUILD_STAGE_SQL);
+    int merged = jdbcTemplate.getJdbcTemplate().update(REBUILD_MERGE_SQL);
+    int pruned = jdbcTemplate.getJdbcTemplate().update(REBUILD_PRUNE_SQL);
+    return merged + pruned;
+  }
+
+  /** Drops every cached top list on this node, e.g. after a rebuild has committed. */
+  public void evictAll() {
+    topByFood.invalidateAll();
+  }
+
+  private Map<Long, Long> loadTop(Long foodId) {
+    Map<Long, Long> top = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        TOP_SQL,
+        new MapSqlParameterSource().addValue("foodId", foodId).addValue("limit", topSize),
+        rs -> {
+          top.put(rs.getLong("other_food_id"), rs.getLong("order_count"));
+        });
+    return top;
+  }
+}
@@ -0,0 +1,181 @@
+package com.example.foods.analytics;
+
+import com.example.foods.constant.LeaderboardMetric;
+import com.example.foods.constant.LeaderboardWindow;
+import com.example.foods.dto.response.FoodAnalyticsResponseDto;
+import com.example.foods.repository.FoodRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bestseller and most-viewed rankings kept in Redis sorted sets, so a top-N read is a single
+ * {@code ZREVRANGE} instead of a scan of {@code foods}.
+ *
+ * <p>Every event increments an all-time set and a set for the current UTC day, each globally and
+ * for the food's category. Day sets expire after a week; the weekly ranking is the union of the
+ * last seven day sets, materialized for a minute at a time. The all-time sets are seeded once from
+ * the database counters, so they continue the history recorded before they existed.
+ */
+@Component
+@Slf4j
+public class FoodLeaderboard {
+
+  private static final String KEY_PREFIX = "leaderboard:";
+  private static final String SEEDED_KEY = KEY_PREFIX + "seeded";
+  private static final int WEEK_DAYS = 7;
+  private static final Duration DAY_TTL = Duration.ofDays(WEEK_DAYS + 1);
+  private static final Duration WEEK_TTL = Duration.ofMinutes(1);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final FoodRepository foodRepository;
+  private final Clock clock;
+
+  public FoodLeaderboard(StringRedisTemplate stringRedisTemplate, FoodRepository foodRepository) {
+    this(stringRedisTemplate, foodRepository, Clock.systemUTC());
+  }
+
+  FoodLeaderboard(
+      StringRedisTemplate stringRedisTemplate, FoodRepository foodRepository, Clock clock) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.foodRepository = foodRepository;
+    this.clock = clock;
+  }
+
+  /** Adds {@code amount} to the food's score in every set it belongs to, in one round trip. */
+  public void record(LeaderboardMetric metric, Long foodId, String category, long amount) {
+    String today = LocalDate.now(clock).toString();
+    List<String> allTime = withCategory(key(metric, "all"), category);
+    List<String> daily = withCategory(key(metric, "day:" + today), category);
+    stringRedisTemplate.executePipelined(
+        new SessionCallback<Object>() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public <K, V> Object execute(RedisOperations<K, V> operations) {
+            RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+            for (String key : allTime) {
+              redis.opsForZSet().incrementScore(key, foodId.toString(), amount);
+            }
+            for (String key : daily) {
+              redis.opsForZSet().incrementScore(key, foodId.toString(), amount);
+              redis.expire(key, DAY_TTL);
+            }
+            return null;
+          }
+        });
+  }
+
+  /**
+   * Highest-scoring food ids with their scores, best first. {@code category} may be null for the
+   * ranking across all categories.
+   */
+  public Map<Long, Long> top(
+      LeaderboardMetric metric, LeaderboardWindow window, String category, int limit) {
+    String key =
+        switch (window) {
+          case ALL -> categoryKey(key(metric, "all"), category);
+          case DAY -> categoryKey(key(metric, "day:" + LocalDate.now(clock)), category);
+          case WEEK -> weekKey(metric, category);
+        };
+    Set<TypedTuple<String>> entries =
+        stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, 0, limit - 1);
+    Map<Long, Long> scores = new LinkedHashMap<>();
+    if (entries != null) {
+      for (TypedTuple<String> entry : entries) {
+        if (entry.getValue() != null && entry.getScore() != null) {
+          scores.put(Long.valueOf(entry.getValue()), entry.getScore().longValue());
+        }
+      }
+    }
+    return scores;
+  }
+
+  /**
+   * Seeds the all-time sets from the database counters on first start against an empty Redis.
+   * Increments already pending in Redis are added on top, so none are lost.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    try {
+      if (!Boolean.TRUE.equals(
+          stringRedisTemplate.opsForValue().setIfAbsent(SEEDED_KEY, Instant.now().toString()))) {
+        return;
+      }
+      List<FoodAnalyticsResponseDto> foods = foodRepository.findAllFoodAnalytics();
+      stringRedisTemplate.executePipelined(
+          new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+              RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+              for (FoodAnalyticsResponseDto food : foods) {
+                seed(redis, LeaderboardMetric.ORDERS, food, food.getOrderCount());
+                seed(redis, LeaderboardMetric.VIEWS, food, food.getViewCount());
+              }
+              return null;
+            }
+          });
+      log.info("Seeded food leaderboards from {} foods", foods.size());
+    } catch (DataAccessException e) {
+      log.error("Failed to seed food leaderboards", e);
+      stringRedisTemplate.delete(SEEDED_KEY);
+    }
+  }
+
+  private static void seed(
+      RedisOperations<String, String> redis,
+      LeaderboardMetric metric,
+      FoodAnalyticsResponseDto food,
+      Long count) {
+    if (count == null || count <= 0) {
+      return;
+    }
+    for (String key : withCategory(key(metric, "all"), food.getCategory())) {
+      redis.opsForZSet().incrementScore(key, food.getId().toString(), count);
+    }
+  }
+
+  private String weekKey(LeaderboardMetric metric, String category) {
+    LocalDate today = LocalDate.now(clock);
+    String week = categoryKey(key(metric, "week:" + today), category);
+    if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(week))) {
+      return week;
+    }
+    List<String> days = new ArrayList<>(WEEK_DAYS);
+    for (int i = 0; i < WEEK_DAYS; i++) {
+      days.add(categoryKey(key(metric, "day:" + today.minusDays(i)), category));
+    }
+    stringRedisTemplate.opsForZSet().unionAndStore(days.get(0), days.subList(1, WEEK_DAYS), week);
+    stringRedisTemplate.expire(week, WEEK_TTL);
+    return week;
+  }
+
+  private static String key(LeaderboardMetric metric, String window) {
+    return KEY_PREFIX + metric.key() + ":" + window;
+  }
+
+  private static String categoryKey(String key, String category) {
+    return category == null || category.isBlank() ? key : key + ":category:" + category;
+  }
+
+  private static List<String> withCategory(String key, String category) {
+    return category == null || category.isBlank()
+        ? List.of(key)
+        : List.of(key, categoryKey(key, category));
+  }
+}
@@ -0,0 +1,176 @@
+package com.example.foods.analytics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * "Trending now" scores: every order and view adds to a food's score, and the score halves every
+ * configured half-life, so the ranking follows recent activity without rescanning history.
+ *
+ * <p>Uses forward decay. Instead of shrinking every score as time passes, an event at time {@code
+ * t} adds {@code amount * 2^((t - landmark) / halfLife)}. All scores are scaled by the same factor,
+ * so the stored sorted set is already in trending order, and the current score is the stored one
+ * times {@code 2^((landmark - now) / halfLife)}. The landmark lives in Redis next to the scores and
+ * both scripts read it atomically, so every node weights events alike. A periodic rebase moves the
+ * landmark to now and rescales the set in place, keeping the weights far from overflow; it also
+ * drops faded and excess entries so the set stays bounded. Rebasing twice is harmless, so it needs
+ * no cluster lock.
+ */
+@Component
+@Slf4j
+public class TrendingFoods {
+
+  private static final String SCORES_KEY = "trending:foods";
+  private static final String LANDMARK_KEY = "trending:landmark";
+
+  /** Scores below this (a hundredth of a view) are dropped on rebase. */
+  private static final String MIN_SCORE = "0.01";
+
+  private static final RedisScript<Long> RECORD_SCRIPT =
+      RedisScript.of(
+          """
+          local now = tonumber(ARGV[1])
+          local landmark = tonumber(redis.call('GET', KEYS[2]))
+          if not landmark then
+            landmark = now
+            redis.call('SET', KEYS[2], ARGV[1])
+          end
+          local weight = tonumber(ARGV[3]) * math.pow(2, (now - landmark) / tonumber(ARGV[2]))
+          redis.call('ZINCRBY', KEYS[1], weight, ARGV[4])
+          return 1
+          """,
+          Long.class);
+
+  private static final RedisScript<Long> REBASE_SCRIPT =
+      RedisScript.of(
+          """
+          local landmark = tonumber(redis.call('GET', KEYS[2]))
+          if not landmark then
+            return 0
+          end
+          local now = tonumber(ARGV[1])
+          local factor = math.pow(2, (landmark - now) / tonumber(ARGV[2]))
+          redis.call('ZUNIONSTORE', KEYS[1], 1, KEYS[1], 'WEIGHTS', factor)
+          redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3])
+          redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[4]) + 1))
+          redis.call('SET', KEYS[2], ARGV[1])
+          return redis.call('ZCARD', KEYS[1])
+          """,
+          Long.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final double halfLifeSeconds;
+  private final double orderWeight;
+  private final double viewWeight;
+  private final int maxTracked;
+  private final Clock clock;
+
+  @Autowired
+  public TrendingFoods(
+      StringRedisTemplate stringRedisTemplate,
+      @Value("${app.trending.half-life:PT6H}") Duration halfLife,
+      @Value("${app.trending.order-weight:5}") double orderWeight,
+      @Value("${app.trending.view-weight:1}") double viewWeight,
+      @Value("${app.trending.max-tracked:1000}") int maxTracked) {
+    this(stringRedisTemplate, halfLife, orderWeight, viewWeight, maxTracked, Clock.systemUTC());
+  }
+
+  TrendingFoods(
+      StringRedisTemplate stringRedisTemplate,
+      Duration halfLife,
+      double orderWeight,
+      double viewWeight,
+      int maxTracked,
+      Clock clock) {
+    if (halfLife.isZero() || halfLife.isNegative()) {
+      throw new IllegalArgumentException("Trending half-life must be positive");
+    }
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.halfLifeSeconds = halfLife.toMillis() / 1000.0;
+    this.orderWeight = orderWeight;
+    this.viewWeight = viewWeight;
+    this.maxTracked = maxTracked;
+    this.clock = clock;
+  }
+
+  public void recordView(Long foodId) {
+    record(foodId, viewWeight);
+  }
+
+  public void recordOrder(Long foodId, int quantity) {
+    record(foodId, orderWeight * quantity);
+  }
+
+  private void record(Long foodId, double amount) {
+    stringRedisTemplate.execute(
+        RECORD_SCRIPT,
+        List.of(SCORES_KEY, LANDMARK_KEY),
+        String.valueOf(nowSeconds()),
+        String.valueOf(halfLifeSeconds),
+        String.valueOf(amount),
+        foodId.toString());
+  }
+
+  /** Up to {@code limit} food ids with their current decayed scores, hottest first. */
+  public Map<Long, Double> top(int limit) {
+    String landmark = stringRedisTemplate.opsForValue().get(LANDMARK_KEY);
+    Map<Long, Double> scores = new LinkedHashMap<>();
+    if (landmark == null) {
+      return scores;
+    }
+    Set<TypedTuple<String>> entries =
+        stringRedisTemplate.opsForZSet().reverseRangeWithScores(SCORES_KEY, 0, limit - 1);
+    if (entries == null) {
+      return scores;
+    }
+    double now = nowSeconds();
+    for (TypedTuple<String> entry : entries) {
+      if (entry.getValue() != null && entry.getScore() != null) {
+        scores.put(
+            Long.valueOf(entry.getValue()),
+            currentScore(entry.getScore(), Double.parseDouble(landmark), now));
+      }
+    }
+    return scores;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.trending.rebase-interval:PT1H}",
+      initialDelayString = "${app.trending.rebase-interval:PT1H}")
+  public void rebase() {
+    try {
+      Long tracked =
+          stringRedisTemplate.execute(
+              REBASE_SCRIPT,
+              List.of(SCORES_KEY, LANDMARK_KEY),
+              String.valueOf(nowSeconds()),
+              String.valueOf(halfLifeSeconds),
+              MIN_SCORE,
+              String.valueOf(maxTracked));
+      log.info("Rebased trending scores, {} foods tracked", tracked);
+    } catch (Exception e) {
+      log.error("Failed to rebase trending scores", e);
+    }
+  }
+
+  /** Decayed value now of a score stored relative to {@code landmark}. */
+  double currentScore(double stored, double landmark, double now) {
+    return stored * Math.pow(2, (landmark - now) / halfLifeSeconds);
+  }
+
+  private double nowSeconds() {
+    return clock.millis() / 1000.0;
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.foods.analytics;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Precomputed per-user recommendations: a capped Redis list of food ids per username, best first.
+ * Lists are replaced whole and atomically, so readers see either the old or the new ranking, and
+ * reading one is a single range read that touches neither the database nor the user table.
+ */
+@Component
+public class UserRecommendations {
+
+  private static final String KEY_PREFIX = "recommendations:user:";
+
+  private static final RedisScript<Long> REPLACE_SCRIPT =
+      RedisScript.of(
+          """
+          redis.call('DEL', KEYS[1])
+          if #ARGV > 0 then
+            redis.call('RPUSH', KEYS[1], unpack(ARGV))
+          end
+          return #ARGV
+          """,
+          Long.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final int capacity;
+
+  public UserRecommendations(
+      StringRedisTemplate stringRedisTemplate,
+      @Value("${app.recommendations.per-user-size:20}") int capacity) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.capacity = capacity;
+  }
+
+  /** Number of food ids kept per user. */
+  public int capacity() {
+    return capacity;
+  }
+
+  /** Up to {@code limit} recommended food ids for {@code username}, or none if not computed. */
+  public List<Long> get(String username, int limit) {
+    List<String> ids = stringRedisTemplate.opsForList().range(key(username), 0, limit - 1);
+    return ids == null ? List.of() : ids.stream().map(Long::valueOf).toList();
+  }
+
+  /** Replaces the list of {@code username}, keeping the first {@link #capacity()} ids. */
+  public void store(String username, List<Long> foodIds) {
+    String[] ids = foodIds.stream().limit(capacity).map(String::valueOf).toArray(String[]::new);
+    stringRedisTemplate.execute(REPLACE_SCRIPT, List.of(key(username)), (Object[]) ids);
+  }
+
+  private static String key(String username) {
+    return KEY_PREFIX + username;
+  }
+}
@@ -0,0 +1,119 @@
+package com.example.foods.batch;
+
+import com.example.foods.service.FileStorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.infrastructure.item.file.FlatFileItemReader;
+import org.springframework.batch.infrastructure.item.file.FlatFileParseException;
+import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.infrastructure.item.file.transform.FieldSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Chunk-oriented bulk import of a supplier menu. The reader streams a CSV file with the header
+ * {@code name,description,category,price,quantity,images}, where {@code images} lists entries of
+ * the optional zip archive separated by {@code ;}. The reader position is saved with every chunk
+ * commit, so restarting a failed import resumes after the last committed chunk.
+ */
+@Configuration
+public class CatalogImportJobConfig {
+
+  public static final String JOB_NAME = "catalogImportJob";
+  public static final String IMPORT_ID = "importId";
+
+  private static final String[] COLUMNS = {
+    "name", "description", "category", "price", "quantity", "images"
+  };
+
+  @Bean
+  public Job catalogImportJob(JobRepository jobRepository, Step catalogImportStep) {
+    return new JobBuilder(JOB_NAME, jobRepository).start(catalogImportStep).build();
+  }
+
+  @Bean
+  public Step catalogImportStep(
+      JobRepository jobRepository,
+      PlatformTransactionManager transactionManager,
+      FlatFileItemReader<CatalogImportRow> catalogImportReader,
+      CatalogImportWriter catalogImportWriter,
+      CatalogImportMetricsListener catalogImportMetricsListener,
+      @Value("${app.catalog-import.chunk-size:200}") int chunkSize,
+      @Value("${app.catalog-import.skip-limit:100}") int skipLimit) {
+    return new StepBuilder("catalogImportStep", jobRepository)
+        .<CatalogImportRow, CatalogImportRow>chunk(chunkSize, transactionManager)
+        .reader(catalogImportReader)
+        .processor(new CatalogImportProcessor())
+        .writer(catalogImportWriter)
+        .faultTolerant()
+        .skip(FlatFileParseException.class)
+        .skip(IllegalArgumentException.class)
+        .skipLimit(skipLimit)
+        .listener(catalogImportMetricsListener)
+        .build();
+  }
+
+  @Bean
+  @StepScope
+  public FlatFileItemReader<CatalogImportRow> catalogImportReader(
+      CatalogImportStaging catalogImportStaging,
+      @Value("#{jobParameters['" + IMPORT_ID + "']}") String importId) {
+    return new FlatFileItemReaderBuilder<CatalogImportRow>()
+        .name("catalogImportReader")
+        .resource(new FileSystemResource(catalogImportStaging.itemsFile(importId)))
+        .encoding(StandardCharsets.UTF_8.name())
+        .linesToSkip(1)
+        .delimited()
+        .names(COLUMNS)
+        .fieldSetMapper(CatalogImportJobConfig::toRow)
+        .build();
+  }
+
+  @Bean
+  @StepScope
+  public CatalogImportWriter catalogImportWriter(
+      NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+      FileStorageService fileStorageService,
+      ApplicationEventPublisher eventPublisher,
+      MeterRegistry meterRegistry,
+      CatalogImportStaging catalogImportStaging,
+      @Value("#{jobParameters['" + IMPORT_ID + "']}") String importId,
+      @Value("${app.catalog-import.upload-concurrency:8}") int uploadConcurrency) {
+    return new CatalogImportWriter(
+        namedParameterJdbcTemplate,
+        fileStorageService,
+        eventPublisher,
+        meterRegistry,
+        catalogImportStaging.imagesArchive(importId),
+        uploadConcurrency);
+  }
+
+  private static CatalogImportRow toRow(FieldSet fields) {
+    String images = fields.readString("images");
+    List<String> imageNames =
+        images == null || images.isBlank()
+            ? List.of()
+            : Arrays.stream(images.split(";")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    return CatalogImportRow.builder()
+        .name(fields.readString("name"))
+        .description(fields.readString("description"))
+        .category(fields.readString("category"))
+        .price(fields.readDouble("price"))
+        .quantity(fields.readInt("quantity", 0))
+        .imageNames(imageNames)
+        .build();
+  }
+}
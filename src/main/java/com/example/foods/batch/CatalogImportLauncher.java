@@ -0,0 +1,31 @@
+package com.example.foods.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.launch.JobOperator;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the import job off the request thread. Starting with the parameters of a failed execution
+ * restarts that execution from its last committed chunk.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogImportLauncher {
+
+  private final JobOperator jobOperator;
+  private final Job catalogImportJob;
+
+  @Async
+  public void launch(JobParameters jobParameters) {
+    try {
+      jobOperator.start(catalogImportJob, jobParameters);
+    } catch (Exception e) {
+      log.error("Failed to launch catalog import with parameters {}", jobParameters, e);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.foods.batch;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.listener.StepExecutionListener;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.stereotype.Component;
+
+/** Logs and records the throughput of each import step execution, restarts included. */
+@Component
+@Slf4j
+public class CatalogImportMetricsListener implements StepExecutionListener {
+
+  private final DistributionSummary throughput;
+
+  public CatalogImportMetricsListener(MeterRegistry meterRegistry) {
+    this.throughput =
+        DistributionSummary.builder("catalog.import.throughput")
+            .baseUnit("items.per.second")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public ExitStatus afterStep(StepExecution stepExecution) {
+    double itemsPerSecond = itemsPerSecond(stepExecution, LocalDateTime.now());
+    throughput.record(itemsPerSecond);
+    log.info(
+        "Catalog import step {} finished with {}: read={}, written={}, skipped={}, "
+            + "commits={}, {} items/s",
+        stepExecution.getId(),
+        stepExecution.getStatus(),
+        stepExecution.getReadCount(),
+        stepExecution.getWriteCount(),
+        stepExecution.getSkipCount(),
+        stepExecution.getCommitCount(),
+        String.format("%.1f", itemsPerSecond));
+    return stepExecution.getExitStatus();
+  }
+
+  /** Rows read per second between the step start and {@code end}. */
+  public static double itemsPerSecond(StepExecution stepExecution, LocalDateTime end) {
+    if (stepExecution.getStartTime() == null) {
+      return 0;
+    }
+    long millis = Duration.between(stepExecution.getStartTime(), end).toMillis();
+    return millis <= 0 ? 0 : stepExecution.getReadCount() * 1000.0 / millis;
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.foods.batch;
+
+import org.springframework.batch.infrastructure.item.ItemProcessor;
+
+/**
+ * Validates and trims an import row. Invalid rows throw {@link IllegalArgumentException}, which the
+ * step counts as a skip instead of failing the import.
+ */
+public class CatalogImportProcessor implements ItemProcessor<CatalogImportRow, CatalogImportRow> {
+
+  private static final int MAX_NAME_LENGTH = 255;
+  private static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+  @Override
+  public CatalogImportRow process(CatalogImportRow row) {
+    String name = trimToNull(row.getName());
+    String category = trimToNull(row.getCategory());
+    String description = trimToNull(row.getDescription());
+    if (name == null || name.length() > MAX_NAME_LENGTH) {
+      throw new IllegalArgumentException("Food name is required and at most 255 characters");
+    }
+    if (category == null) {
+      throw new IllegalArgumentException("Category is required for food '" + name + "'");
+    }
+    if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+      throw new IllegalArgumentException("Description too long for food '" + name + "'");
+    }
+    if (row.getPrice() == null || row.getPrice() <= 0) {
+      throw new IllegalArgumentException("Price must be positive for food '" + name + "'");
+    }
+    int quantity = row.getQuantity() == null ? 0 : row.getQuantity();
+    if (quantity < 0) {
+      throw new IllegalArgumentException("Quantity must not be negative for food '" + name + "'");
+    }
+    return CatalogImportRow.builder()
+        .name(name)
+        .description(description)
+        .category(category)
+        .price(row.getPrice())
+        .quantity(quantity)
+        .imageNames(row.getImageNames())
+        .build();
+  }
+
+  private static String trimToNull(String value) {
+    return value == null || value.isBlank() ? null : value.trim();
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.foods.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One food from a supplier menu file; image names are entries of the accompanying zip archive. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportRow {
+  private String name;
+  private String description;
+  private String category;
+  private Double price;
+  private Integer quantity;
+
+  @Builder.Default private List<String> imageNames = new ArrayList<>();
+}
@@ -0,0 +1,51 @@
+package com.example.foods.batch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Local directory per import holding the uploaded menu file and image archive. Files stay after
+ * the job ends so that a failed import can be restarted with the same input.
+ */
+@Component
+public class CatalogImportStaging {
+
+  private static final String ITEMS_FILE = "items.csv";
+  private static final String IMAGES_ARCHIVE = "images.zip";
+
+  private final Path root;
+
+  public CatalogImportStaging(
+      @Value("${app.catalog-import.staging-dir:${java.io.tmpdir}/catalog-imports}") Path root) {
+    this.root = root;
+  }
+
+  public void stage(String importId, MultipartFile items, MultipartFile images) {
+    try {
+      Path directory = Files.createDirectories(root.resolve(importId));
+      items.transferTo(directory.resolve(ITEMS_FILE));
+      if (images != null && !images.isEmpty()) {
+        images.transferTo(directory.resolve(IMAGES_ARCHIVE));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to stage catalog import " + importId, e);
+    }
+  }
+
+  public boolean exists(String importId) {
+    return Files.exists(itemsFile(importId));
+  }
+
+  public Path itemsFile(String importId) {
+    return root.resolve(importId).resolve(ITEMS_FILE);
+  }
+
+  public Path imagesArchive(String importId) {
+    return root.resolve(importId).resolve(IMAGES_ARCHIVE);
+  }
+}
@@ -0,0 +1,283 @@
+package com.example.foods.batch;
+
+import com.example.foods.event.CatalogBatchChangedEvent;
+import com.example.foods.event.FoodImagesUploadedEvent;
+import com.example.foods.service.FileStorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.batch.infrastructure.item.ItemStreamWriter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Writes one chunk of import rows: drops names that already exist (one query per chunk), uploads
+ * the chunk's images in parallel, then inserts foods and images with JDBC batch statements in the
+ * chunk transaction. Images uploaded for a chunk that rolls back are deleted again, so a restart
+ * from the last committed chunk leaves no orphans behind. Once a chunk commits, renditions of its
+ * images are generated like those of images uploaded through the API.
+ */
+@Slf4j
+public class CatalogImportWriter implements ItemStreamWriter<CatalogImportRow> {
+
+  private static final String EXISTING_NAMES_SQL =
+      "SELECT LOWER(name) FROM foods WHERE LOWER(name) IN (:names)";
+
+  private static final String INSERT_FOOD_SQL =
+      "INSERT INTO foods (name, description, category, price, quantity, status, version, "
+          + "created_at, updated_at) "
+          + "VALUES (:name, :description, :category, :price, :quantity, 'ACTIVE', 0, :now, :now)";
+
+  private static final String INSERT_IMAGE_SQL =
+      "INSERT INTO food_images (image_url, food_id, created_at) VALUES (:imageUrl, :foodId, :now)";
+
+  private static final Long INITIAL_VERSION = 0L;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final FileStorageService fileStorageService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Path imagesArchive;
+  private final int uploadConcurrency;
+
+  private final Counter importedFoods;
+  private final Counter duplicateFoods;
+  private final Counter uploadedImages;
+  private final Timer chunkTimer;
+
+  private ZipFile archive;
+  private ExecutorService uploadExecutor;
+
+  public CatalogImportWriter(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      FileStorageService fileStorageService,
+      ApplicationEventPublisher eventPublisher,
+      MeterRegistry meterRegistry,
+      Path imagesArchive,
+      int uploadConcurrency) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.fileStorageService = fileStorageService;
+    this.eventPublisher = eventPublisher;
+    this.imagesArchive = imagesArchive;
+    this.uploadConcurrency = uploadConcurrency;
+    this.importedFoods = meterRegistry.counter("catalog.import.foods", "result", "imported");
+    this.duplicateFoods = meterRegistry.counter("catalog.import.foods", "result", "duplicate");
+    this.uploadedImages = meterRegistry.counter("catalog.import.images");
+    this.chunkTimer = meterRegistry.timer("catalog.import.chunk");
+  }
+
+  @Override
+  public void open(ExecutionContext executionContext) {
+    try {
+      if (imagesArchive != null && Files.exists(imagesArchive)) {
+        archive = new ZipFile(imagesArchive.toFile());
+      }
+    } catch (IOException e) {
+      throw new ItemStreamException("Cannot open image archive " + imagesArchive, e);
+    }
+    uploadExecutor = Executors.newFixedThreadPool(uploadConcurrency);
+  }
+
+  @Override
+  public void close() {
+    if (uploadExecutor != null) {
+      uploadExecutor.shutdown();
+      uploadExecutor = null;
+    }
+    if (archive != null) {
+      try {
+        archive.close();
+      } catch (IOException e) {
+        log.warn("Failed to close image archive {}", imagesArchive, e);
+      }
+      archive = null;
+    }
+  }
+
+  @Override
+  public void write(Chunk<? extends CatalogImportRow> chunk) {
+    chunkTimer.record(() -> writeChunk(chunk.getItems()));
+  }
+
+  private void writeChunk(List<? extends CatalogImportRow> items) {
+    List<CatalogImportRow> rows = withoutExistingNames(items);
+    duplicateFoods.increment(items.size() - rows.size());
+    if (rows.isEmpty()) {
+      return;
+    }
+
+    List<List<String>> imageKeys = uploadImages(rows);
+    deleteOnRollback(imageKeys);
+
+    List<Long> foodIds = insertFoods(rows);
+    insertImages(foodIds, imageKeys);
+
+    importedFoods.increment(foodIds.size());
+    Map<Long, Long> versions = new LinkedHashMap<>();
+    foodIds.forEach(foodId -> versions.put(foodId, INITIAL_VERSION));
+    eventPublisher.publishEvent(new CatalogBatchChangedEvent(this, versions, false));
+    for (int i = 0; i < foodIds.size(); i++) {
+      if (!imageKeys.get(i).isEmpty()) {
+        eventPublisher.publishEvent(
+            new FoodImagesUploadedEvent(this, foodIds.get(i), List.copyOf(imageKeys.get(i))));
+      }
+    }
+    log.debug("Imported {} foods, skipped {} duplicates", rows.size(), items.size() - rows.size());
+  }
+
+  /** Keeps the first row per case-insensitive name, minus names already in the catalog. */
+  private List<CatalogImportRow> withoutExistingNames(List<? extends CatalogImportRow> items) {
+    Map<String, CatalogImportRow> byName = new LinkedHashMap<>();
+    for (CatalogImportRow row : items) {
+      byName.putIfAbsent(row.getName().toLowerCase(Locale.ROOT), row);
+    }
+    if (byName.isEmpty()) {
+      return List.of();
+    }
+    Set<String> existing =
+        new HashSet<>(
+            jdbcTemplate.queryForList(
+                EXISTING_NAMES_SQL,
+                new MapSqlParameterSource("names", byName.keySet()),
+                String.class));
+    byName.keySet().removeAll(existing);
+    return new ArrayList<>(byName.values());
+  }
+
+  /** Uploads all images of the chunk in parallel; returns the storage keys per row. */
+  private List<List<String>> uploadImages(List<CatalogImportRow> rows) {
+    List<List<CompletableFuture<String>>> uploads = new ArrayList<>();
+    for (CatalogImportRow row : rows) {
+      List<CompletableFuture<String>> rowUploads = new ArrayList<>();
+      for (String imageName : row.getImageNames()) {
+        rowUploads.add(CompletableFuture.supplyAsync(() -> upload(imageName), uploadExecutor));
+      }
+      uploads.add(rowUploads);
+    }
+
+    List<List<String>> keys = new ArrayList<>();
+    RuntimeException failure = null;
+    for (List<CompletableFuture<String>> rowUploads : uploads) {
+      List<String> rowKeys = new ArrayList<>();
+      for (CompletableFuture<String> upload : rowUploads) {
+        try {
+          rowKeys.add(upload.join());
+        } catch (CompletionException e) {
+          failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+      }
+      keys.add(rowKeys);
+    }
+    if (failure != null) {
+      deleteQuietly(keys);
+      throw failure;
+    }
+    uploadedImages.increment(keys.stream().mapToInt(List::size).sum());
+    return keys;
+  }
+
+  private String upload(String imageName) {
+    ZipEntry entry = archive == null ? null : archive.getEntry(imageName);
+    if (entry == null || entry.isDirectory()) {
+      throw new IllegalArgumentException("Image not found in archive: " + imageName);
+    }
+    try (InputStream content = archive.getInputStream(entry)) {
+      String fileName = Path.of(imageName).getFileName().toString();
+      return fileStorageService.uploadFile(fileName, content, entry.getSize());
+    } catch (IOException e) {
+      throw new ItemStreamException("Failed to read image " + imageName + " from archive", e);
+    }
+  }
+
+  private List<Long> insertFoods(List<CatalogImportRow> rows) {
+    LocalDateTime now = LocalDateTime.now();
+    SqlParameterSource[] params =
+        rows.stream()
+            .map(
+                row ->
+                    new MapSqlParameterSource()
+                        .addValue("name", row.getName())
+                        .addValue("description", row.getDescription())
+                        .addValue("category", row.getCategory())
+                        .addValue("price", row.getPrice())
+                        .addValue("quantity", row.getQuantity())
+                        .addValue("now", now))
+            .toArray(SqlParameterSource[]::new);
+    GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+    jdbcTemplate.batchUpdate(INSERT_FOOD_SQL, params, keyHolder, new String[] {"id"});
+    return keyHolder.getKeyList().stream()
+        .map(keys -> ((Number) keys.get("id")).longValue())
+        .toList();
+  }
+
+  private void insertImages(List<Long> foodIds, List<List<String>> imageKeys) {
+    LocalDateTime now = LocalDateTime.now();
+    List<SqlParameterSource> params = new ArrayList<>();
+    for (int i = 0; i < foodIds.size(); i++) {
+      for (String key : imageKeys.get(i)) {
+        params.add(
+            new MapSqlParameterSource()
+                .addValue("imageUrl", key)
+                .addValue("foodId", foodIds.get(i))
+                .addValue("now", now));
+      }
+    }
+    if (!params.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_IMAGE_SQL, params.toArray(SqlParameterSource[]::new));
+    }
+  }
+
+  private void deleteOnRollback(List<List<String>> imageKeys) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED) {
+              deleteQuietly(imageKeys);
+            }
+          }
+        });
+  }
+
+  private void deleteQuietly(List<List<String>> imageKeys) {
+    imageKeys.stream()
+        .flatMap(List::stream)
+        .forEach(
+            key -> {
+              try {
+                fileStorageService.deleteFile(key);
+              } catch (Exception e) {
+                log.warn("Failed to cleanup imported image: {}", key, e);
+              }
+            });
+  }
+}
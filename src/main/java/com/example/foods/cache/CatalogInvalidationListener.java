@@ -0,0 +1,230 @@
+package com.example.foods.cache;
+
+import com.example.foods.cache.CatalogSnapshot.RatingLevel;
+import com.example.foods.cache.CatalogSnapshot.StockLevel;
+import com.example.foods.entity.Food;
+import com.example.foods.event.CatalogBatchChangedEvent;
+import com.example.foods.event.CatalogChangedEvent;
+import com.example.foods.event.OrderCreatedEvent;
+import com.example.foods.search.FoodTypeaheadIndex;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops local catalog caches after a catalog write commits and broadcasts the change over Redis
+ * pub/sub so every other node does the same. Pub/sub is fire-and-forget; a lost message is bounded
+ * by the cache TTLs.
+ *
+ * <p>Messages have the form {@code <nodeId>|<kind>|<foodId>:<version>,...}. The kind is {@code
+ * F} when food attributes changed and {@code S} when only stock did; the version is empty for a
+ * deleted food. Orders and ratings arrive far more often than menu edits, so they carry the new
+ * values and patch the catalog snapshot in place instead of dropping it: orders send kind {@code
+ * L} with entries {@code <foodId>:<version>:<quantity>}, ratings send kind {@code R} with entries
+ * {@code <foodId>:<version>:<count>:<average>:<one-star count>:...:<five-star count>}.
+ */
+@Component
+@Slf4j
+public class CatalogInvalidationListener implements MessageListener {
+
+  private static final String NO_VERSION = "";
+  private static final String FOOD_CHANGE = "F";
+  private static final String RATING_LEVELS = "R";
+  private static final String STOCK_CHANGE = "S";
+  private static final String STOCK_LEVELS = "L";
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final CatalogSnapshotCache catalogSnapshotCache;
+  private final FoodDetailCache foodDetailCache;
+  private final FoodTypeaheadIndex foodTypeaheadIndex;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final String channel;
+
+  public CatalogInvalidationListener(
+      CatalogSnapshotCache catalogSnapshotCache,
+      FoodDetailCache foodDetailCache,
+      FoodTypeaheadIndex foodTypeaheadIndex,
+      StringRedisTemplate stringRedisTemplate,
+      @Value("${app.catalog.invalidation-channel:catalog:invalidate}") String channel) {
+    this.catalogSnapshotCache = catalogSnapshotCache;
+    this.foodDetailCache = foodDetailCache;
+    this.foodTypeaheadIndex = foodTypeaheadIndex;
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.channel = channel;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onCatalogChanged(CatalogChangedEvent event) {
+    Long foodId = event.getFoodId();
+    RatingLevel ratings = event.getRatings();
+    if (ratings != null) {
+      log.debug("Ratings changed for food ID: {}, patching caches", foodId);
+      catalogSnapshotCache.applyRatings(Map.of(foodId, ratings));
+      foodDetailCache.evict(foodId);
+      String entry =
+          Stream.concat(
+                  Stream.of(
+                      foodId, ratings.version(), ratings.ratingCount(), ratings.averageRating()),
+                  ratings.histogram().stream())
+              .map(String::valueOf)
+              .collect(Collectors.joining(":"));
+      publish(nodeId + "|" + RATING_LEVELS + "|" + entry);
+      return;
+    }
+    log.info("Catalog changed for food ID: {}, invalidating caches", foodId);
+    Map<Long, Long> changes = new LinkedHashMap<>();
+    changes.put(foodId, event.getVersion());
+    invalidateAndBroadcast(FOOD_CHANGE, changes);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onCatalogBatchChanged(CatalogBatchChangedEvent event) {
+    log.info("Catalog changed for {} foods, invalidating caches", event.getVersions().size());
+    invalidateAndBroadcast(
+        event.isStockOnly() ? STOCK_CHANGE : FOOD_CHANGE, new LinkedHashMap<>(event.getVersions()));
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onOrderCreated(OrderCreatedEvent event) {
+    log.debug("Stock changed by Order ID: {}, patching caches", event.getOrder().getId());
+    Map<Long, StockLevel> levels = new LinkedHashMap<>();
+    event
+        .getOrder()
+        .getItems()
+        .forEach(
+            item -> {
+              Food food = item.getFood();
+              int quantity = food.getQuantity() == null ? 0 : food.getQuantity();
+              levels.put(food.getId(), new StockLevel(food.getVersion(), quantity));
+            });
+    catalogSnapshotCache.applyStock(levels);
+    StringJoiner payload = new StringJoiner(",", nodeId + "|" + STOCK_LEVELS + "|", "");
+    levels.forEach(
+        (foodId, level) -> {
+          foodDetailCache.evict(foodId);
+          payload.add(foodId + ":" + level.version() + ":" + level.quantity());
+        });
+    publish(payload.toString());
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    String[] parts = body.split("\\|", 3);
+    if (nodeId.equals(parts[0])) {
+      return;
+    }
+    log.debug("Received catalog invalidation from node {}", parts[0]);
+    if (parts.length == 3 && STOCK_LEVELS.equals(parts[1])) {
+      applyLevels(
+          parts[2],
+          fields -> new StockLevel(Long.parseLong(fields[1]), Integer.parseInt(fields[2])),
+          catalogSnapshotCache::applyStock);
+      return;
+    }
+    if (parts.length == 3 && RATING_LEVELS.equals(parts[1])) {
+      applyLevels(
+          parts[2], CatalogInvalidationListener::ratingLevel, catalogSnapshotCache::applyRatings);
+      return;
+    }
+    catalogSnapshotCache.invalidate();
+    if (parts.length < 3 || parts[2].isEmpty()) {
+      return;
+    }
+    String kind = parts[1];
+    for (String change : parts[2].split(",")) {
+      try {
+        Long foodId = Long.valueOf(change.split(":", 2)[0]);
+        foodDetailCache.evictLocal(foodId);
+        reindexQuietly(kind, foodId);
+      } catch (NumberFormatException e) {
+        log.warn("Ignoring malformed catalog invalidation entry: {}", change);
+      }
+    }
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+
+  private void invalidateAndBroadcast(String kind, Map<Long, Long> changes) {
+    catalogSnapshotCache.invalidate();
+    StringJoiner payload = new StringJoiner(",", nodeId + "|" + kind + "|", "");
+    changes.forEach(
+        (foodId, version) -> {
+          foodDetailCache.evict(foodId);
+          reindexQuietly(kind, foodId);
+          payload.add(foodId + ":" + (version == null ? NO_VERSION : version));
+        });
+    publish(payload.toString());
+  }
+
+  private <T> void applyLevels(
+      String entries, Function<String[], T> parser, Consumer<Map<Long, T>> apply) {
+    Map<Long, T> levels = new LinkedHashMap<>();
+    boolean malformed = false;
+    for (String entry : entries.split(",")) {
+      String[] fields = entry.split(":");
+      try {
+        levels.put(Long.valueOf(fields[0]), parser.apply(fields));
+      } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+        log.warn("Ignoring malformed catalog level entry: {}", entry);
+        malformed = true;
+      }
+    }
+    if (malformed) {
+      // A food whose values are unknown may now be stale in the snapshot, so rebuild it instead.
+      catalogSnapshotCache.invalidate();
+    } else {
+      apply.accept(levels);
+    }
+    levels.keySet().forEach(foodDetailCache::evictLocal);
+  }
+
+  private static RatingLevel ratingLevel(String[] fields) {
+    List<Long> histogram = new ArrayList<>(5);
+    for (int star = 1; star <= 5; star++) {
+      histogram.add(Long.parseLong(fields[3 + star]));
+    }
+    return new RatingLevel(
+        Long.parseLong(fields[1]),
+        Long.parseLong(fields[2]),
+        Double.parseDouble(fields[3]),
+        List.copyOf(histogram));
+  }
+
+  private void publish(String payload) {
+    try {
+      stringRedisTemplate.convertAndSend(channel, payload);
+    } catch (Exception e) {
+      log.error("Failed to publish catalog invalidation on channel {}", channel, e);
+    }
+  }
+
+  private void reindexQuietly(String kind, Long foodId) {
+    if (!FOOD_CHANGE.equals(kind)) {
+      return;
+    }
+    try {
+      foodTypeaheadIndex.reindex(foodId);
+    } catch (Exception e) {
+      log.warn("Failed to reindex food {} for typeahead", foodId, e);
+    }
+  }
+}
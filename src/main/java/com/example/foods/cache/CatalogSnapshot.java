@@ -0,0 +1,154 @@
+package com.example.foods.cache;
+
+import com.example.foods.dto.response.FoodResponseDto;
+import com.example.foods.search.SearchText;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import lombok.Getter;
+
+/**
+ * Immutable view of the whole catalog with rating stats already applied. Instances are shared
+ * between request threads; the contained DTOs are immutable too, so a change produces a new
+ * snapshot.
+ */
+@Getter
+public class CatalogSnapshot {
+
+  private static final AtomicLong REVISIONS = new AtomicLong();
+
+  private final List<FoodResponseDto> foods;
+  private final Map<Long, FoodResponseDto> foodsById;
+  private final Map<String, List<FoodResponseDto>> foodsByCategory;
+
+  /** Normalized name, category and description per food, each token preceded by a space. */
+  private final Map<Long, String> searchText;
+
+  private final Instant builtAt;
+
+  /**
+   * Increases with every snapshot, loaded or patched, so indexes derived from a snapshot can tell
+   * which of two snapshots is newer.
+   */
+  private final long revision;
+
+  /**
+   * Strong entity tag over the content of every food in order. Nodes that loaded the same rows
+   * produce the same tag, so conditional requests validate on any node.
+   */
+  private final String versionStamp;
+
+  /** Stock of a food after a committed order, as the food row had it at {@code version}. */
+  public record StockLevel(long version, int quantity) {}
+
+  /** Rating aggregates of a food after a committed rating, read with the row at {@code version}. */
+  public record RatingLevel(
+      long version, long ratingCount, double averageRating, List<Long> histogram) {}
+
+  private CatalogSnapshot(List<FoodResponseDto> foods, Instant builtAt) {
+    Map<Long, FoodResponseDto> byId = new HashMap<>();
+    Map<String, List<FoodResponseDto>> byCategory = new LinkedHashMap<>();
+    Map<Long, String> text = new HashMap<>();
+    for (FoodResponseDto food : foods) {
+      byId.put(food.getId(), food);
+      text.put(food.getId(), normalize(food));
+      byCategory.computeIfAbsent(food.getCategory(), k -> new ArrayList<>()).add(food);
+    }
+    byCategory.replaceAll((category, list) -> List.copyOf(list));
+
+    this.foods = List.copyOf(foods);
+    this.foodsById = Collections.unmodifiableMap(byId);
+    this.foodsByCategory = Collections.unmodifiableMap(byCategory);
+    this.searchText = Collections.unmodifiableMap(text);
+    this.builtAt = builtAt;
+    this.revision = REVISIONS.incrementAndGet();
+    this.versionStamp = stamp(this.foods);
+  }
+
+  public static CatalogSnapshot of(List<FoodResponseDto> foods) {
+    return new CatalogSnapshot(foods == null ? List.of() : foods, Instant.now());
+  }
+
+  /**
+   * Copy with the quantity and version of the given foods replaced, keeping the build time so the
+   * copy still expires with this snapshot. Levels older than the snapshot's row are
+   * ignored, so out-of-order updates cannot roll stock back.
+   */
+  public CatalogSnapshot withStock(Map<Long, StockLevel> levels) {
+    return patch(
+        levels,
+        (food, level) ->
+            food.getVersion() == null || food.getVersion() < level.version()
+                ? food.toBuilder().quantity(level.quantity()).version(level.version()).build()
+                : food);
+  }
+
+  /**
+   * Copy with the rating aggregates of the given foods replaced, keeping the build time. Ratings do
+   * not move the food version, so a level read at an older version than the snapshot's row is
+   * ignored, while one read at the same version is applied.
+   */
+  public CatalogSnapshot withRatings(Map<Long, RatingLevel> levels) {
+    return patch(
+        levels,
+        (food, level) ->
+            food.getVersion() == null || food.getVersion() <= level.version()
+                ? food.toBuilder()
+                    .ratingCount(level.ratingCount())
+                    .averageRating(level.averageRating())
+                    .clearRatingHistogram()
+                    .ratingHistogram(level.histogram())
+                    .build()
+                : food);
+  }
+
+  private <T> CatalogSnapshot patch(
+      Map<Long, T> levels, BiFunction<FoodResponseDto, T, FoodResponseDto> apply) {
+    List<FoodResponseDto> patched = new ArrayList<>(foods.size());
+    for (FoodResponseDto food : foods) {
+      T level = levels.get(food.getId());
+      patched.add(level == null ? food : apply.apply(food, level));
+    }
+    return new CatalogSnapshot(patched, builtAt);
+  }
+
+  private static String stamp(List<FoodResponseDto> foods) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    for (FoodResponseDto food : foods) {
+      String entry =
+          food.getId()
+              + ":"
+              + food.getVersion()
+              + ":"
+              + food.getRatingCount()
+              + ":"
+              + food.getAverageRating()
+              + ";";
+      digest.update(entry.getBytes(StandardCharsets.UTF_8));
+    }
+    return "\"catalog-" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+  }
+
+  private static String normalize(FoodResponseDto food) {
+    StringBuilder text = new StringBuilder();
+    for (String field : new String[] {food.getName(), food.getCategory(), food.getDescription()}) {
+      SearchText.tokenize(field).forEach(token -> text.append(' ').append(token));
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,139 @@
+package com.example.foods.cache;
+
+import com.example.foods.dto.response.FoodResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Node-local, copy-on-write cache of the catalog. Reads are a single volatile load; a miss rebuilds
+ * the snapshot once under a lock while concurrent readers wait for that rebuild instead of hitting
+ * the database themselves. Invalidation bumps a generation counter so a rebuild that raced with a
+ * write is returned to its caller but never installed.
+ *
+ * <p>Stock changes from orders and rating changes are frequent, so they patch the current snapshot
+ * in place instead of invalidating it; only menu edits force a rebuild.
+ */
+@Component
+@Slf4j
+public class CatalogSnapshotCache {
+
+  private final TransactionTemplate transactionTemplate;
+  private final Duration maxAge;
+  private final AtomicLong generation = new AtomicLong();
+  private final ReentrantLock rebuildLock = new ReentrantLock();
+  private final Object installLock = new Object();
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter invalidations;
+  private final Counter stockPatches;
+  private final Counter ratingPatches;
+  private final Timer rebuilds;
+
+  private volatile CatalogSnapshot snapshot;
+
+  public CatalogSnapshotCache(
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${app.catalog.snapshot.max-age:PT5M}") Duration maxAge) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.maxAge = maxAge;
+    this.hits = meterRegistry.counter("catalog.snapshot.requests", "result", "hit");
+    this.misses = meterRegistry.counter("catalog.snapshot.requests", "result", "miss");
+    this.invalidations = meterRegistry.counter("catalog.snapshot.invalidations");
+    this.stockPatches = meterRegistry.counter("catalog.snapshot.stock-patches");
+    this.ratingPatches = meterRegistry.counter("catalog.snapshot.rating-patches");
+    this.rebuilds = meterRegistry.timer("catalog.snapshot.rebuild");
+  }
+
+  public CatalogSnapshot getSnapshot(Supplier<List<FoodResponseDto>> loader) {
+    CatalogSnapshot current = snapshot;
+    if (isFresh(current)) {
+      hits.increment();
+      return current;
+    }
+
+    misses.increment();
+    rebuildLock.lock();
+    try {
+      current = snapshot;
+      if (isFresh(current)) {
+        return current;
+      }
+      long expectedGeneration = generation.get();
+      CatalogSnapshot rebuilt =
+          rebuilds.record(
+              () -> transactionTemplate.execute(status -> CatalogSnapshot.of(loader.get())));
+      synchronized (installLock) {
+        if (generation.get() == expectedGeneration) {
+          snapshot = rebuilt;
+        }
+      }
+      log.debug("Rebuilt catalog snapshot with {} foods", rebuilt.getFoods().size());
+      return rebuilt;
+    } finally {
+      rebuildLock.unlock();
+    }
+  }
+
+  /** Returns the current snapshot if it is fresh, without triggering a rebuild. */
+  public CatalogSnapshot peek() {
+    CatalogSnapshot current = snapshot;
+    return isFresh(current) ? current : null;
+  }
+
+  public void invalidate() {
+    synchronized (installLock) {
+      generation.incrementAndGet();
+      snapshot = null;
+    }
+    invalidations.increment();
+    log.debug("Catalog snapshot invalidated");
+  }
+
+  /**
+   * Applies committed stock levels to the current snapshot. A rebuild already in flight may have
+   * read the old stock, so it is still returned to its caller but not installed.
+   */
+  public void applyStock(Map<Long, CatalogSnapshot.StockLevel> levels) {
+    patch(current -> current.withStock(levels));
+    stockPatches.increment();
+    log.debug("Applied stock of {} foods to catalog snapshot", levels.size());
+  }
+
+  /** Applies committed rating aggregates to the current snapshot, like {@link #applyStock}. */
+  public void applyRatings(Map<Long, CatalogSnapshot.RatingLevel> levels) {
+    patch(current -> current.withRatings(levels));
+    ratingPatches.increment();
+    log.debug("Applied ratings of {} foods to catalog snapshot", levels.size());
+  }
+
+  private void patch(UnaryOperator<CatalogSnapshot> change) {
+    synchronized (installLock) {
+      generation.incrementAndGet();
+      CatalogSnapshot current = snapshot;
+      if (current != null) {
+        snapshot = change.apply(current);
+      }
+    }
+  }
+
+  private boolean isFresh(CatalogSnapshot candidate) {
+    return candidate != null && candidate.getBuiltAt().plus(maxAge).isAfter(Instant.now());
+  }
+}
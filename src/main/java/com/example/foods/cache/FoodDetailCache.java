@@ -0,0 +1,212 @@
+package com.example.foods.cache;
+
+import com.example.foods.dto.response.FoodResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Read-through cache for assembled food details: a size-bounded in-heap L1 per node in front of a
+ * shared Redis L2.
+ *
+ * <p>L2 entries are keyed by a per-food generation that every committed change increments, whether
+ * it moved the food's version or not (ratings, for instance, do not). A loader remembers the
+ * generation it started under and its result is stored only if that is still current, so a row
+ * read before a change can never be published after it. Likewise an eviction on this node discards
+ * the result of any load still in flight. Concurrent misses for the same id are coalesced into a
+ * single load.
+ */
+@Component
+@Slf4j
+public class FoodDetailCache {
+
+  private static final String KEY_PREFIX = "food:detail:";
+  private static final String GENERATION_KEY_PREFIX = "food:detail:generation:";
+
+  // Increment the pointer if it exists; a missing one is seeded afresh by the next reader.
+  private static final RedisScript<Long> BUMP_GENERATION =
+      new DefaultRedisScript<>(
+          "if redis.call('EXISTS', KEYS[1]) == 1 then redis.call('INCR', KEYS[1]) end return 1",
+          Long.class);
+
+  // Store an entry only if no change has been committed since its loader started.
+  private static final RedisScript<Long> PUT_IF_CURRENT =
+      new DefaultRedisScript<>(
+          "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end "
+              + "redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3]) "
+              + "return 1",
+          Long.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final ObjectMapper objectMapper;
+  private final Duration l2Ttl;
+  private final Cache<Long, FoodResponseDto> l1;
+  private final Map<Long, CompletableFuture<FoodResponseDto>> inFlight = new ConcurrentHashMap<>();
+
+  private final Counter l1Hits;
+  private final Counter l2Hits;
+  private final Counter misses;
+  private final Counter coalesced;
+
+  public FoodDetailCache(
+      StringRedisTemplate stringRedisTemplate,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.food-detail-cache.l1-max-size:10000}") long l1MaxSize,
+      @Value("${app.food-detail-cache.l1-ttl:PT1M}") Duration l1Ttl,
+      @Value("${app.food-detail-cache.l2-ttl:PT30M}") Duration l2Ttl) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.objectMapper = objectMapper;
+    this.l2Ttl = l2Ttl;
+    this.l1 = Caffeine.newBuilder().maximumSize(l1MaxSize).expireAfterWrite(l1Ttl).build();
+    this.l1Hits = meterRegistry.counter("food.detail.cache.requests", "result", "l1-hit");
+    this.l2Hits = meterRegistry.counter("food.detail.cache.requests", "result", "l2-hit");
+    this.misses = meterRegistry.counter("food.detail.cache.requests", "result", "miss");
+    this.coalesced = meterRegistry.counter("food.detail.cache.coalesced");
+  }
+
+  public FoodResponseDto get(Long foodId, Supplier<FoodResponseDto> loader) {
+    FoodResponseDto cached = l1.getIfPresent(foodId);
+    if (cached != null) {
+      l1Hits.increment();
+      return cached;
+    }
+
+    CompletableFuture<FoodResponseDto> load = new CompletableFuture<>();
+    CompletableFuture<FoodResponseDto> existing = inFlight.putIfAbsent(foodId, load);
+    if (existing != null) {
+      coalesced.increment();
+      return await(existing);
+    }
+
+    try {
+      String generation = currentGeneration(foodId);
+      FoodResponseDto value = generation == null ? null : readL2(foodId, generation);
+      if (value != null) {
+        l2Hits.increment();
+      } else {
+        misses.increment();
+        value = loader.get();
+        if (generation != null) {
+          writeL2(foodId, generation, value);
+        }
+      }
+      putL1(foodId, value, load);
+      load.complete(value);
+      return value;
+    } catch (RuntimeException e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(foodId, load);
+    }
+  }
+
+  /** Returns the L1 entry without loading, or {@code null}. */
+  public FoodResponseDto peek(Long foodId) {
+    return l1.getIfPresent(foodId);
+  }
+
+  /**
+   * Records a committed change: the shared generation is incremented, so the current L2 entry and
+   * any load still in flight on another node become unreachable.
+   */
+  public void evict(Long foodId) {
+    evictLocal(foodId);
+    try {
+      stringRedisTemplate.execute(BUMP_GENERATION, List.of(GENERATION_KEY_PREFIX + foodId));
+    } catch (Exception e) {
+      log.warn("Failed to evict food {} from shared detail cache", foodId, e);
+    }
+  }
+
+  /** Drops the L1 entry only; used when another node has already updated the shared tier. */
+  public void evictLocal(Long foodId) {
+    // Detach the in-flight load first, so its result is either discarded or invalidated below.
+    inFlight.remove(foodId);
+    l1.invalidate(foodId);
+  }
+
+  private void putL1(Long foodId, FoodResponseDto value, CompletableFuture<FoodResponseDto> load) {
+    l1.put(foodId, value);
+    if (inFlight.get(foodId) != load) {
+      // Evicted while loading: the value may predate the change.
+      l1.asMap().remove(foodId, value);
+    }
+  }
+
+  /**
+   * Generation of the food's L2 entry, seeding the pointer on first use. Seeds are taken from the
+   * clock so a pointer lost in Redis does not restart at a value an old entry may still carry.
+   * Returns {@code null} when Redis is unavailable.
+   */
+  private String currentGeneration(Long foodId) {
+    String key = GENERATION_KEY_PREFIX + foodId;
+    try {
+      String generation = stringRedisTemplate.opsForValue().get(key);
+      if (generation != null) {
+        return generation;
+      }
+      stringRedisTemplate
+          .opsForValue()
+          .setIfAbsent(key, String.valueOf(System.currentTimeMillis()));
+      return stringRedisTemplate.opsForValue().get(key);
+    } catch (Exception e) {
+      log.warn("Failed to read generation of food {} from shared detail cache", foodId, e);
+      return null;
+    }
+  }
+
+  private FoodResponseDto readL2(Long foodId, String generation) {
+    try {
+      String json = stringRedisTemplate.opsForValue().get(entryKey(foodId, generation));
+      return json == null ? null : objectMapper.readValue(json, FoodResponseDto.class);
+    } catch (Exception e) {
+      log.warn("Failed to read food {} from shared detail cache", foodId, e);
+      return null;
+    }
+  }
+
+  private void writeL2(Long foodId, String generation, FoodResponseDto value) {
+    try {
+      stringRedisTemplate.execute(
+          PUT_IF_CURRENT,
+          List.of(GENERATION_KEY_PREFIX + foodId, entryKey(foodId, generation)),
+          generation,
+          objectMapper.writeValueAsString(value),
+          String.valueOf(l2Ttl.toSeconds()));
+    } catch (Exception e) {
+      log.warn("Failed to write food {} to shared detail cache", foodId, e);
+    }
+  }
+
+  private static String entryKey(Long foodId, String generation) {
+    return KEY_PREFIX + foodId + ":" + generation;
+  }
+
+  private static FoodResponseDto await(CompletableFuture<FoodResponseDto> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
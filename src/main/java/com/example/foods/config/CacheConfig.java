@@ -0,0 +1,23 @@
+package com.example.foods.config;
+
+import com.example.foods.cache.CatalogInvalidationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class CacheConfig {
+
+  @Bean
+  public RedisMessageListenerContainer catalogMessageListenerContainer(
+      RedisConnectionFactory connectionFactory,
+      CatalogInvalidationListener catalogInvalidationListener) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(
+        catalogInvalidationListener, new ChannelTopic(catalogInvalidationListener.getChannel()));
+    return container;
+  }
+}
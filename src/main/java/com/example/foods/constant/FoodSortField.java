@@ -0,0 +1,71 @@
+package com.example.foods.constant;
+
+import com.example.foods.dto.response.CatalogItem;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * Stable sort keys supported by the keyset-paginated catalog listing. Every key has a {@code (key,
+ * id)} index, so each page is an index range scan. The popularity and rating keys list the highest
+ * values first unless a direction is given.
+ */
+@Getter
+public enum FoodSortField {
+  ID("id", CatalogItem::getId, false),
+  NAME("name", CatalogItem::getName, false),
+  PRICE("price", CatalogItem::getPrice, false),
+  CREATED_AT("createdAt", CatalogItem::getCreatedAt, false),
+  ORDER_COUNT("orderCount", CatalogItem::getOrderCount, true),
+  VIEW_COUNT("viewCount", CatalogItem::getViewCount, true),
+  RATING("ratingStats.average", CatalogItem::getAverageRating, true);
+
+  /** Entity attribute path; nested attributes are separated by dots. */
+  private final String property;
+
+  private final Function<CatalogItem, Object> extractor;
+  private final boolean descendingByDefault;
+
+  FoodSortField(
+      String property, Function<CatalogItem, Object> extractor, boolean descendingByDefault) {
+    this.property = property;
+    this.extractor = extractor;
+    this.descendingByDefault = descendingByDefault;
+  }
+
+  public static FoodSortField from(String value) {
+    if (value == null || value.isBlank()) {
+      return ID;
+    }
+    // Accept the enum name as well as camelCase and kebab-case spellings, e.g. orderCount.
+    String normalized = value.trim().replace("-", "").replace("_", "").toUpperCase();
+    for (FoodSortField field : values()) {
+      if (field.name().replace("_", "").equals(normalized)) {
+        return field;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported sort field: " + value);
+  }
+
+  public Object extractValue(CatalogItem food) {
+    return extractor.apply(food);
+  }
+
+  public String formatValue(Object value) {
+    return value == null ? "" : value.toString();
+  }
+
+  public Comparable<?> parseValue(String raw) {
+    if (raw == null || raw.isEmpty()) {
+      return null;
+    }
+    return switch (this) {
+      case ID -> Long.valueOf(raw);
+      case NAME -> raw;
+      case PRICE -> Double.valueOf(raw);
+      case CREATED_AT -> LocalDateTime.parse(raw);
+      case ORDER_COUNT, VIEW_COUNT -> Long.valueOf(raw);
+      case RATING -> Double.valueOf(raw);
+    };
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.foods.constant;
+
+import lombok.Getter;
+
+/** Renditions generated for every uploaded food image, by the longest side they are scaled to. */
+@Getter
+public enum ImageSize {
+  THUMBNAIL("thumb", 320),
+  MEDIUM("medium", 960);
+
+  /** Name used in the image endpoint's {@code size} parameter and in rendition keys. */
+  private final String parameter;
+
+  private final int maxDimension;
+
+  ImageSize(String parameter, int maxDimension) {
+    this.parameter = parameter;
+    this.maxDimension = maxDimension;
+  }
+
+  /** The size named by {@code value}, or {@code null} for the original image. */
+  public static ImageSize from(String value) {
+    if (value == null || value.isBlank() || value.trim().equalsIgnoreCase("original")) {
+      return null;
+    }
+    for (ImageSize size : values()) {
+      if (size.parameter.equalsIgnoreCase(value.trim())) {
+        return size;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported image size: " + value);
+  }
+}
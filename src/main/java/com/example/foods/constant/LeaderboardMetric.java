@@ -0,0 +1,24 @@
+package com.example.foods.constant;
+
+import java.util.Locale;
+
+/** What a food leaderboard ranks by. */
+public enum LeaderboardMetric {
+  ORDERS,
+  VIEWS;
+
+  public static LeaderboardMetric from(String value) {
+    if (value == null || value.isBlank()) {
+      return ORDERS;
+    }
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unsupported leaderboard metric: " + value);
+    }
+  }
+
+  public String key() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
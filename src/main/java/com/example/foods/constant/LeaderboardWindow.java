@@ -0,0 +1,21 @@
+package com.example.foods.constant;
+
+import java.util.Locale;
+
+/** Time span a food leaderboard covers; days are UTC calendar days. */
+public enum LeaderboardWindow {
+  DAY,
+  WEEK,
+  ALL;
+
+  public static LeaderboardWindow from(String value) {
+    if (value == null || value.isBlank()) {
+      return ALL;
+    }
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unsupported leaderboard window: " + value);
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.foods.controller;
+
+import com.example.foods.constant.OrderStatus;
+import com.example.foods.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/admin/orders")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminOrderController {
+
+  private final OrderService orderService;
+
+  /** All orders, optionally filtered by status, streamed as a JSON array from a cursor. */
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportOrders(
+      @RequestParam(required = false) OrderStatus status) {
+    log.info("Admin exporting orders with status: {}", status);
+    StreamingResponseBody body = out -> orderService.exportOrders(status, out);
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.json\"")
+        .body(body);
+  }
+}
@@ -1,10 +1,14 @@
 package com.example.foods.controller;
 
+import com.example.foods.dto.response.CartItemDto;
 import com.example.foods.dto.response.CartResponseDto;
+import com.example.foods.dto.response.FoodRankingDto;
 import com.example.foods.dto.response.UserResponseDto;
 import com.example.foods.service.CartService;
+import com.example.foods.service.FoodAnalyticsService;
 import com.example.foods.service.UserService;
 import java.security.Principal;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +22,7 @@ public class CartController {
 
   private final CartService cartService;
   private final UserService userService;
+  private final FoodAnalyticsService foodAnalyticsService;
 
   @GetMapping
   public ResponseEntity<CartResponseDto> getCart(Principal principal) {
@@ -27,6 +32,18 @@ public class CartController {
     return ResponseEntity.ok(cart);
   }
 
+  @GetMapping("/recommendations")
+  public ResponseEntity<List<FoodRankingDto>> getCartRecommendations(
+      @RequestParam(required = false) Integer limit, Principal principal) {
+    log.info("REST request to get cart recommendations for user: {}", principal.getName());
+    UserResponseDto user = userService.getUserByUsername(principal.getName());
+    List<Long> foodIds =
+        cartService.getOrCreateCart(user.getId()).getItems().stream()
+            .map(CartItemDto::getFoodId)
+            .toList();
+    return ResponseEntity.ok(foodAnalyticsService.getFrequentlyBoughtTogether(foodIds, limit));
+  }
+
   @PostMapping("/items")
   public ResponseEntity<CartResponseDto> addItemToCart(
       @RequestParam Long foodId, @RequestParam Integer quantity, Principal principal) {
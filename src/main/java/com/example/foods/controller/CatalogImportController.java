@@ -0,0 +1,40 @@
+package com.example.foods.controller;
+
+import com.example.foods.dto.response.CatalogImportStatusDto;
+import com.example.foods.service.CatalogImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/admin/catalog-imports")
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogImportController {
+
+  private final CatalogImportService catalogImportService;
+
+  @PostMapping
+  public ResponseEntity<CatalogImportStatusDto> startImport(
+      @RequestParam("items") MultipartFile items,
+      @RequestParam(value = "images", required = false) MultipartFile images) {
+    log.info("Admin starting catalog import from {}", items.getOriginalFilename());
+    return new ResponseEntity<>(
+        catalogImportService.startImport(items, images), HttpStatus.ACCEPTED);
+  }
+
+  @GetMapping("/{importId}")
+  public ResponseEntity<CatalogImportStatusDto> getImport(@PathVariable String importId) {
+    return ResponseEntity.ok(catalogImportService.getImport(importId));
+  }
+
+  @PostMapping("/{importId}/restart")
+  public ResponseEntity<CatalogImportStatusDto> restartImport(@PathVariable String importId) {
+    log.info("Admin restarting catalog import {}", importId);
+    return new ResponseEntity<>(
+        catalogImportService.restartImport(importId), HttpStatus.ACCEPTED);
+  }
+}
@@ -1,23 +1,47 @@
 package com.example.foods.controller;
 
+import com.example.foods.constant.ImageSize;
+import com.example.foods.dto.ResourceVersion;
+import com.example.foods.dto.request.FoodBulkUpdateRequestDto;
+import com.example.foods.dto.request.FoodFilterRequestDto;
 import com.example.foods.dto.request.FoodRequestDto;
+import com.example.foods.dto.response.FoodBulkUpdateResponseDto;
+import com.example.foods.dto.response.FoodCardDto;
+import com.example.foods.dto.response.FoodChangesResponseDto;
+import com.example.foods.dto.response.FoodFilterResponseDto;
+import com.example.foods.dto.response.FoodPageResponseDto;
+import com.example.foods.dto.response.FoodRankingDto;
 import com.example.foods.dto.response.FoodResponseDto;
+import com.example.foods.dto.response.FoodSearchResponseDto;
+import com.example.foods.dto.response.FoodTypeaheadDto;
 import com.example.foods.service.FileStorageService;
+import com.example.foods.service.FoodAnalyticsService;
 import com.example.foods.service.FoodService;
+import com.example.foods.service.RecommendationService;
+import com.example.foods.storage.ImageDerivatives;
+import com.example.foods.storage.StoredObject;
+import com.example.foods.storage.StoredObjectNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/foods")
@@ -25,8 +49,15 @@ import org.springframework.web.servlet.HandlerMapping;
 @Slf4j
 public class FoodController {
 
+  // Image keys are unique per upload and never rewritten, so browsers can keep them for long.
+  private static final CacheControl IMAGE_CACHE_CONTROL =
+      CacheControl.maxAge(Duration.ofDays(30)).cachePrivate();
+
   private final FoodService foodService;
   private final FileStorageService fileStorageService;
+  private final FoodAnalyticsService foodAnalyticsService;
+  private final RecommendationService recommendationService;
+  private final ImageDerivatives imageDerivatives;
 
   @PostMapping
   public ResponseEntity<FoodResponseDto> createFood(
@@ -37,17 +68,101 @@ public class FoodController {
   }
 
   @GetMapping
-  public ResponseEntity<List<FoodResponseDto>> getAllFoods() {
+  public ResponseEntity<List<FoodResponseDto>> getAllFoods(WebRequest request) {
     log.info("REST request to get all foods");
+    if (notModified(request, foodService.getCatalogVersion())) {
+      return null;
+    }
     List<FoodResponseDto> foods = foodService.getAllFoods();
-    return ResponseEntity.ok(foods);
+    return revalidated(foods);
+  }
+
+  /**
+   * Full catalog as a JSON array streamed from a database cursor, for exports too large to hold in
+   * memory. The response is written on an async thread, so the request thread is released at once.
+   */
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportFoods() {
+    log.info("REST request to export all foods");
+    StreamingResponseBody body = out -> foodService.exportFoods(out);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  @GetMapping("/page")
+  public ResponseEntity<FoodPageResponseDto<FoodResponseDto>> getFoodsPage(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String direction) {
+    log.info(
+        "REST request to get foods page: sort={}, direction={}, size={}", sort, direction, size);
+    FoodPageResponseDto<FoodResponseDto> page =
+        foodService.getFoodsPage(cursor, size, sort, direction);
+    return ResponseEntity.ok(page);
+  }
+
+  @GetMapping("/cards")
+  public ResponseEntity<FoodPageResponseDto<FoodCardDto>> getFoodCardsPage(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String direction) {
+    log.info(
+        "REST request to get food cards page: sort={}, direction={}, size={}",
+        sort,
+        direction,
+        size);
+    return ResponseEntity.ok(foodService.getFoodCardsPage(cursor, size, sort, direction));
+  }
+
+  @GetMapping("/top")
+  public ResponseEntity<List<FoodRankingDto>> getTopFoods(
+      @RequestParam(required = false) String by,
+      @RequestParam(required = false) String window,
+      @RequestParam(required = false) String category,
+      @RequestParam(required = false) Integer limit) {
+    log.info("REST request to get top foods by {} for window {}", by, window);
+    return ResponseEntity.ok(foodAnalyticsService.getTopFoods(by, window, category, limit));
+  }
+
+  @GetMapping("/trending")
+  public ResponseEntity<List<FoodRankingDto>> getTrendingFoods(
+      @RequestParam(required = false) Integer limit) {
+    log.info("REST request to get trending foods");
+    return ResponseEntity.ok(foodAnalyticsService.getTrendingFoods(limit));
+  }
+
+  @GetMapping("/{id}/bought-together")
+  public ResponseEntity<List<FoodRankingDto>> getFrequentlyBoughtTogether(
+      @PathVariable Long id, @RequestParam(required = false) Integer limit) {
+    log.info("REST request to get foods frequently bought together with food ID: {}", id);
+    return ResponseEntity.ok(foodAnalyticsService.getFrequentlyBoughtTogether(List.of(id), limit));
+  }
+
+  @GetMapping("/recommended")
+  public ResponseEntity<List<FoodResponseDto>> getRecommendedFoods(
+      @RequestParam(required = false) Integer limit, Principal principal) {
+    log.info("REST request to get recommended foods for user: {}", principal.getName());
+    return ResponseEntity.ok(
+        recommendationService.getRecommendationsForUser(principal.getName(), limit));
+  }
+
+  @GetMapping("/changes")
+  public ResponseEntity<FoodChangesResponseDto> getFoodChanges(
+      @RequestParam(required = false) Long since, @RequestParam(required = false) Integer size) {
+    log.info("REST request to get food changes since {}", since);
+    return ResponseEntity.ok(foodService.getFoodChanges(since, size));
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<FoodResponseDto> getFoodById(@PathVariable Long id) {
+  public ResponseEntity<FoodResponseDto> getFoodById(@PathVariable Long id, WebRequest request) {
     log.info("REST request to get food with ID: {}", id);
+    ResourceVersion version = foodService.getFoodVersion(id).orElse(null);
+    if (version != null && notModified(request, version)) {
+      return null;
+    }
     FoodResponseDto food = foodService.getFoodById(id);
-    return ResponseEntity.ok(food);
+    return revalidated(food);
   }
 
   @PutMapping("/{id}")
@@ -58,6 +173,13 @@ public class FoodController {
     return ResponseEntity.ok(updatedFood);
   }
 
+  @PatchMapping("/bulk")
+  public ResponseEntity<FoodBulkUpdateResponseDto> bulkUpdateFoods(
+      @Valid @RequestBody FoodBulkUpdateRequestDto request) {
+    log.info("REST request to bulk update {} foods", request.getUpdates().size());
+    return ResponseEntity.ok(foodService.bulkUpdateFoods(request));
+  }
+
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteFood(@PathVariable Long id) {
     log.info("REST request to delete food with ID: {}", id);
@@ -66,10 +188,14 @@ public class FoodController {
   }
 
   @GetMapping("/category/{category}")
-  public ResponseEntity<List<FoodResponseDto>> getFoodsByCategory(@PathVariable String category) {
+  public ResponseEntity<List<FoodResponseDto>> getFoodsByCategory(
+      @PathVariable String category, WebRequest request) {
     log.info("REST request to get foods by category: {}", category);
+    if (notModified(request, foodService.getCatalogVersion())) {
+      return null;
+    }
     List<FoodResponseDto> foods = foodService.getFoodsByCategory(category);
-    return ResponseEntity.ok(foods);
+    return revalidated(foods);
   }
 
   @GetMapping("/search")
@@ -79,16 +205,56 @@ public class FoodController {
     return ResponseEntity.ok(foods);
   }
 
+  @GetMapping("/search/ranked")
+  public ResponseEntity<FoodSearchResponseDto> searchFoods(
+      @RequestParam(name = "q") String query,
+      @RequestParam(required = false) Integer page,
+      @RequestParam(required = false) Integer size) {
+    log.info("REST request to search foods: {}", query);
+    FoodSearchResponseDto result = foodService.searchFoods(query, page, size);
+    return ResponseEntity.ok(result);
+  }
+
+  @GetMapping("/filter")
+  public ResponseEntity<FoodFilterResponseDto> filterFoods(
+      @Valid @ModelAttribute FoodFilterRequestDto filter, WebRequest request) {
+    log.info("REST request to filter foods: {}", filter);
+    if (notModified(request, foodService.getCatalogVersion())) {
+      return null;
+    }
+    return revalidated(foodService.filterFoods(filter));
+  }
+
+  @GetMapping("/suggest")
+  public ResponseEntity<List<FoodTypeaheadDto>> suggestFoods(
+      @RequestParam(name = "q", required = false) String query,
+      @RequestParam(required = false) Integer limit) {
+    log.debug("REST request to suggest foods: {}", query);
+    return ResponseEntity.ok(foodService.suggestFoods(query, limit));
+  }
+
   @GetMapping("/price-range")
   public ResponseEntity<List<FoodResponseDto>> getFoodsByPriceRange(
-      @RequestParam Double minPrice, @RequestParam Double maxPrice) {
+      @RequestParam Double minPrice, @RequestParam Double maxPrice, WebRequest request) {
     log.info("REST request to get foods by price range: {} - {}", minPrice, maxPrice);
+    if (notModified(request, foodService.getCatalogVersion())) {
+      return null;
+    }
     List<FoodResponseDto> foods = foodService.getFoodsByPriceRange(minPrice, maxPrice);
-    return ResponseEntity.ok(foods);
+    return revalidated(foods);
   }
 
+  /**
+   * Streams an image. With {@code size=thumb} or {@code size=medium} the downscaled rendition is
+   * sent instead when one has been generated and the client accepts its format.
+   */
   @GetMapping("/images/**")
-  public ResponseEntity<byte[]> getImage(HttpServletRequest request) {
+  public ResponseEntity<StreamingResponseBody> getImage(
+      HttpServletRequest request,
+      @RequestParam(required = false) String size,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+      @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
     String path =
         (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
     String key = path.replaceFirst("/api/foods/images/", "");
@@ -99,9 +265,91 @@ public class FoodController {
     } catch (UnsupportedEncodingException e) {
       decodedKey = key;
     }
-    byte[] imageBytes = fileStorageService.downloadFile(decodedKey);
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.IMAGE_JPEG);
-    return ResponseEntity.ok().headers(headers).body(imageBytes);
+    ImageSize imageSize = ImageSize.from(size);
+    StoredObject image = openImage(decodedKey, imageSize, accept, singleRange(range, ifRange));
+    try {
+      ResponseEntity.BodyBuilder response =
+          image.isPartial()
+              ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                  .header(HttpHeaders.CONTENT_RANGE, image.getContentRange())
+              : ResponseEntity.ok();
+      if (image.getETag() != null) {
+        response.eTag(image.getETag());
+      }
+      if (image.getLastModified() != null) {
+        response.lastModified(image.getLastModified());
+      }
+      if (imageSize != null) {
+        response.varyBy(HttpHeaders.ACCEPT);
+      }
+      return response
+          .contentType(MediaType.parseMediaType(image.getContentType()))
+          .contentLength(image.getContentLength())
+          .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+          .cacheControl(IMAGE_CACHE_CONTROL)
+          .body(image::writeTo);
+    } catch (RuntimeException e) {
+      image.abort();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens the recorded {@code size} rendition of {@code key} if the client accepts its format,
+   * otherwise the original. A rendition missing from storage also falls back to the original.
+   */
+  private StoredObject openImage(String key, ImageSize size, String accept, String range) {
+    if (size != null && accepts(accept, ImageDerivatives.CONTENT_TYPE)) {
+      String derivativeKey = imageDerivatives.find(key, size).orElse(null);
+      if (derivativeKey != null) {
+        try {
+          return fileStorageService.openFile(derivativeKey, range);
+        } catch (StoredObjectNotFoundException e) {
+          log.warn("Image rendition {} is missing, serving original {}", derivativeKey, key);
+        }
+      }
+    }
+    return fileStorageService.openFile(key, range);
+  }
+
+  private static boolean accepts(String accept, MediaType type) {
+    if (accept == null || accept.isBlank()) {
+      return true;
+    }
+    try {
+      return MediaType.parseMediaTypes(accept).stream()
+          .anyMatch(accepted -> accepted.includes(type) && accepted.getQualityValue() > 0);
+    } catch (InvalidMediaTypeException e) {
+      return true;
+    }
+  }
+
+  /**
+   * The {@code Range} header to pass to storage, or {@code null} to send the whole image. Storage
+   * serves one range at a time, so multi-range and malformed headers get the full body, as does
+   * any {@code If-Range} request: a full response is always a valid answer to one.
+   */
+  private static String singleRange(String range, String ifRange) {
+    if (range == null || ifRange != null) {
+      return null;
+    }
+    try {
+      return HttpRange.parseRanges(range).size() == 1 ? range : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Answers 304 when the request's {@code If-None-Match} / {@code If-Modified-Since} match the
+   * given validators; otherwise adds them to the response that follows.
+   */
+  private static boolean notModified(WebRequest request, ResourceVersion version) {
+    return request.checkNotModified(version.getEtag(), version.getLastModifiedMillis());
+  }
+
+  /** Lets clients keep the body but revalidate it with a conditional GET on every use. */
+  private static <T> ResponseEntity<T> revalidated(T body) {
+    return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(body);
   }
 }
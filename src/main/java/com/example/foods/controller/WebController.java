@@ -2,8 +2,11 @@ package com.example.foods.controller;
 
 import com.example.foods.constant.OrderStatus;
 import com.example.foods.dto.request.CheckoutRequestDto;
+import com.example.foods.dto.request.FoodFilterRequestDto;
 import com.example.foods.dto.request.OrderItemRequestDto;
 import com.example.foods.dto.request.UserRequestDto;
+import com.example.foods.dto.response.FoodCardDto;
+import com.example.foods.dto.response.FoodResponseDto;
 import com.example.foods.dto.response.UserResponseDto;
 import com.example.foods.entity.FoodSuggestion;
 import com.example.foods.repository.FoodSuggestionRepository;
@@ -11,6 +14,7 @@ import com.example.foods.service.CartService;
 import com.example.foods.service.FoodAnalyticsService;
 import com.example.foods.service.FoodService;
 import com.example.foods.service.OrderService;
+import com.example.foods.service.RecommendationService;
 import com.example.foods.service.UserService;
 import jakarta.validation.Valid;
 import java.net.URLDecoder;
@@ -25,6 +29,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -34,12 +39,16 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @Slf4j
 public class WebController {
 
+  private static final int BOUGHT_TOGETHER_LIMIT = 4;
+  private static final int RECOMMENDATIONS_LIMIT = 4;
+
   private final FoodService foodService;
   private final UserService userService;
   private final OrderService orderService;
   private final CartService cartService;
   private final FoodSuggestionRepository foodSuggestionRepository;
   private final FoodAnalyticsService foodAnalyticsService;
+  private final RecommendationService recommendationService;
 
   @GetMapping("/")
   public String home() {
@@ -99,14 +108,46 @@ public class WebController {
     }
   }
 
+  /**
+   * Browsing pages through the catalog with a cursor; a search term or category switches to the
+   * numbered pages of the catalog filter, so matches come from the whole catalog.
+   */
   @GetMapping("/foods")
-  public String showFoodsPage(Model model, Principal principal, Authentication authentication) {
-    model.addAttribute("foods", foodService.getAllFoods());
+  public String showFoodsPage(
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "sort", required = false) String sort,
+      @RequestParam(value = "direction", required = false) String direction,
+      @RequestParam(value = "q", required = false) String query,
+      @RequestParam(value = "category", required = false) String category,
+      @RequestParam(value = "page", required = false) Integer page,
+      Model model,
+      Principal principal,
+      Authentication authentication) {
+    if (StringUtils.hasText(query) || StringUtils.hasText(category)) {
+      FoodFilterRequestDto filter =
+          FoodFilterRequestDto.builder()
+              .q(query)
+              .category(category)
+              .sort(sort)
+              .direction(direction)
+              .page(page)
+              .build();
+      var filterPage = foodService.filterFoods(filter);
+      model.addAttribute("foods", filterPage.getContent().stream().map(FoodCardDto::of).toList());
+      model.addAttribute("filterPage", filterPage);
+    } else {
+      var foodsPage = foodService.getFoodCardsPage(cursor, null, sort, direction);
+      model.addAttribute("foods", foodsPage.getContent());
+      model.addAttribute("foodsPage", foodsPage);
+    }
     model.addAttribute("username", principal.getName());
 
     boolean hasAdminRole =
         authentication.getAuthorities().stream()
             .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+    if (!hasAdminRole) {
+      addRecommendations(model, principal.getName());
+    }
 
     return hasAdminRole ? "admin/foods" : "user/foods";
   }
@@ -142,15 +183,24 @@ public class WebController {
     model.addAttribute("cartItems", cart.getItems());
     model.addAttribute("cartItemCount", cart.getItems().size());
     model.addAttribute("cartTotal", cart.getTotalAmount());
+    addRecommendations(model, user.getUsername());
 
     return "user/profile";
   }
 
   @GetMapping("/foods/{id}")
   public String showFoodDetails(@PathVariable Long id, Model model) {
-    model.addAttribute("food", foodService.getFoodById(id));
+    FoodResponseDto food = foodService.getFoodById(id);
+    model.addAttribute("food", food);
+    try {
+      model.addAttribute(
+          "boughtTogether",
+          foodAnalyticsService.getFrequentlyBoughtTogether(List.of(id), BOUGHT_TOGETHER_LIMIT));
+    } catch (RuntimeException e) {
+      log.error("Failed to load frequently bought together foods for food ID {}", id, e);
+    }
     try {
-      foodAnalyticsService.incrementViewCount(id);
+      foodAnalyticsService.incrementViewCount(id, food.getCategory());
     } catch (RuntimeException e) {
       log.error("Failed to increment view count for food ID {}", id, e);
     }
@@ -337,4 +387,15 @@ public class WebController {
     model.addAttribute("analytics", foodAnalyticsService.getAllFoodAnalytics());
     return "admin/analytics";
   }
+
+  // Served from the precomputed per-user list; never worth failing the page over.
+  private void addRecommendations(Model model, String username) {
+    try {
+      model.addAttribute(
+          "recommendations",
+          recommendationService.getRecommendationsForUser(username, RECOMMENDATIONS_LIMIT));
+    } catch (RuntimeException e) {
+      log.error("Failed to load recommendations for user {}", username, e);
+    }
+  }
 }
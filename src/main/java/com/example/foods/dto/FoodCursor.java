@@ -0,0 +1,69 @@
+package com.example.foods.dto;
+
+import com.example.foods.constant.FoodSortField;
+import com.example.foods.dto.response.CatalogItem;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Keyset position in the catalog listing. Clients only ever see the opaque Base64 form produced
+ * by {@link #encode()}; it carries the sort order together with the last returned row so that the
+ * next page is a plain index range scan instead of an OFFSET.
+ */
+@Getter
+@AllArgsConstructor
+public class FoodCursor {
+
+  private static final String SEPARATOR = "|";
+
+  private final FoodSortField sort;
+  private final boolean descending;
+  private final Long lastId;
+  private final Comparable<?> lastValue;
+
+  public static FoodCursor first(FoodSortField sort, boolean descending) {
+    return new FoodCursor(sort, descending, null, null);
+  }
+
+  public static FoodCursor after(FoodCursor current, CatalogItem last) {
+    Comparable<?> value = (Comparable<?>) current.getSort().extractValue(last);
+    return new FoodCursor(current.getSort(), current.isDescending(), last.getId(), value);
+  }
+
+  public boolean isFirstPage() {
+    return lastId == null;
+  }
+
+  public String encode() {
+    String raw =
+        sort.name()
+            + SEPARATOR
+            + (descending ? "DESC" : "ASC")
+            + SEPARATOR
+            + (lastId == null ? "" : lastId)
+            + SEPARATOR
+            + sort.formatValue(lastValue);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static FoodCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\" + SEPARATOR, 4);
+      if (parts.length != 4) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      FoodSortField sort = FoodSortField.valueOf(parts[0]);
+      boolean descending = "DESC".equals(parts[1]);
+      Long lastId = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+      return new FoodCursor(sort, descending, lastId, sort.parseValue(parts[3]));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.foods.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Validators for conditional GETs: a strong entity tag plus the last-modified instant. Computing
+ * one must be cheaper than building the response, so callers can answer 304 before loading it.
+ */
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+
+  private final String etag;
+  private final Instant lastModified;
+
+  /**
+   * Validators of a single food. Ratings are stored on the food row without bumping its version,
+   * so the rating totals are part of the tag.
+   */
+  public ResourceVersion(
+      Long id, Long version, Long ratingCount, Long ratingSum, LocalDateTime updatedAt) {
+    this(
+        "\"food-" + id + "-" + version + "-" + ratingCount + "-" + ratingSum + "\"",
+        updatedAt == null ? null : updatedAt.atZone(ZoneId.systemDefault()).toInstant());
+  }
+
+  public long getLastModifiedMillis() {
+    return lastModified == null ? -1 : lastModified.toEpochMilli();
+  }
+}
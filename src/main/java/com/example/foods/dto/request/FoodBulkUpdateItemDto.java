@@ -0,0 +1,22 @@
+package com.example.foods.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a bulk update. Fields left {@code null} keep their current value; {@code version} is
+ * required and must match the stored version or the row is reported as a conflict.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodBulkUpdateItemDto {
+  private Long id;
+  private Long version;
+  private Double price;
+  private Integer quantity;
+  private String status;
+}
@@ -0,0 +1,20 @@
+package com.example.foods.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodBulkUpdateRequestDto {
+
+  @NotEmpty(message = "At least one update is required")
+  @Size(max = 10000, message = "At most 10000 updates per request")
+  private List<FoodBulkUpdateItemDto> updates;
+}
@@ -0,0 +1,41 @@
+package com.example.foods.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodFilterRequestDto {
+
+  private String q;
+
+  private String category;
+
+  @PositiveOrZero(message = "Minimum price must not be negative")
+  private Double minPrice;
+
+  @PositiveOrZero(message = "Maximum price must not be negative")
+  private Double maxPrice;
+
+  private String status;
+
+  @DecimalMin(value = "0.0", message = "Minimum rating must be between 0 and 5")
+  @DecimalMax(value = "5.0", message = "Minimum rating must be between 0 and 5")
+  private Double minRating;
+
+  /** Sort key as accepted by the catalog listing, e.g. {@code price}; ids ascending if absent. */
+  private String sort;
+
+  private String direction;
+
+  private Integer page;
+
+  private Integer size;
+}
@@ -2,6 +2,7 @@ package com.example.foods.dto.request;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
@@ -18,6 +19,11 @@ import org.springframework.web.multipart.MultipartFile;
 @AllArgsConstructor
 public class FoodRequestDto {
 
+  /** Statuses a food may be given, as a regular expression. */
+  public static final String STATUSES = "ACTIVE|INACTIVE|DISCONTINUED";
+
+  public static final String STATUS_MESSAGE = "Status must be ACTIVE, INACTIVE or DISCONTINUED";
+
   private Long id;
 
   @NotBlank(message = "Name is required")
@@ -37,6 +43,7 @@ public class FoodRequestDto {
   private Integer quantity;
 
   @NotBlank(message = "Status is required")
+  @Pattern(regexp = STATUSES, message = STATUS_MESSAGE)
   private String status;
 
   private List<MultipartFile> foodImages;
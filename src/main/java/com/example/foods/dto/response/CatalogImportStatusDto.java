@@ -0,0 +1,27 @@
+package com.example.foods.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogImportStatusDto {
+  private String importId;
+  private String status;
+  private Long executionId;
+  private long readCount;
+  private long writeCount;
+  private long skipCount;
+  private long commitCount;
+  private Double itemsPerSecond;
+  private LocalDateTime startTime;
+  private LocalDateTime endTime;
+  private String exitMessage;
+}
@@ -0,0 +1,21 @@
+package com.example.foods.dto.response;
+
+import java.time.LocalDateTime;
+
+/** Sort keys shared by the DTOs served from the keyset-paginated catalog listing. */
+public interface CatalogItem {
+
+  Long getId();
+
+  String getName();
+
+  Double getPrice();
+
+  LocalDateTime getCreatedAt();
+
+  Long getOrderCount();
+
+  Long getViewCount();
+
+  Double getAverageRating();
+}
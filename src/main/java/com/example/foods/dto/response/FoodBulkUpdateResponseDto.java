@@ -0,0 +1,21 @@
+package com.example.foods.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodBulkUpdateResponseDto {
+  private int updated;
+  private int conflicts;
+  private int notFound;
+  private int invalid;
+
+  /** One result per request row, in request order. */
+  private List<FoodBulkUpdateResultDto> results;
+}
@@ -0,0 +1,30 @@
+package com.example.foods.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FoodBulkUpdateResultDto {
+
+  public enum Outcome {
+    UPDATED,
+    CONFLICT,
+    NOT_FOUND,
+    INVALID
+  }
+
+  private Long id;
+  private Outcome outcome;
+
+  /** New version when updated, the stored version on a conflict. */
+  private Long version;
+
+  private String message;
+}
@@ -0,0 +1,80 @@
+package com.example.foods.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Slim catalog card: what a listing tile shows, read in one flat query without entities. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodCardDto implements CatalogItem {
+  private Long id;
+  private String name;
+  private String description;
+  private String category;
+  private Double price;
+  private Integer quantity;
+  private String status;
+  private String thumbnailUrl;
+  private Double averageRating;
+  private Long ratingCount;
+  private Long viewCount;
+  private Long orderCount;
+  private LocalDateTime createdAt;
+
+  /** Constructor used by the JPA projection; derives the average from the stored aggregates. */
+  public FoodCardDto(
+      Long id,
+      String name,
+      String description,
+      String category,
+      Double price,
+      Integer quantity,
+      String status,
+      String thumbnailUrl,
+      Long ratingSum,
+      Long ratingCount,
+      Long viewCount,
+      Long orderCount,
+      LocalDateTime createdAt) {
+    this(
+        id,
+        name,
+        description,
+        category,
+        price,
+        quantity,
+        status,
+        thumbnailUrl,
+        ratingCount == null || ratingCount == 0 ? 0.0 : (double) ratingSum / ratingCount,
+        ratingCount,
+        viewCount,
+        orderCount,
+        createdAt);
+  }
+
+  /** Card of a food already assembled in full, e.g. from the catalog snapshot. */
+  public static FoodCardDto of(FoodResponseDto food) {
+    List<FoodImageResponseDto> images = food.getFoodImages();
+    return FoodCardDto.builder()
+        .id(food.getId())
+        .name(food.getName())
+        .description(food.getDescription())
+        .category(food.getCategory())
+        .price(food.getPrice())
+        .quantity(food.getQuantity())
+        .status(food.getStatus())
+        .thumbnailUrl(images == null || images.isEmpty() ? null : images.get(0).getImageUrl())
+        .averageRating(food.getAverageRating())
+        .ratingCount(food.getRatingCount())
+        .viewCount(food.getViewCount())
+        .orderCount(food.getOrderCount())
+        .createdAt(food.getCreatedAt())
+        .build();
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.foods.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodChangesResponseDto {
+  /** Foods created or updated since the requested sequence number, oldest change first. */
+  private List<FoodResponseDto> changed;
+
+  /** Ids of foods deleted since the requested sequence number. */
+  private List<Long> deleted;
+
+  /** Sequence number to pass as {@code since} on the next call. */
+  private long nextSince;
+
+  private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com.example.foods.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Facet counts for a filtered listing. Each facet ignores its own filter, so the UI can show how
+ * many results picking a different value would give.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodFacetsDto {
+  private List<FacetCountDto> categories;
+  private List<FacetCountDto> priceRanges;
+  private List<FacetCountDto> ratings;
+}
@@ -1,17 +1,21 @@
 package com.example.foods.dto.response;
 
 import java.time.LocalDateTime;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.annotation.JsonPOJOBuilder;
 
-@Data
+@Value
 @Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@JsonDeserialize(builder = FoodImageResponseDto.FoodImageResponseDtoBuilder.class)
 public class FoodImageResponseDto {
-  private Long id;
-  private String imageUrl;
-  private LocalDateTime createdAt;
+  Long id;
+  String imageUrl;
+  String thumbnailUrl;
+  String mediumUrl;
+  LocalDateTime createdAt;
+
+  @JsonPOJOBuilder(withPrefix = "")
+  public static class FoodImageResponseDtoBuilder {}
 }
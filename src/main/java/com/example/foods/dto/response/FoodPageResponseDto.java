@@ -0,0 +1,20 @@
+package com.example.foods.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodPageResponseDto<T> {
+  private List<T> content;
+  private int size;
+  private String sort;
+  private String direction;
+  private boolean hasNext;
+  private String nextCursor;
+}
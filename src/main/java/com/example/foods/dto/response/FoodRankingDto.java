@@ -0,0 +1,19 @@
+package com.example.foods.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodRankingDto {
+  private int rank;
+
+  /** Units ordered or views in the requested window, or the decayed trending score. */
+  private double score;
+
+  private FoodResponseDto food;
+}
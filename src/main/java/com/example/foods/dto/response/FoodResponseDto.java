@@ -2,26 +2,43 @@ package com.example.foods.dto.response;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Singular;
+import lombok.Value;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.annotation.JsonPOJOBuilder;
 
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class FoodResponseDto {
-  private Long id;
-  private String name;
-  private String description;
-  private String category;
-  private Double price;
-  private Integer quantity;
-  private String status;
-  private List<FoodImageResponseDto> foodImages;
-  private LocalDateTime createdAt;
-  private LocalDateTime updatedAt;
-  private Double averageRating;
-  private Long ratingCount;
+/**
+ * Immutable, since instances are shared between request threads by the catalog snapshot and the
+ * detail cache. Derive a changed copy with {@link #toBuilder()}.
+ */
+@Value
+@Builder(toBuilder = true)
+@JsonDeserialize(builder = FoodResponseDto.FoodResponseDtoBuilder.class)
+public class FoodResponseDto implements CatalogItem {
+  Long id;
+  String name;
+  String description;
+  String category;
+  Double price;
+  Integer quantity;
+  String status;
+  Long version;
+
+  @Singular(ignoreNullCollections = true)
+  List<FoodImageResponseDto> foodImages;
+
+  LocalDateTime createdAt;
+  LocalDateTime updatedAt;
+  Double averageRating;
+  Long ratingCount;
+
+  @Singular(value = "ratingHistogramEntry", ignoreNullCollections = true)
+  List<Long> ratingHistogram;
+
+  Long viewCount;
+  Long orderCount;
+
+  @JsonPOJOBuilder(withPrefix = "")
+  public static class FoodResponseDtoBuilder {}
 }
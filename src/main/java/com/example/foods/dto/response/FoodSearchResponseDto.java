@@ -0,0 +1,19 @@
+package com.example.foods.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodSearchResponseDto {
+  private String query;
+  private List<FoodResponseDto> content;
+  private int page;
+  private int size;
+  private boolean hasNext;
+}
@@ -0,0 +1,21 @@
+package com.example.foods.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodTypeaheadDto {
+  private Long id;
+  private String name;
+  private String category;
+  private String imageUrl;
+
+  /** Popularity used for ranking only. */
+  @JsonIgnore private Long orderCount;
+}
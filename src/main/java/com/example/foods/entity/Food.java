@@ -8,9 +8,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Table(name = "foods")
+@BatchSize(size = 100)
 @Data
 @Builder
 @NoArgsConstructor
@@ -43,7 +45,11 @@ public class Food {
 
   @Version private Long version;
 
+  // Loaded lazily in batches: a page of foods initializes all of its image collections with one
+  // IN query instead of multiplying the food rows by a join.
   @OneToMany(mappedBy = "food", cascade = CascadeType.ALL, orphanRemoval = true)
+  @BatchSize(size = 100)
+  @OrderBy("id")
   @Builder.Default
   private List<FoodImage> foodImages = new ArrayList<>();
 
@@ -55,6 +61,8 @@ public class Food {
   @Builder.Default
   private Long orderCount = 0L;
 
+  @Embedded @Builder.Default private RatingStats ratingStats = new RatingStats();
+
   @Column(name = "created_at")
   private LocalDateTime createdAt;
 
@@ -31,6 +31,14 @@ public class FoodImage {
   @Column(name = "image_url", nullable = false)
   private String imageUrl;
 
+  /** Key of the thumbnail rendition, or {@code null} until it has been generated. */
+  @Column(name = "thumbnail_url")
+  private String thumbnailUrl;
+
+  /** Key of the medium rendition, or {@code null} until it has been generated. */
+  @Column(name = "medium_url")
+  private String mediumUrl;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "food_id", nullable = false)
   @JsonBackReference
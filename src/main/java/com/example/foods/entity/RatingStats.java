@@ -0,0 +1,81 @@
+package com.example.foods.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Rating aggregates stored on the food row. The columns are written only by the delta and
+ * reconciliation SQL in {@code RatingServiceImpl}, never through the entity, so saving a food
+ * cannot overwrite a concurrent rating with stale counts.
+ */
+@Embeddable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingStats {
+
+  @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false)
+  @ColumnDefault("0")
+  @Builder.Default
+  private Long scoreSum = 0L;
+
+  @Column(name = "rating_count", nullable = false, insertable = false, updatable = false)
+  @ColumnDefault("0")
+  @Builder.Default
+  private Long ratingCount = 0L;
+
+  @Column(name = "rating_1_count", nullable = false, insertable = false, updatable = false)
+  @ColumnDefault("0")
+  @Builder.Default
+  private Long oneStarCount = 0L;
+
+  @Column(name = "rating_2_count", nullable = false, insertable = false, updatable = false)
+  @ColumnDefault("0")
+  @Builder.Default
+  private Long twoStarCount = 0L;
+
+  @Column(name = "rating_3_count", nullable = false, insertable = false, updatable = false)
+  @ColumnDefault("0")
+  @Builder.Default
+  private Long threeStarCount = 0L;
+
+  @Column(name = "rating_4_count", nullable = false, insertable = false, updatable = false)
+  @ColumnDefault("0")
+  @Builder.Default
+  private Long fourStarCount = 0L;
+
+  @Column(name = "rating_5_count", nullable = false, insertable = false, updatable = false)
+  @ColumnDefault("0")
+  @Builder.Default
+  private Long fiveStarCount = 0L;
+
+  /**
+   * Sort key only: the average generated by the database, mapped so queries can order by {@code
+   * ratingStats.average} from an index. Code reading the average uses {@link #getAverage()}, which
+   * derives it from the counts loaded with it and so never disagrees with the histogram.
+   */
+  @Column(
+      name = "rating_average",
+      insertable = false,
+      updatable = false,
+      columnDefinition =
+          "double precision GENERATED ALWAYS AS (CASE WHEN rating_count = 0 THEN 0 "
+              + "ELSE rating_sum::double precision / rating_count END) STORED")
+  private Double average;
+
+  public Double getAverage() {
+    return ratingCount == null || ratingCount == 0 ? 0.0 : (double) scoreSum / ratingCount;
+  }
+
+  /** Number of ratings per score, from one star to five. */
+  public List<Long> getHistogram() {
+    return List.of(oneStarCount, twoStarCount, threeStarCount, fourStarCount, fiveStarCount);
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.foods.event;
+
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Many foods changed by one bulk write (an import chunk or a bulk update), broadcast as a single
+ * invalidation instead of one {@link CatalogChangedEvent} per food.
+ */
+@Getter
+public class CatalogBatchChangedEvent extends ApplicationEvent {
+
+  /** Food id to its version after the change. */
+  private final Map<Long, Long> versions;
+
+  /** {@code true} when only stock changed, so search indexes need no reindexing. */
+  private final boolean stockOnly;
+
+  public CatalogBatchChangedEvent(Object source, Map<Long, Long> versions, boolean stockOnly) {
+    super(source);
+    this.versions = versions;
+    this.stockOnly = stockOnly;
+  }
+}
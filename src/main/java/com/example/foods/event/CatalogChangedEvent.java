@@ -0,0 +1,34 @@
+package com.example.foods.event;
+
+import com.example.foods.cache.CatalogSnapshot.RatingLevel;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class CatalogChangedEvent extends ApplicationEvent {
+  private final Long foodId;
+
+  /** Food version after the change, or {@code null} when the food row itself was not updated. */
+  private final Long version;
+
+  private final boolean deleted;
+
+  /** New rating aggregates when only the ratings of the food changed, otherwise {@code null}. */
+  private final RatingLevel ratings;
+
+  public CatalogChangedEvent(Object source, Long foodId, RatingLevel ratings) {
+    super(source);
+    this.foodId = foodId;
+    this.version = null;
+    this.deleted = false;
+    this.ratings = ratings;
+  }
+
+  public CatalogChangedEvent(Object source, Long foodId, Long version, boolean deleted) {
+    super(source);
+    this.foodId = foodId;
+    this.version = version;
+    this.deleted = deleted;
+    this.ratings = null;
+  }
+}
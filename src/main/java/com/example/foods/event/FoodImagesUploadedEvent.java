@@ -0,0 +1,18 @@
+package com.example.foods.event;
+
+import java.util.List;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/** New original images were stored for a food and need their renditions generated. */
+@Getter
+public class FoodImagesUploadedEvent extends ApplicationEvent {
+  private final Long foodId;
+  private final List<String> imageKeys;
+
+  public FoodImagesUploadedEvent(Object source, Long foodId, List<String> imageKeys) {
+    super(source);
+    this.foodId = foodId;
+    this.imageKeys = imageKeys;
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.foods.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class RatingSubmittedEvent extends ApplicationEvent {
+  private final Long foodId;
+  private final String username;
+
+  public RatingSubmittedEvent(Object source, Long foodId, String username) {
+    super(source);
+    this.foodId = foodId;
+    this.username = username;
+  }
+}
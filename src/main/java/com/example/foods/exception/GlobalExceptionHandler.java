@@ -1,9 +1,12 @@
 package com.example.foods.exception;
 
+import com.example.foods.storage.RangeNotSatisfiableException;
+import com.example.foods.storage.StoredObjectNotFoundException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -35,6 +38,36 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
 
+  /** Handle missing files in object storage */
+  @ExceptionHandler(StoredObjectNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleStoredObjectNotFoundException(
+      StoredObjectNotFoundException ex, WebRequest request) {
+
+    log.warn("StoredObjectNotFoundException: {}", ex.getMessage());
+
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .message(ex.getMessage())
+            .status(HttpStatus.NOT_FOUND.value())
+            .error("Not Found")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+  }
+
+  /** Handle byte ranges outside the requested file */
+  @ExceptionHandler(RangeNotSatisfiableException.class)
+  public ResponseEntity<Void> handleRangeNotSatisfiableException(RangeNotSatisfiableException ex) {
+
+    log.warn("RangeNotSatisfiableException: {}", ex.getMessage());
+
+    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + ex.getTotalLength())
+        .build();
+  }
+
   /** Handle validation errors */
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<Map<String, Object>> handleValidationExceptions(
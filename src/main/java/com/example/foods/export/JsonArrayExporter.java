@@ -0,0 +1,74 @@
+package com.example.foods.export;
+
+import jakarta.persistence.EntityManager;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Writes a lazily read entity stream to an output stream as one JSON array. Rows are mapped and
+ * written a chunk at a time and the persistence context is cleared after every chunk, so heap use
+ * stays flat however many rows the query returns. Each chunk is flushed to the client, so a
+ * disconnected client fails the next write; the exception ends the export and the caller's
+ * try-with-resources closes the cursor and releases the connection.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonArrayExporter {
+
+  /** JDBC fetch size for export queries; rows are pulled from the cursor in batches this big. */
+  public static final String FETCH_SIZE = "500";
+
+  /** Matches the {@code @BatchSize} of the lazily loaded associations the mappers touch. */
+  static final int CHUNK_SIZE = 100;
+
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
+
+  /**
+   * Streams {@code rows} into {@code out}, mapping each chunk with {@code mapper}. Must run inside
+   * the transaction that opened the stream. Returns the number of rows written.
+   */
+  public <T, D> long write(Stream<T> rows, Function<List<T>, List<D>> mapper, OutputStream out) {
+    JsonGenerator generator =
+        objectMapper.writer().without(StreamWriteFeature.AUTO_CLOSE_TARGET).createGenerator(out);
+    try (generator) {
+      long written = 0;
+      List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+      generator.writeStartArray();
+      for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+        chunk.add(it.next());
+        if (chunk.size() == CHUNK_SIZE) {
+          written += writeChunk(generator, chunk, mapper);
+        }
+      }
+      written += writeChunk(generator, chunk, mapper);
+      generator.writeEndArray();
+      generator.flush();
+      return written;
+    }
+  }
+
+  private <T, D> int writeChunk(
+      JsonGenerator generator, List<T> chunk, Function<List<T>, List<D>> mapper) {
+    int size = chunk.size();
+    if (size == 0) {
+      return 0;
+    }
+    for (D item : mapper.apply(chunk)) {
+      generator.writePOJO(item);
+    }
+    generator.flush();
+    chunk.clear();
+    entityManager.clear();
+    return size;
+  }
+}
@@ -0,0 +1,47 @@
+package com.example.foods.listener;
+
+import com.example.foods.constant.ImageSize;
+import com.example.foods.event.FoodImagesUploadedEvent;
+import com.example.foods.service.FoodService;
+import com.example.foods.storage.ImageDerivatives;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ImageDerivativeListener {
+  private final ImageDerivatives imageDerivatives;
+  private final FoodService foodService;
+
+  @Async
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onFoodImagesUploadedGenerateDerivatives(FoodImagesUploadedEvent event) {
+    Map<String, Map<ImageSize, String>> generated = new LinkedHashMap<>();
+    for (String imageKey : event.getImageKeys()) {
+      try {
+        Map<ImageSize, String> keys = imageDerivatives.generate(imageKey);
+        if (!keys.isEmpty()) {
+          generated.put(imageKey, keys);
+        }
+      } catch (Exception e) {
+        log.error("Failed to generate renditions of image: {}", imageKey, e);
+      }
+    }
+    if (generated.isEmpty()) {
+      return;
+    }
+    try {
+      foodService.recordImageDerivatives(event.getFoodId(), generated);
+      imageDerivatives.evict(generated.keySet());
+    } catch (Exception e) {
+      log.error("Failed to record image renditions for food ID: {}", event.getFoodId(), e);
+    }
+  }
+}
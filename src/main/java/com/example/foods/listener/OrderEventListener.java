@@ -1,8 +1,10 @@
 package com.example.foods.listener;
 
+import com.example.foods.analytics.FoodCooccurrences;
 import com.example.foods.event.OrderCreatedEvent;
 import com.example.foods.service.FoodAnalyticsService;
 import com.example.foods.service.MailService;
+import com.example.foods.service.RecommendationService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,6 +19,8 @@ import org.springframework.transaction.event.TransactionalEventListener;
 public class OrderEventListener {
   private final MailService mailService;
   private final FoodAnalyticsService foodAnalyticsService;
+  private final FoodCooccurrences foodCooccurrences;
+  private final RecommendationService recommendationService;
 
   @Value("${spring.application.base-url}")
   private String appBaseUrl;
@@ -49,7 +53,7 @@ public class OrderEventListener {
             item -> {
               try {
                 foodAnalyticsService.incrementOrderCount(
-                    item.getFood().getId(), item.getQuantity());
+                    item.getFood().getId(), item.getFood().getCategory(), item.getQuantity());
               } catch (Exception e) {
                 log.error(
                     "Failed to increment order count for Order ID: {}, Food ID: {}",
@@ -59,4 +63,26 @@ public class OrderEventListener {
               }
             });
   }
+
+  @Async
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onOrderCreatedRecordCooccurrences(OrderCreatedEvent event) {
+    try {
+      foodCooccurrences.recordOrder(
+          event.getOrder().getItems().stream().map(item -> item.getFood().getId()).toList());
+    } catch (Exception e) {
+      log.error("Failed to record co-occurrences for Order ID: {}", event.getOrder().getId(), e);
+    }
+  }
+
+  @Async
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onOrderCreatedRefreshRecommendations(OrderCreatedEvent event) {
+    String username = event.getOrder().getUser().getUsername();
+    try {
+      recommendationService.refreshRecommendations(username);
+    } catch (Exception e) {
+      log.error("Failed to refresh recommendations for user: {}", username, e);
+    }
+  }
 }
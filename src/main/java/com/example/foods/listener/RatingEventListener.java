@@ -0,0 +1,27 @@
+package com.example.foods.listener;
+
+import com.example.foods.event.RatingSubmittedEvent;
+import com.example.foods.service.RecommendationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RatingEventListener {
+  private final RecommendationService recommendationService;
+
+  @Async
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onRatingSubmittedRefreshRecommendations(RatingSubmittedEvent event) {
+    try {
+      recommendationService.refreshRecommendations(event.getUsername());
+    } catch (Exception e) {
+      log.error("Failed to refresh recommendations for user: {}", event.getUsername(), e);
+    }
+  }
+}
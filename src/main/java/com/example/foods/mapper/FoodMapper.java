@@ -16,8 +16,9 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
     nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface FoodMapper {
 
-  @Mapping(target = "averageRating", ignore = true)
-  @Mapping(target = "ratingCount", ignore = true)
+  @Mapping(target = "averageRating", source = "ratingStats.average")
+  @Mapping(target = "ratingCount", source = "ratingStats.ratingCount")
+  @Mapping(target = "ratingHistogram", source = "ratingStats.histogram")
   FoodResponseDto toDto(Food food);
 
   @Mapping(target = "id", ignore = true)
@@ -27,6 +28,7 @@ public interface FoodMapper {
   @Mapping(target = "version", ignore = true)
   @Mapping(target = "viewCount", ignore = true)
   @Mapping(target = "orderCount", ignore = true)
+  @Mapping(target = "ratingStats", ignore = true)
   Food toEntity(FoodRequestDto foodDto);
 
   List<FoodResponseDto> toDtoList(List<Food> foods);
@@ -38,6 +40,7 @@ public interface FoodMapper {
   @Mapping(target = "version", ignore = true)
   @Mapping(target = "viewCount", ignore = true)
   @Mapping(target = "orderCount", ignore = true)
+  @Mapping(target = "ratingStats", ignore = true)
   void updateEntityFromDto(FoodRequestDto foodDto, @MappingTarget Food food);
 
   FoodImageResponseDto toFoodImageDto(FoodImage foodImage);
@@ -1,44 +1,99 @@
 package com.example.foods.repository;
 
+import com.example.foods.dto.ResourceVersion;
 import com.example.foods.dto.response.FoodAnalyticsResponseDto;
+import com.example.foods.dto.response.FoodTypeaheadDto;
 import com.example.foods.entity.Food;
+import com.example.foods.export.JsonArrayExporter;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface FoodRepository extends JpaRepository<Food, Long> {
+public interface FoodRepository extends JpaRepository<Food, Long>, FoodRepositoryCustom {
 
-  @Query("SELECT DISTINCT f FROM Food f LEFT JOIN FETCH f.foodImages")
-  List<Food> findAll();
+  /**
+   * Single food with its images in one statement, for the detail view where the images are always
+   * rendered. List finders do not join images; they are batch-loaded per page instead.
+   */
+  @Query("SELECT f FROM Food f LEFT JOIN FETCH f.foodImages WHERE f.id = :id")
+  Optional<Food> findWithImagesById(@Param("id") Long id);
 
-  @Query("SELECT DISTINCT f FROM Food f LEFT JOIN FETCH f.foodImages WHERE f.id = :id")
-  Optional<Food> findById(@Param("id") Long id);
+  List<Food> findByCategory(String category);
 
-  @Query("SELECT DISTINCT f FROM Food f LEFT JOIN FETCH f.foodImages WHERE f.category = :category")
-  List<Food> findByCategory(@Param("category") String category);
+  /**
+   * All foods in id order, read through a server-side cursor for streaming exports. Must be
+   * consumed inside a transaction and closed afterwards.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = JsonArrayExporter.FETCH_SIZE),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT f FROM Food f ORDER BY f.id")
+  Stream<Food> streamAllByOrderById();
 
+  /** Conditional-GET validators of one food, read from the row alone. */
   @Query(
-      "SELECT DISTINCT f FROM Food f LEFT JOIN FETCH f.foodImages WHERE LOWER(f.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-  List<Food> findByNameContainingIgnoreCase(@Param("name") String name);
+      "SELECT new com.example.foods.dto.ResourceVersion("
+          + "f.id, f.version, f.ratingStats.ratingCount, f.ratingStats.scoreSum, f.updatedAt) "
+          + "FROM Food f WHERE f.id = :id")
+  Optional<ResourceVersion> findVersionById(@Param("id") Long id);
 
+  /**
+   * Relevance-ordered ids for a search term: full-text matches on the weighted {@code
+   * search_vector} plus trigram word-similarity matches on the name to tolerate typos.
+   */
   @Query(
-      "SELECT DISTINCT f FROM Food f LEFT JOIN FETCH f.foodImages WHERE f.price BETWEEN :minPrice AND :maxPrice")
-  List<Food> findByPriceBetween(
-      @Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice);
+      value =
+          "SELECT f.id FROM foods f, websearch_to_tsquery('english', :term) q "
+              + "WHERE f.search_vector @@ q OR :term <% f.name "
+              + "ORDER BY ts_rank_cd(f.search_vector, q) DESC, "
+              + "word_similarity(:term, f.name) DESC, f.id "
+              + "LIMIT :limit OFFSET :offset",
+      nativeQuery = true)
+  List<Long> searchIdsByRelevance(
+      @Param("term") String term, @Param("limit") int limit, @Param("offset") int offset);
 
+  /**
+   * Ids of foods whose name contains {@code pattern}, ignoring case, in id order. {@code ILIKE} on
+   * the raw name is served by the trigram index; {@code pattern} must have its wildcards escaped.
+   */
   @Query(
-      "SELECT DISTINCT f FROM Food f LEFT JOIN FETCH f.foodImages WHERE f.category = :category AND f.price BETWEEN :minPrice AND :maxPrice")
-  List<Food> findByCategoryAndPriceRange(
-      @Param("category") String category,
-      @Param("minPrice") Double minPrice,
-      @Param("maxPrice") Double maxPrice);
+      value =
+          "SELECT f.id FROM foods f WHERE f.name ILIKE '%' || :pattern || '%' ESCAPE '\\' "
+              + "ORDER BY f.id",
+      nativeQuery = true)
+  List<Long> findIdsByNameContaining(@Param("pattern") String pattern);
+
+  List<Food> findByPriceBetween(Double minPrice, Double maxPrice);
 
   boolean existsByNameIgnoreCase(String name);
 
+  @Query(
+      "SELECT new com.example.foods.dto.response.FoodTypeaheadDto("
+          + "f.id, f.name, f.category, "
+          + "(SELECT fi.imageUrl FROM FoodImage fi WHERE fi.id = "
+          + "(SELECT MIN(fi2.id) FROM FoodImage fi2 WHERE fi2.food = f)), "
+          + "f.orderCount) "
+          + "FROM Food f WHERE f.status = 'ACTIVE'")
+  List<FoodTypeaheadDto> findAllTypeaheadEntries();
+
+  @Query(
+      "SELECT new com.example.foods.dto.response.FoodTypeaheadDto("
+          + "f.id, f.name, f.category, "
+          + "(SELECT fi.imageUrl FROM FoodImage fi WHERE fi.id = "
+          + "(SELECT MIN(fi2.id) FROM FoodImage fi2 WHERE fi2.food = f)), "
+          + "f.orderCount) "
+          + "FROM Food f WHERE f.id = :id AND f.status = 'ACTIVE'")
+  Optional<FoodTypeaheadDto> findTypeaheadEntryById(@Param("id") Long id);
+
   @Query(
       "SELECT new com.example.foods.dto.response.FoodAnalyticsResponseDto("
           + "f.id, f.name, f.category, f.price, f.viewCount, f.orderCount) "
@@ -0,0 +1,22 @@
+package com.example.foods.repository;
+
+import com.example.foods.dto.FoodCursor;
+import com.example.foods.dto.response.FoodCardDto;
+import com.example.foods.entity.Food;
+import java.util.List;
+
+public interface FoodRepositoryCustom {
+
+  /**
+   * Returns up to {@code limit} foods strictly after the given cursor position, ordered by the
+   * cursor's sort key with the id as tie-breaker. Images are not joined, so the limit applies to
+   * food rows in SQL; they are loaded in batches when first accessed.
+   */
+  List<Food> findPageAfter(FoodCursor cursor, int limit);
+
+  /**
+   * Same page as {@link #findPageAfter}, read directly as catalog cards: one flat query with the
+   * first image as thumbnail, no entity instances and no join over all images.
+   */
+  List<FoodCardDto> findCardsAfter(FoodCursor cursor, int limit);
+}
@@ -0,0 +1,129 @@
+package com.example.foods.repository;
+
+import com.example.foods.constant.FoodSortField;
+import com.example.foods.dto.FoodCursor;
+import com.example.foods.dto.response.FoodCardDto;
+import com.example.foods.entity.Food;
+import com.example.foods.entity.FoodImage;
+import com.example.foods.entity.RatingStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.util.List;
+
+public class FoodRepositoryCustomImpl implements FoodRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<Food> findPageAfter(FoodCursor cursor, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Food> query = cb.createQuery(Food.class);
+    Root<Food> food = query.from(Food.class);
+
+    Path<Long> idPath = food.get("id");
+    Path<Comparable<Object>> sortPath = sortPath(food, cursor.getSort());
+    boolean descending = cursor.isDescending();
+
+    query.select(food);
+    if (!cursor.isFirstPage()) {
+      query.where(keysetPredicate(cb, cursor, sortPath, idPath));
+    }
+    query.orderBy(order(cb, sortPath, descending), order(cb, idPath, descending));
+
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public List<FoodCardDto> findCardsAfter(FoodCursor cursor, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<FoodCardDto> query = cb.createQuery(FoodCardDto.class);
+    Root<Food> food = query.from(Food.class);
+
+    Path<Long> idPath = food.get("id");
+    Path<Comparable<Object>> sortPath = sortPath(food, cursor.getSort());
+    boolean descending = cursor.isDescending();
+    Path<RatingStats> ratingStats = food.get("ratingStats");
+
+    query.select(
+        cb.construct(
+            FoodCardDto.class,
+            idPath,
+            food.get("name"),
+            food.get("description"),
+            food.get("category"),
+            food.get("price"),
+            food.get("quantity"),
+            food.get("status"),
+            thumbnail(cb, query, food),
+            ratingStats.get("scoreSum"),
+            ratingStats.get("ratingCount"),
+            food.get("viewCount"),
+            food.get("orderCount"),
+            food.get("createdAt")));
+    if (!cursor.isFirstPage()) {
+      query.where(keysetPredicate(cb, cursor, sortPath, idPath));
+    }
+    query.orderBy(order(cb, sortPath, descending), order(cb, idPath, descending));
+
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  private static Path<Comparable<Object>> sortPath(Root<Food> food, FoodSortField sort) {
+    Path<?> path = food;
+    for (String attribute : sort.getProperty().split("\\.")) {
+      path = path.get(attribute);
+    }
+    @SuppressWarnings("unchecked")
+    Path<Comparable<Object>> sortPath = (Path<Comparable<Object>>) path;
+    return sortPath;
+  }
+
+  /** Url of the food's first image, as a correlated subquery. */
+  private Subquery<String> thumbnail(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Food> food) {
+    Subquery<String> thumbnail = query.subquery(String.class);
+    Root<FoodImage> image = thumbnail.from(FoodImage.class);
+
+    Subquery<Long> firstImageId = thumbnail.subquery(Long.class);
+    Root<FoodImage> candidate = firstImageId.from(FoodImage.class);
+    firstImageId
+        .select(cb.min(candidate.<Long>get("id")))
+        .where(cb.equal(candidate.get("food"), food));
+
+    return thumbnail
+        .select(image.<String>get("imageUrl"))
+        .where(cb.equal(image.get("id"), firstImageId));
+  }
+
+  private Predicate keysetPredicate(
+      CriteriaBuilder cb,
+      FoodCursor cursor,
+      Expression<Comparable<Object>> sortPath,
+      Expression<Long> idPath) {
+    Predicate afterId = beyond(cb, idPath, cursor.getLastId(), cursor.isDescending());
+    if (cursor.getSort() == FoodSortField.ID || cursor.getLastValue() == null) {
+      return afterId;
+    }
+    @SuppressWarnings("unchecked")
+    Comparable<Object> lastValue = (Comparable<Object>) cursor.getLastValue();
+    return cb.or(
+        beyond(cb, sortPath, lastValue, cursor.isDescending()),
+        cb.and(cb.equal(sortPath, lastValue), afterId));
+  }
+
+  private <T extends Comparable<? super T>> Predicate beyond(
+      CriteriaBuilder cb, Expression<? extends T> path, T value, boolean descending) {
+    return descending ? cb.lessThan(path, value) : cb.greaterThan(path, value);
+  }
+
+  private Order order(CriteriaBuilder cb, Expression<?> path, boolean descending) {
+    return descending ? cb.desc(path) : cb.asc(path);
+  }
+}
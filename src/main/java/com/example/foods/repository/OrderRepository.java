@@ -2,9 +2,14 @@ package com.example.foods.repository;
 
 import com.example.foods.constant.OrderStatus;
 import com.example.foods.entity.Order;
+import com.example.foods.export.JsonArrayExporter;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -17,6 +22,26 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
   List<Order> findByStatusOrderByCreatedAtDesc(OrderStatus status);
 
+  /**
+   * Newest-first orders with their user, read through a server-side cursor for streaming exports.
+   * Items are not joined so the cursor yields one row per order; they are batch-loaded per chunk.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = JsonArrayExporter.FETCH_SIZE),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT o FROM Order o JOIN FETCH o.user ORDER BY o.createdAt DESC, o.id DESC")
+  Stream<Order> streamAllForExport();
+
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = JsonArrayExporter.FETCH_SIZE),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(
+      "SELECT o FROM Order o JOIN FETCH o.user WHERE o.status = :status "
+          + "ORDER BY o.createdAt DESC, o.id DESC")
+  Stream<Order> streamByStatusForExport(OrderStatus status);
+
   @Query(
       "SELECT DISTINCT o FROM Order o "
           + "LEFT JOIN FETCH o.user "
@@ -0,0 +1,33 @@
+package com.example.foods.scheduler;
+
+import com.example.foods.analytics.FoodCooccurrences;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the "frequently bought together" counts from the order history, correcting whatever
+ * the incremental updates missed or counted twice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FoodCooccurrenceRebuildScheduler {
+
+  private final FoodCooccurrences foodCooccurrences;
+
+  @Scheduled(cron = "${app.recommendations.rebuild-cron:0 0 4 * * *}")
+  @SchedulerLock(name = "rebuildFoodCooccurrences", lockAtLeastFor = "PT5M", lockAtMostFor = "PT1H")
+  public void rebuildFoodCooccurrences() {
+    log.info("Starting scheduled rebuild of food co-occurrences");
+    try {
+      int changed = foodCooccurrences.rebuild();
+      foodCooccurrences.evictAll();
+      log.info("Completed rebuild of food co-occurrences, {} rows changed", changed);
+    } catch (Exception e) {
+      log.error("Error during scheduled rebuild of food co-occurrences", e);
+    }
+  }
+}
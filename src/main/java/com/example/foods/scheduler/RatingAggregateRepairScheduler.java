@@ -0,0 +1,40 @@
+package com.example.foods.scheduler;
+
+import com.example.foods.service.RatingService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the rating aggregates stored on foods wherever they drifted from the ratings table,
+ * e.g. after ratings were edited by hand. Each chunk is repaired in its own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregateRepairScheduler {
+
+  private static final int CHUNK_SIZE = 500;
+
+  private final RatingService ratingService;
+
+  @Scheduled(cron = "${app.ratings.repair-cron:0 30 3 * * *}")
+  @SchedulerLock(name = "repairRatingAggregates", lockAtLeastFor = "PT5M", lockAtMostFor = "PT1H")
+  public void repairRatingAggregates() {
+    log.info("Starting scheduled repair of food rating aggregates");
+    try {
+      List<Long> staleIds = ratingService.findFoodsWithStaleRatingAggregates();
+      int repaired = 0;
+      for (int from = 0; from < staleIds.size(); from += CHUNK_SIZE) {
+        List<Long> chunk = staleIds.subList(from, Math.min(from + CHUNK_SIZE, staleIds.size()));
+        repaired += ratingService.repairRatingAggregates(chunk);
+      }
+      log.info("Completed repair of food rating aggregates, {} foods repaired", repaired);
+    } catch (Exception e) {
+      log.error("Error during scheduled repair of food rating aggregates", e);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.foods.scheduler;
+
+import com.example.foods.service.RecommendationService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes every user's recommendations once a night, so lists follow changes in global
+ * popularity and the catalog even for users who have not ordered or rated since.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserRecommendationRefreshScheduler {
+
+  private final RecommendationService recommendationService;
+
+  @Scheduled(cron = "${app.recommendations.user-refresh-cron:0 30 4 * * *}")
+  @SchedulerLock(
+      name = "refreshUserRecommendations",
+      lockAtLeastFor = "PT5M",
+      lockAtMostFor = "PT2H")
+  public void refreshUserRecommendations() {
+    log.info("Starting scheduled refresh of user recommendations");
+    try {
+      List<String> usernames = recommendationService.findUsernamesWithHistory();
+      int failed = 0;
+      for (String username : usernames) {
+        try {
+          recommendationService.refreshRecommendations(username);
+        } catch (Exception e) {
+          failed++;
+          log.warn("Failed to refresh recommendations for user: {}", username, e);
+        }
+      }
+      log.info(
+          "Completed refresh of user recommendations, {} users refreshed, {} failed",
+          usernames.size() - failed,
+          failed);
+    } catch (Exception e) {
+      log.error("Error during scheduled refresh of user recommendations", e);
+    }
+  }
+}
@@ -0,0 +1,489 @@
+package com.example.foods.search;
+
+import com.example.foods.cache.CatalogSnapshot;
+import com.example.foods.dto.response.FoodFacetsDto;
+import com.example.foods.dto.response.FoodFilterResponseDto;
+import com.example.foods.dto.response.FoodResponseDto;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compressed bitmap index over the catalog: one Roaring bitmap of food ids per category, status,
+ * price bucket and rating bucket. Filters become bitmap intersections, facet counts become
+ * intersection cardinalities, and only the ids of the requested page are resolved to DTOs.
+ *
+ * <p>The index always describes exactly one {@link CatalogSnapshot}, the one it resolves ids
+ * against, so counts and page content come from the same foods. When a newer snapshot is queried
+ * the index moves to it by comparing the two: foods whose category, status, price bucket or rating
+ * bucket changed are moved between bitmaps, on copies of only the bitmaps they touch, so requests
+ * still reading the previous version are unaffected. Stock and rating patches therefore cost a few
+ * bitmap updates; the index is rebuilt from scratch only when a large part of the catalog changed.
+ *
+ * <p>Price and rating buckets are finer than the facet buckets of {@link CatalogFacetQuery} and
+ * aligned with them. A range filter takes whole buckets that lie inside the range and checks the
+ * individual values only in the one or two buckets it cuts through.
+ */
+@Component
+@Slf4j
+public class CatalogBitmapIndex {
+
+  /** Lower bounds of the price buckets; a superset of {@link CatalogFacetQuery#PRICE_EDGES}. */
+  static final double[] PRICE_EDGES = {0, 5, 10, 15, 20, 30, 50, 100};
+
+  /** Lower bounds of the average-rating buckets; the last one holds perfect scores. */
+  static final double[] RATING_EDGES = {0, 1, 2, 3, 4, 5};
+
+  /** Changes beyond this share of the catalog rebuild the index instead of patching it. */
+  private static final int REBUILD_DIVISOR = 8;
+
+  private final ReentrantLock buildLock = new ReentrantLock();
+
+  private volatile State state;
+
+  /** Foods of {@code snapshot} priced within {@code [minPrice, maxPrice]}, in id order. */
+  public Optional<List<FoodResponseDto>> findByPriceRange(
+      CatalogSnapshot snapshot, double minPrice, double maxPrice) {
+    State current = stateFor(snapshot);
+    if (current == null) {
+      return Optional.empty();
+    }
+    RoaringBitmap ids =
+        current.range(
+            current.byPrice,
+            PRICE_EDGES,
+            minPrice,
+            maxPrice,
+            price -> price >= minPrice && price <= maxPrice,
+            FoodResponseDto::getPrice);
+    List<FoodResponseDto> result = new ArrayList<>(ids.getCardinality());
+    ids.forEach((int id) -> result.add(snapshot.getFoodsById().get((long) id)));
+    return Optional.of(result);
+  }
+
+  /**
+   * Answers a filter from the bitmaps. Returns empty when the query has a text term or an order
+   * other than ascending id, which the bitmaps do not cover, or when the snapshot cannot be
+   * indexed; callers then fall back to a snapshot scan.
+   */
+  public Optional<FoodFilterResponseDto> filter(
+      CatalogFacetQuery query, CatalogSnapshot snapshot, int page, int size) {
+    if (query.hasTextTerms() || !query.isIdOrder()) {
+      return Optional.empty();
+    }
+    State current = stateFor(snapshot);
+    return current == null
+        ? Optional.empty()
+        : Optional.of(current.filter(query, snapshot, page, size));
+  }
+
+  /**
+   * The index of {@code snapshot}, moving the index forward when the snapshot is newer. Returns
+   * {@code null} for a snapshot older than the index, which a caller may still hold while a newer
+   * one is installed, and for ids beyond the bitmap range.
+   */
+  private State stateFor(CatalogSnapshot snapshot) {
+    State current = state;
+    if (current == null || current.revision < snapshot.getRevision()) {
+      buildLock.lock();
+      try {
+        current = state;
+        if (current == null || current.revision < snapshot.getRevision()) {
+          current =
+              current == null || current.overflow ? build(snapshot) : advance(current, snapshot);
+          state = current;
+        }
+      } finally {
+        buildLock.unlock();
+      }
+    }
+    return current.revision == snapshot.getRevision() && !current.overflow ? current : null;
+  }
+
+  private static State build(CatalogSnapshot snapshot) {
+    State built = new State(snapshot);
+    for (FoodResponseDto food : snapshot.getFoods()) {
+      built.add(food);
+    }
+    built.optimize();
+    log.info(
+        "Built catalog bitmap index with {} foods ({} bytes)",
+        built.all.getCardinality(),
+        built.sizeInBytes());
+    return built;
+  }
+
+  /**
+   * Moves {@code current} to {@code snapshot} by updating the bitmaps of the foods whose buckets
+   * differ between the two. Unchanged foods are usually the very same instances, since patched
+   * snapshots share them, so the comparison is mostly reference checks.
+   */
+  private static State advance(State current, CatalogSnapshot snapshot) {
+    Map<Long, FoodResponseDto> before = current.source.getFoodsById();
+    List<Long> changed = new ArrayList<>();
+    int kept = 0;
+    for (FoodResponseDto food : snapshot.getFoods()) {
+      FoodResponseDto old = before.get(food.getId());
+      if (old != null) {
+        kept++;
+      }
+      if (old != food && (old == null || !sameBuckets(old, food))) {
+        changed.add(food.getId());
+      }
+    }
+    if (kept < before.size()) {
+      before.keySet().stream()
+          .filter(id -> !snapshot.getFoodsById().containsKey(id))
+          .forEach(changed::add);
+    }
+    if (changed.size() > snapshot.getFoods().size() / REBUILD_DIVISOR + 64) {
+      return build(snapshot);
+    }
+
+    State next = new State(current, snapshot);
+    for (Long id : changed) {
+      FoodResponseDto old = before.get(id);
+      if (old != null) {
+        next.remove(old);
+      }
+      FoodResponseDto food = snapshot.getFoodsById().get(id);
+      if (food != null) {
+        next.add(food);
+      }
+    }
+    next.shared = null;
+    log.debug("Moved catalog bitmap index to a newer snapshot, {} foods changed", changed.size());
+    return next;
+  }
+
+  private static boolean sameBuckets(FoodResponseDto a, FoodResponseDto b) {
+    return Objects.equals(a.getCategory(), b.getCategory())
+        && Objects.equals(a.getStatus(), b.getStatus())
+        && bucketOf(PRICE_EDGES, a.getPrice()) == bucketOf(PRICE_EDGES, b.getPrice())
+        && bucketOf(RATING_EDGES, a.getAverageRating())
+            == bucketOf(RATING_EDGES, b.getAverageRating());
+  }
+
+  private static int bucketOf(double[] edges, Double value) {
+    return value == null ? -1 : bucket(edges, value);
+  }
+
+  private static int bucket(double[] edges, double value) {
+    int bucket = 0;
+    while (bucket + 1 < edges.length && value >= edges[bucket + 1]) {
+      bucket++;
+    }
+    return bucket;
+  }
+
+  private static final class State {
+    private final CatalogSnapshot source;
+    private final long revision;
+    private RoaringBitmap all;
+    private final Map<String, RoaringBitmap> byCategory;
+    private final Map<String, RoaringBitmap> byStatus;
+    private final RoaringBitmap[] byPrice;
+    private final RoaringBitmap[] byRating;
+
+    /**
+     * Bitmaps still shared with the previous state while this one is being patched; they are
+     * copied before their first change. {@code null} once the state is published.
+     */
+    private Set<RoaringBitmap> shared;
+
+    /** Set when an id does not fit a 32-bit bitmap; the index then stays out of the way. */
+    private boolean overflow;
+
+    State(CatalogSnapshot source) {
+      this.source = source;
+      this.revision = source.getRevision();
+      this.all = new RoaringBitmap();
+      this.byCategory = new HashMap<>();
+      this.byStatus = new HashMap<>();
+      this.byPrice = newBitmaps(PRICE_EDGES.length);
+      this.byRating = newBitmaps(RATING_EDGES.length);
+    }
+
+    State(State base, CatalogSnapshot source) {
+      this.source = source;
+      this.revision = source.getRevision();
+      this.all = base.all;
+      this.byCategory = new HashMap<>(base.byCategory);
+      this.byStatus = new HashMap<>(base.byStatus);
+      this.byPrice = base.byPrice.clone();
+      this.byRating = base.byRating.clone();
+      this.shared = Collections.newSetFromMap(new IdentityHashMap<>());
+      shared.add(all);
+      shared.addAll(byCategory.values());
+      shared.addAll(byStatus.values());
+      Collections.addAll(shared, byPrice);
+      Collections.addAll(shared, byRating);
+    }
+
+    void add(FoodResponseDto food) {
+      if (overflow) {
+        return;
+      }
+      if (food.getId() > Integer.MAX_VALUE) {
+        log.warn("Food id {} exceeds bitmap range, disabling bitmap index", food.getId());
+        overflow = true;
+        return;
+      }
+      int id = food.getId().intValue();
+      all = writable(all);
+      all.add(id);
+      if (food.getCategory() != null) {
+        byCategory.compute(food.getCategory(), (k, ids) -> writable(ids)).add(id);
+      }
+      if (food.getStatus() != null) {
+        byStatus.compute(food.getStatus(), (k, ids) -> writable(ids)).add(id);
+      }
+      if (food.getPrice() != null) {
+        int bucket = bucket(PRICE_EDGES, food.getPrice());
+        byPrice[bucket] = writable(byPrice[bucket]);
+        byPrice[bucket].add(id);
+      }
+      if (food.getAverageRating() != null) {
+        int bucket = bucket(RATING_EDGES, food.getAverageRating());
+        byRating[bucket] = writable(byRating[bucket]);
+        byRating[bucket].add(id);
+      }
+    }
+
+    void remove(FoodResponseDto food) {
+      if (food.getId() > Integer.MAX_VALUE) {
+        return;
+      }
+      int id = food.getId().intValue();
+      all = writable(all);
+      all.remove(id);
+      if (food.getCategory() != null) {
+        removeKeyed(byCategory, food.getCategory(), id);
+      }
+      if (food.getStatus() != null) {
+        removeKeyed(byStatus, food.getStatus(), id);
+      }
+      if (food.getPrice() != null) {
+        int bucket = bucket(PRICE_EDGES, food.getPrice());
+        byPrice[bucket] = writable(byPrice[bucket]);
+        byPrice[bucket].remove(id);
+      }
+      if (food.getAverageRating() != null) {
+        int bucket = bucket(RATING_EDGES, food.getAverageRating());
+        byRating[bucket] = writable(byRating[bucket]);
+        byRating[bucket].remove(id);
+      }
+    }
+
+    private void removeKeyed(Map<String, RoaringBitmap> bitmaps, String key, int id) {
+      RoaringBitmap ids = bitmaps.get(key);
+      if (ids == null) {
+        return;
+      }
+      ids = writable(ids);
+      ids.remove(id);
+      if (ids.isEmpty()) {
+        bitmaps.remove(key);
+      } else {
+        bitmaps.put(key, ids);
+      }
+    }
+
+    /** {@code bitmap} itself when this state owns it, otherwise a copy this state owns. */
+    private RoaringBitmap writable(RoaringBitmap bitmap) {
+      if (bitmap == null) {
+        return new RoaringBitmap();
+      }
+      return shared != null && shared.remove(bitmap) ? bitmap.clone() : bitmap;
+    }
+
+    void optimize() {
+      all.runOptimize();
+      byCategory.values().forEach(RoaringBitmap::runOptimize);
+      byStatus.values().forEach(RoaringBitmap::runOptimize);
+      for (RoaringBitmap bitmap : byPrice) {
+        bitmap.runOptimize();
+      }
+      for (RoaringBitmap bitmap : byRating) {
+        bitmap.runOptimize();
+      }
+    }
+
+    long sizeInBytes() {
+      long bytes = all.getLongSizeInBytes();
+      for (RoaringBitmap bitmap : byCategory.values()) {
+        bytes += bitmap.getLongSizeInBytes();
+      }
+      for (RoaringBitmap bitmap : byStatus.values()) {
+        bytes += bitmap.getLongSizeInBytes();
+      }
+      for (RoaringBitmap bitmap : byPrice) {
+        bytes += bitmap.getLongSizeInBytes();
+      }
+      for (RoaringBitmap bitmap : byRating) {
+        bytes += bitmap.getLongSizeInBytes();
+      }
+      return bytes;
+    }
+
+    /** Resolves the page from {@code snapshot}, the snapshot this state describes. */
+    FoodFilterResponseDto filter(
+        CatalogFacetQuery query, CatalogSnapshot snapshot, int page, int size) {
+      RoaringBitmap base =
+          query.getStatus() == null ? all : matching(byStatus, query.getStatus());
+      RoaringBitmap category =
+          query.getCategory() == null ? null : matching(byCategory, query.getCategory());
+      RoaringBitmap price =
+          query.getMinPrice() == null && query.getMaxPrice() == null
+              ? null
+              : range(
+                  byPrice,
+                  PRICE_EDGES,
+                  query.getMinPrice(),
+                  query.getMaxPrice(),
+                  query::inPriceRange,
+                  FoodResponseDto::getPrice);
+      RoaringBitmap rating =
+          query.getMinRating() == null
+              ? null
+              : range(
+                  byRating,
+                  RATING_EDGES,
+                  query.getMinRating(),
+                  null,
+                  query::meetsRating,
+                  FoodResponseDto::getAverageRating);
+
+      RoaringBitmap withoutCategory = and(base, price, rating);
+      RoaringBitmap withoutPrice = and(base, category, rating);
+      RoaringBitmap withoutRating = and(base, category, price);
+      RoaringBitmap matches = and(withoutCategory, category);
+
+      Map<String, Long> categoryCounts = new TreeMap<>();
+      byCategory.forEach(
+          (name, ids) -> {
+            long count = RoaringBitmap.andCardinality(ids, withoutCategory);
+            if (count > 0) {
+              categoryCounts.put(name, count);
+            }
+          });
+
+      long[] priceCounts = new long[CatalogFacetQuery.PRICE_EDGES.length];
+      for (int i = 0; i < PRICE_EDGES.length; i++) {
+        priceCounts[CatalogFacetQuery.priceBucket(PRICE_EDGES[i])] +=
+            RoaringBitmap.andCardinality(byPrice[i], withoutPrice);
+      }
+
+      long[] ratingCounts = new long[CatalogFacetQuery.RATING_BANDS.length];
+      for (int i = 0; i < RATING_EDGES.length; i++) {
+        long count = RoaringBitmap.andCardinality(byRating[i], withoutRating);
+        for (int band = 0; band < CatalogFacetQuery.RATING_BANDS.length; band++) {
+          if (RATING_EDGES[i] >= CatalogFacetQuery.RATING_BANDS[band]) {
+            ratingCounts[band] += count;
+          }
+        }
+      }
+
+      int total = matches.getCardinality();
+      long offset = (long) page * size;
+      List<FoodResponseDto> content = new ArrayList<>();
+      if (offset < total) {
+        PeekableIntIterator ids = matches.getIntIterator();
+        ids.advanceIfNeeded(matches.select((int) offset));
+        while (ids.hasNext() && content.size() < size) {
+          content.add(snapshot.getFoodsById().get((long) ids.next()));
+        }
+      }
+
+      return FoodFilterResponseDto.builder()
+          .content(content)
+          .page(page)
+          .size(content.size())
+          .totalElements(total)
+          .hasNext(offset + size < total)
+          .facets(
+              FoodFacetsDto.builder()
+                  .categories(CatalogFacetQuery.categoryFacet(categoryCounts))
+                  .priceRanges(CatalogFacetQuery.priceFacet(priceCounts))
+                  .ratings(CatalogFacetQuery.ratingFacet(ratingCounts))
+                  .build())
+          .build();
+    }
+
+    /**
+     * Union of the buckets overlapping {@code [min, max]}. Buckets lying entirely inside the range
+     * are taken whole; values in the boundary buckets are checked one by one.
+     */
+    RoaringBitmap range(
+        RoaringBitmap[] buckets,
+        double[] edges,
+        Double min,
+        Double max,
+        Predicate<Double> inRange,
+        Function<FoodResponseDto, Double> value) {
+      RoaringBitmap result = new RoaringBitmap();
+      for (int i = 0; i < edges.length; i++) {
+        double lower = edges[i];
+        double upper = i + 1 < edges.length ? edges[i + 1] : Double.POSITIVE_INFINITY;
+        if ((max != null && lower > max) || (min != null && upper <= min)) {
+          continue;
+        }
+        boolean whole = (min == null || lower >= min) && (max == null || upper <= max);
+        if (whole) {
+          result.or(buckets[i]);
+        } else {
+          buckets[i].forEach(
+              (int id) -> {
+                if (inRange.test(value.apply(source.getFoodsById().get((long) id)))) {
+                  result.add(id);
+                }
+              });
+        }
+      }
+      return result;
+    }
+
+    private static RoaringBitmap matching(Map<String, RoaringBitmap> bitmaps, String key) {
+      RoaringBitmap result = new RoaringBitmap();
+      bitmaps.forEach(
+          (name, ids) -> {
+            if (name.equalsIgnoreCase(key)) {
+              result.or(ids);
+            }
+          });
+      return result;
+    }
+
+    private static RoaringBitmap and(RoaringBitmap base, RoaringBitmap... filters) {
+      RoaringBitmap result = base;
+      for (RoaringBitmap filter : filters) {
+        if (filter != null) {
+          result = RoaringBitmap.and(result, filter);
+        }
+      }
+      return result;
+    }
+
+    private static RoaringBitmap[] newBitmaps(int count) {
+      RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+      for (int i = 0; i < count; i++) {
+        bitmaps[i] = new RoaringBitmap();
+      }
+      return bitmaps;
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package com.example.foods.search;
+
+import com.example.foods.cache.CatalogSnapshot;
+import com.example.foods.constant.FoodSortField;
+import com.example.foods.dto.request.FoodFilterRequestDto;
+import com.example.foods.dto.response.FacetCountDto;
+import com.example.foods.dto.response.FoodFacetsDto;
+import com.example.foods.dto.response.FoodFilterResponseDto;
+import com.example.foods.dto.response.FoodResponseDto;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Evaluates a catalog filter against a {@link CatalogSnapshot} and computes its facet counts in
+ * the same pass. Facets are disjunctive: each one is counted with every filter applied except its
+ * own.
+ */
+@Getter(AccessLevel.PACKAGE)
+public final class CatalogFacetQuery {
+
+  /** Lower bounds of the price buckets; the last bucket is open-ended. */
+  static final double[] PRICE_EDGES = {0, 10, 20, 50};
+
+  /** Cumulative "n stars and up" rating bands, best first. */
+  static final double[] RATING_BANDS = {4, 3, 2, 1};
+
+  private final String category;
+  private final Double minPrice;
+  private final Double maxPrice;
+  private final String status;
+  private final Double minRating;
+  private final List<String> terms;
+  private final FoodSortField sort;
+  private final boolean descending;
+
+  private CatalogFacetQuery(FoodFilterRequestDto filter) {
+    this.category = blankToNull(filter.getCategory());
+    this.minPrice = filter.getMinPrice();
+    this.maxPrice = filter.getMaxPrice();
+    this.status = blankToNull(filter.getStatus());
+    this.minRating = filter.getMinRating();
+    this.terms = SearchText.tokenize(filter.getQ()).stream().map(t -> " " + t).toList();
+    this.sort = FoodSortField.from(filter.getSort());
+    this.descending =
+        filter.getDirection() == null || filter.getDirection().isBlank()
+            ? sort.isDescendingByDefault()
+            : "desc".equalsIgnoreCase(filter.getDirection());
+  }
+
+  public static CatalogFacetQuery from(FoodFilterRequestDto filter) {
+    if (filter.getMinPrice() != null
+        && filter.getMaxPrice() != null
+        && filter.getMinPrice() > filter.getMaxPrice()) {
+      throw new IllegalArgumentException("Minimum price must not exceed maximum price");
+    }
+    return new CatalogFacetQuery(filter);
+  }
+
+  public FoodFilterResponseDto execute(CatalogSnapshot snapshot, int page, int size) {
+    Map<String, Long> categoryCounts = new TreeMap<>();
+    long[] priceCounts = new long[PRICE_EDGES.length];
+    long[] ratingCounts = new long[RATING_BANDS.length];
+    List<FoodResponseDto> matches = new ArrayList<>();
+
+    for (FoodResponseDto food : snapshot.getFoods()) {
+      if (!matchesStatus(food) || !matchesText(snapshot.getSearchText().get(food.getId()))) {
+        continue;
+      }
+      boolean categoryOk = matchesCategory(food);
+      boolean priceOk = matchesPrice(food);
+      boolean ratingOk = matchesRating(food);
+
+      if (priceOk && ratingOk && food.getCategory() != null) {
+        categoryCounts.merge(food.getCategory(), 1L, Long::sum);
+      }
+      if (categoryOk && ratingOk && food.getPrice() != null) {
+        priceCounts[priceBucket(food.getPrice())]++;
+      }
+      if (categoryOk && priceOk) {
+        double rating = food.getAverageRating() == null ? 0 : food.getAverageRating();
+        for (int i = 0; i < RATING_BANDS.length; i++) {
+          if (rating >= RATING_BANDS[i]) {
+            ratingCounts[i]++;
+          }
+        }
+      }
+      if (categoryOk && priceOk && ratingOk) {
+        matches.add(food);
+      }
+    }
+
+    matches.sort(ordering());
+    int from = (int) Math.min((long) page * size, matches.size());
+    int to = Math.min(from + size, matches.size());
+    List<FoodResponseDto> content = List.copyOf(matches.subList(from, to));
+
+    return FoodFilterResponseDto.builder()
+        .content(content)
+        .page(page)
+        .size(content.size())
+        .totalElements(matches.size())
+        .hasNext(to < matches.size())
+        .facets(
+            FoodFacetsDto.builder()
+                .categories(categoryFacet(categoryCounts))
+                .priceRanges(priceFacet(priceCounts))
+                .ratings(ratingFacet(ratingCounts))
+                .build())
+        .build();
+  }
+
+  private boolean matchesStatus(FoodResponseDto food) {
+    return status == null || status.equalsIgnoreCase(food.getStatus());
+  }
+
+  private boolean matchesCategory(FoodResponseDto food) {
+    return category == null || category.equalsIgnoreCase(food.getCategory());
+  }
+
+  private boolean matchesPrice(FoodResponseDto food) {
+    return (minPrice == null && maxPrice == null) || inPriceRange(food.getPrice());
+  }
+
+  private boolean matchesRating(FoodResponseDto food) {
+    return minRating == null || meetsRating(food.getAverageRating());
+  }
+
+  boolean inPriceRange(Double price) {
+    return price != null
+        && (minPrice == null || price >= minPrice)
+        && (maxPrice == null || price <= maxPrice);
+  }
+
+  boolean meetsRating(Double rating) {
+    return rating != null && (minRating == null || rating >= minRating);
+  }
+
+  boolean hasTextTerms() {
+    return !terms.isEmpty();
+  }
+
+  /** Whether matches are listed by ascending id, the order the bitmap index iterates in. */
+  boolean isIdOrder() {
+    return sort == FoodSortField.ID && !descending;
+  }
+
+  /** Requested sort key with nulls last, then id in the same direction, as the listing does. */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Comparator<FoodResponseDto> ordering() {
+    Comparator<Comparable> natural = Comparator.naturalOrder();
+    Comparator<Comparable> values = Comparator.nullsLast(descending ? natural.reversed() : natural);
+    Comparator<FoodResponseDto> byValue =
+        Comparator.comparing(food -> (Comparable) sort.extractValue(food), values);
+    Comparator<FoodResponseDto> byId = Comparator.comparing(FoodResponseDto::getId);
+    return byValue.thenComparing(descending ? byId.reversed() : byId);
+  }
+
+  /** Every query term must be a prefix of some token in the food's normalized text. */
+  private boolean matchesText(String searchText) {
+    if (terms.isEmpty()) {
+      return true;
+    }
+    if (searchText == null) {
+      return false;
+    }
+    for (String term : terms) {
+      if (!searchText.contains(term)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static int priceBucket(double price) {
+    int bucket = 0;
+    while (bucket + 1 < PRICE_EDGES.length && price >= PRICE_EDGES[bucket + 1]) {
+      bucket++;
+    }
+    return bucket;
+  }
+
+  static List<FacetCountDto> categoryFacet(Map<String, Long> counts) {
+    List<FacetCountDto> facet = new ArrayList<>();
+    counts.forEach(
+        (value, count) -> facet.add(FacetCountDto.builder().value(value).count(count).build()));
+    return facet;
+  }
+
+  static List<FacetCountDto> priceFacet(long[] counts) {
+    List<FacetCountDto> facet = new ArrayList<>();
+    for (int i = 0; i < PRICE_EDGES.length; i++) {
+      boolean last = i + 1 == PRICE_EDGES.length;
+      Double upper = last ? null : PRICE_EDGES[i + 1];
+      String label = formatBound(PRICE_EDGES[i]) + (last ? "+" : "-" + formatBound(upper));
+      facet.add(
+          FacetCountDto.builder()
+              .value(label)
+              .from(PRICE_EDGES[i])
+              .to(upper)
+              .count(counts[i])
+              .build());
+    }
+    return facet;
+  }
+
+  static List<FacetCountDto> ratingFacet(long[] counts) {
+    List<FacetCountDto> facet = new ArrayList<>();
+    for (int i = 0; i < RATING_BANDS.length; i++) {
+      facet.add(
+          FacetCountDto.builder()
+              .value(formatBound(RATING_BANDS[i]) + "+")
+              .from(RATING_BANDS[i])
+              .count(counts[i])
+              .build());
+    }
+    return facet;
+  }
+
+  private static String formatBound(double bound) {
+    return bound == Math.rint(bound) ? String.valueOf((long) bound) : String.valueOf(bound);
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value.trim();
+  }
+}
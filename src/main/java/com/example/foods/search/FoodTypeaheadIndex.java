@@ -0,0 +1,185 @@
+package com.example.foods.search;
+
+import com.example.foods.dto.response.FoodTypeaheadDto;
+import com.example.foods.repository.FoodRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory autocomplete index over active food names and categories.
+ *
+ * <p>Every normalized token maps to the ids of the foods containing it. The term dictionary is a
+ * sorted skip list, so a prefix lookup is a range scan and no per-prefix postings are stored. Reads
+ * never lock; writers (full rebuilds and single-food reindexing) are serialized so a rebuild cannot
+ * discard a concurrent incremental update.
+ */
+@Component
+@Slf4j
+public class FoodTypeaheadIndex {
+
+  private final FoodRepository foodRepository;
+  private final ReentrantLock writeLock = new ReentrantLock();
+
+  private volatile Index index = new Index();
+
+  public FoodTypeaheadIndex(FoodRepository foodRepository) {
+    this.foodRepository = foodRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    rebuild();
+  }
+
+  /** Periodic full resync; covers invalidation messages lost by Redis pub/sub. */
+  @Scheduled(
+      fixedDelayString = "${app.typeahead.resync-interval:PT10M}",
+      initialDelayString = "${app.typeahead.resync-interval:PT10M}")
+  public void rebuild() {
+    writeLock.lock();
+    try {
+      Index rebuilt = new Index();
+      foodRepository.findAllTypeaheadEntries().forEach(rebuilt::put);
+      index = rebuilt;
+      log.info("Rebuilt typeahead index with {} foods", rebuilt.foods.size());
+    } catch (Exception e) {
+      log.error("Failed to rebuild typeahead index", e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Re-reads a single food; removes it when it was deleted or is no longer active. The row is read
+   * before the old entry is touched, so a failed query leaves the food searchable.
+   */
+  public void reindex(Long foodId) {
+    writeLock.lock();
+    try {
+      Optional<FoodTypeaheadDto> entry = foodRepository.findTypeaheadEntryById(foodId);
+      Index current = index;
+      current.remove(foodId);
+      entry.ifPresent(current::put);
+      log.debug("Reindexed food {} for typeahead", foodId);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Candidates come from the token with the fewest postings; each is kept only if its own terms
+   * match every other token, so no valid match is dropped. The best {@code limit} are selected with
+   * a bounded heap.
+   */
+  public List<FoodTypeaheadDto> suggest(String query, int limit) {
+    List<String> tokens = SearchText.tokenize(query);
+    if (tokens.isEmpty() || limit < 1) {
+      return List.of();
+    }
+
+    Index current = index;
+    List<String> bySelectivity =
+        tokens.stream().distinct().sorted(Comparator.comparingLong(current::postingCount)).toList();
+    List<String> others = bySelectivity.subList(1, bySelectivity.size());
+    Comparator<Entry> ranking = ranking(String.join(" ", tokens));
+
+    PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+    Set<Long> seen = new HashSet<>();
+    for (Set<Long> posting : current.postingsWithPrefix(bySelectivity.get(0))) {
+      for (Long id : posting) {
+        Entry entry = current.foods.get(id);
+        if (entry == null || !seen.add(id) || !entry.matchesAll(others)) {
+          continue;
+        }
+        best.add(entry);
+        if (best.size() > limit) {
+          best.poll();
+        }
+      }
+    }
+
+    List<Entry> ranked = new ArrayList<>(best);
+    ranked.sort(ranking);
+    return ranked.stream().map(Entry::food).toList();
+  }
+
+  private static Comparator<Entry> ranking(String phrase) {
+    return Comparator.<Entry>comparingInt(e -> e.normalizedName().startsWith(phrase) ? 0 : 1)
+        .thenComparing(
+            e -> e.food().getOrderCount() == null ? 0L : e.food().getOrderCount(),
+            Comparator.reverseOrder())
+        .thenComparingInt(e -> e.normalizedName().length())
+        .thenComparing(Entry::normalizedName);
+  }
+
+  private record Entry(FoodTypeaheadDto food, String normalizedName, Set<String> terms) {
+
+    /** Whether every prefix starts one of this food's terms. */
+    boolean matchesAll(List<String> prefixes) {
+      for (String prefix : prefixes) {
+        if (terms.stream().noneMatch(term -> term.startsWith(prefix))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class Index {
+    private final ConcurrentSkipListMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entry> foods = new ConcurrentHashMap<>();
+
+    void put(FoodTypeaheadDto food) {
+      Set<String> foodTerms = new HashSet<>(SearchText.tokenize(food.getName()));
+      foodTerms.addAll(SearchText.tokenize(food.getCategory()));
+      String normalizedName = String.join(" ", SearchText.tokenize(food.getName()));
+      foods.put(food.getId(), new Entry(food, normalizedName, foodTerms));
+      for (String term : foodTerms) {
+        terms.computeIfAbsent(term, k -> ConcurrentHashMap.newKeySet()).add(food.getId());
+      }
+    }
+
+    void remove(Long foodId) {
+      Entry removed = foods.remove(foodId);
+      if (removed == null) {
+        return;
+      }
+      for (String term : removed.terms()) {
+        terms.computeIfPresent(
+            term,
+            (k, ids) -> {
+              ids.remove(foodId);
+              return ids.isEmpty() ? null : ids;
+            });
+      }
+    }
+
+    Collection<Set<Long>> postingsWithPrefix(String prefix) {
+      return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+    }
+
+    /** Upper bound on the foods matching {@code prefix}; a food may hold several of its terms. */
+    long postingCount(String prefix) {
+      long count = 0;
+      for (Set<Long> posting : postingsWithPrefix(prefix)) {
+        count += posting.size();
+      }
+      return count;
+    }
+  }
+}
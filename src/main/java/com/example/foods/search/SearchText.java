@@ -0,0 +1,35 @@
+package com.example.foods.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/** Text normalization shared by the in-memory catalog indexes. */
+public final class SearchText {
+
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private SearchText() {}
+
+  /** Lower-cases, strips diacritics and splits on anything that is not a letter or digit. */
+  public static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String normalized =
+        DIACRITICS
+            .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+    List<String> tokens = new ArrayList<>();
+    for (String token : SEPARATORS.split(normalized)) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.foods.service;
+
+import com.example.foods.dto.response.CatalogImportStatusDto;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface CatalogImportService {
+
+  CatalogImportStatusDto startImport(MultipartFile items, MultipartFile images);
+
+  CatalogImportStatusDto getImport(String importId);
+
+  CatalogImportStatusDto restartImport(String importId);
+}
@@ -1,17 +1,31 @@
 package com.example.foods.service;
 
+import com.example.foods.storage.StoredObject;
+import java.io.InputStream;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface FileStorageService {
 
   String uploadFile(MultipartFile file);
 
+  /** Uploads {@code contentLength} bytes from {@code content}; the caller closes the stream. */
+  String uploadFile(String originalFilename, InputStream content, long contentLength);
+
+  /** Stores {@code content} under exactly {@code key}, replacing any object already there. */
+  void storeFile(String key, byte[] content);
+
   String uploadFileToTemp(MultipartFile file);
 
   void moveFile(String sourceKey, String destinationKey);
 
   byte[] downloadFile(String filename);
 
+  /**
+   * Opens {@code filename} for streaming. With a single-range {@code range} header value such as
+   * {@code bytes=0-1023} only those bytes are read; {@code null} reads the whole object.
+   */
+  StoredObject openFile(String filename, String range);
+
   void deleteFile(String filename);
 
   boolean fileExists(String filename);
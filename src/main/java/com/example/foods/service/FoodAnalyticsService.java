@@ -1,15 +1,31 @@
 package com.example.foods.service;
 
 import com.example.foods.dto.response.FoodAnalyticsResponseDto;
+import com.example.foods.dto.response.FoodRankingDto;
 import java.util.List;
 
 public interface FoodAnalyticsService {
 
-  void incrementViewCount(Long foodId);
+  void incrementViewCount(Long foodId, String category);
 
-  void incrementOrderCount(Long foodId, int quantity);
+  void incrementOrderCount(Long foodId, String category, int quantity);
 
   List<FoodAnalyticsResponseDto> getAllFoodAnalytics();
 
+  /**
+   * Active foods ranked by orders or views within a day, a week or all time, optionally limited to
+   * one category. Served from the Redis leaderboards without touching the database.
+   */
+  List<FoodRankingDto> getTopFoods(String by, String window, String category, Integer limit);
+
+  /** Active foods with the most recent orders and views, weighted by an exponential decay. */
+  List<FoodRankingDto> getTrendingFoods(Integer limit);
+
+  /**
+   * Active foods most often ordered together with any of {@code foodIds}, e.g. one food or the
+   * contents of a cart, ranked by the number of shared orders. Served from the cached top lists.
+   */
+  List<FoodRankingDto> getFrequentlyBoughtTogether(List<Long> foodIds, Integer limit);
+
   void syncRedisToDatabase();
 }
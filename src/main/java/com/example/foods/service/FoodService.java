@@ -1,8 +1,22 @@
 package com.example.foods.service;
 
+import com.example.foods.constant.ImageSize;
+import com.example.foods.dto.ResourceVersion;
+import com.example.foods.dto.request.FoodBulkUpdateRequestDto;
+import com.example.foods.dto.request.FoodFilterRequestDto;
 import com.example.foods.dto.request.FoodRequestDto;
+import com.example.foods.dto.response.FoodBulkUpdateResponseDto;
+import com.example.foods.dto.response.FoodCardDto;
+import com.example.foods.dto.response.FoodChangesResponseDto;
+import com.example.foods.dto.response.FoodFilterResponseDto;
+import com.example.foods.dto.response.FoodPageResponseDto;
 import com.example.foods.dto.response.FoodResponseDto;
+import com.example.foods.dto.response.FoodSearchResponseDto;
+import com.example.foods.dto.response.FoodTypeaheadDto;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface FoodService {
 
@@ -10,15 +24,65 @@ public interface FoodService {
 
   List<FoodResponseDto> getAllFoods();
 
+  /**
+   * Writes every food to {@code out} as a JSON array, reading them from a database cursor instead
+   * of the in-memory snapshot. Returns the number of foods written.
+   */
+  long exportFoods(OutputStream out);
+
+  FoodPageResponseDto<FoodResponseDto> getFoodsPage(
+      String cursor, Integer size, String sort, String direction);
+
+  FoodPageResponseDto<FoodCardDto> getFoodCardsPage(
+      String cursor, Integer size, String sort, String direction);
+
   FoodResponseDto getFoodById(Long id);
 
+  /** Foods with the given ids in the same order, from the catalog snapshot; unknown ids skipped. */
+  List<FoodResponseDto> getFoodsByIds(List<Long> ids);
+
+  /**
+   * Foods changed or deleted after change sequence number {@code since}, oldest first. Clients
+   * keep a local copy of the catalog current by passing the returned {@code nextSince} back.
+   */
+  FoodChangesResponseDto getFoodChanges(Long since, Integer size);
+
+  /**
+   * Validators of the representation {@link #getFoodById} would return, without assembling it.
+   * Empty when the food does not exist.
+   */
+  Optional<ResourceVersion> getFoodVersion(Long id);
+
+  /** Validators of the catalog snapshot behind the list endpoints. */
+  ResourceVersion getCatalogVersion();
+
   FoodResponseDto updateFood(Long id, FoodRequestDto foodDto);
 
+  /**
+   * Applies price, stock and status deltas to many foods in one transaction with JDBC batch
+   * updates. Rows are checked independently; a conflict or missing food does not stop the rest.
+   */
+  FoodBulkUpdateResponseDto bulkUpdateFoods(FoodBulkUpdateRequestDto request);
+
   void deleteFood(Long id);
 
+  /**
+   * Records the rendition keys generated for images of food {@code foodId}, given by original
+   * image key and size. Images replaced in the meantime are skipped.
+   */
+  void recordImageDerivatives(Long foodId, Map<String, Map<ImageSize, String>> derivatives);
+
   List<FoodResponseDto> getFoodsByCategory(String category);
 
+  /** All foods whose name contains {@code name}, ignoring case, in id order. */
   List<FoodResponseDto> searchFoodsByName(String name);
 
+  /** One page of foods matching {@code query}, most relevant first, tolerating typos. */
+  FoodSearchResponseDto searchFoods(String query, Integer page, Integer size);
+
+  List<FoodTypeaheadDto> suggestFoods(String query, Integer limit);
+
+  FoodFilterResponseDto filterFoods(FoodFilterRequestDto filter);
+
   List<FoodResponseDto> getFoodsByPriceRange(Double minPrice, Double maxPrice);
 }
@@ -4,6 +4,7 @@ import com.example.foods.constant.OrderStatus;
 import com.example.foods.dto.request.CheckoutRequestDto;
 import com.example.foods.dto.request.CreateOrderRequestDto;
 import com.example.foods.dto.response.OrderResponseDto;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface OrderService {
@@ -22,4 +23,10 @@ public interface OrderService {
   List<OrderResponseDto> getAllOrders();
 
   List<OrderResponseDto> getOrdersByStatus(OrderStatus status);
+
+  /**
+   * Writes all orders, or those with {@code status} when it is not null, to {@code out} as a JSON
+   * array straight from a database cursor. Returns the number of orders written.
+   */
+  long exportOrders(OrderStatus status, OutputStream out);
 }
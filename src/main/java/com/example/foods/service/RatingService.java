@@ -1,5 +1,7 @@
 package com.example.foods.service;
 
+import java.util.List;
+
 public interface RatingService {
 
   void submitRating(Long foodId, Long userId, Integer score, String comment);
@@ -9,4 +11,10 @@ public interface RatingService {
   Long getRatingCount(Long foodId);
 
   com.example.foods.dto.response.RatingResponseDto getUserRating(Long foodId, Long userId);
+
+  /** Ids of foods whose stored rating aggregates disagree with the ratings table. */
+  List<Long> findFoodsWithStaleRatingAggregates();
+
+  /** Recomputes the stored rating aggregates of the given foods from the ratings table. */
+  int repairRatingAggregates(List<Long> foodIds);
 }
@@ -0,0 +1,22 @@
+package com.example.foods.service;
+
+import com.example.foods.dto.response.FoodResponseDto;
+import java.util.List;
+
+public interface RecommendationService {
+
+  /**
+   * Active foods recommended to {@code username}, best first, read from the precomputed list.
+   * Users without one yet get the most ordered foods. Adds no database queries.
+   */
+  List<FoodResponseDto> getRecommendationsForUser(String username, Integer limit);
+
+  /**
+   * Recomputes the recommendations of {@code username} from their orders and ratings, the
+   * categories they like and global popularity, and stores them for serving.
+   */
+  void refreshRecommendations(String username);
+
+  /** Usernames of users who have placed an order or rated a food. */
+  List<String> findUsernamesWithHistory();
+}
@@ -0,0 +1,123 @@
+package com.example.foods.service.impl;
+
+import com.example.foods.batch.CatalogImportJobConfig;
+import com.example.foods.batch.CatalogImportLauncher;
+import com.example.foods.batch.CatalogImportMetricsListener;
+import com.example.foods.batch.CatalogImportStaging;
+import com.example.foods.dto.response.CatalogImportStatusDto;
+import com.example.foods.service.CatalogImportService;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Stages import files and launches the catalog import job. Spring Batch manages the chunk
+ * transactions itself, so this service is deliberately not {@code @Transactional}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+  private static final String QUEUED = "QUEUED";
+
+  private final CatalogImportStaging catalogImportStaging;
+  private final CatalogImportLauncher catalogImportLauncher;
+  private final JobRepository jobRepository;
+
+  @Override
+  public CatalogImportStatusDto startImport(MultipartFile items, MultipartFile images) {
+    if (items == null || items.isEmpty()) {
+      throw new IllegalArgumentException("Import file must not be empty");
+    }
+    if (images != null
+        && !images.isEmpty()
+        && (images.getOriginalFilename() == null
+            || !images.getOriginalFilename().toLowerCase().endsWith(".zip"))) {
+      throw new IllegalArgumentException("Images must be uploaded as a zip archive");
+    }
+    String importId = UUID.randomUUID().toString();
+    catalogImportStaging.stage(importId, items, images);
+    log.info("Staged catalog import {} from {}", importId, items.getOriginalFilename());
+
+    catalogImportLauncher.launch(jobParameters(importId));
+    return CatalogImportStatusDto.builder().importId(importId).status(QUEUED).build();
+  }
+
+  @Override
+  public CatalogImportStatusDto getImport(String importId) {
+    requireStaged(importId);
+    JobExecution execution =
+        jobRepository.getLastJobExecution(CatalogImportJobConfig.JOB_NAME, jobParameters(importId));
+    return execution == null
+        ? CatalogImportStatusDto.builder().importId(importId).status(QUEUED).build()
+        : toStatus(importId, execution);
+  }
+
+  @Override
+  public CatalogImportStatusDto restartImport(String importId) {
+    requireStaged(importId);
+    JobExecution execution =
+        jobRepository.getLastJobExecution(CatalogImportJobConfig.JOB_NAME, jobParameters(importId));
+    if (execution == null
+        || (execution.getStatus() != BatchStatus.FAILED
+            && execution.getStatus() != BatchStatus.STOPPED)) {
+      throw new IllegalArgumentException("Only failed or stopped imports can be restarted");
+    }
+    log.info("Restarting catalog import {} after execution {}", importId, execution.getId());
+    catalogImportLauncher.launch(jobParameters(importId));
+    return CatalogImportStatusDto.builder().importId(importId).status(QUEUED).build();
+  }
+
+  private void requireStaged(String importId) {
+    try {
+      UUID.fromString(importId);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid import ID: " + importId);
+    }
+    if (!catalogImportStaging.exists(importId)) {
+      throw new IllegalArgumentException("Catalog import not found: " + importId);
+    }
+  }
+
+  private static JobParameters jobParameters(String importId) {
+    return new JobParametersBuilder()
+        .addString(CatalogImportJobConfig.IMPORT_ID, importId)
+        .toJobParameters();
+  }
+
+  private static CatalogImportStatusDto toStatus(String importId, JobExecution execution) {
+    CatalogImportStatusDto status =
+        CatalogImportStatusDto.builder()
+            .importId(importId)
+            .executionId(execution.getId())
+            .status(execution.getStatus().name())
+            .startTime(execution.getStartTime())
+            .endTime(execution.getEndTime())
+            .build();
+    LocalDateTime end =
+        execution.getEndTime() != null ? execution.getEndTime() : LocalDateTime.now();
+    double itemsPerSecond = 0;
+    for (StepExecution step : execution.getStepExecutions()) {
+      status.setReadCount(status.getReadCount() + step.getReadCount());
+      status.setWriteCount(status.getWriteCount() + step.getWriteCount());
+      status.setSkipCount(status.getSkipCount() + step.getSkipCount());
+      status.setCommitCount(status.getCommitCount() + step.getCommitCount());
+      itemsPerSecond += CatalogImportMetricsListener.itemsPerSecond(step, end);
+    }
+    status.setItemsPerSecond(itemsPerSecond);
+    if (execution.getStatus() == BatchStatus.FAILED) {
+      status.setExitMessage(execution.getExitStatus().getExitDescription());
+    }
+    return status;
+  }
+}
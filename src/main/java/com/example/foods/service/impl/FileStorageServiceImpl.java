@@ -1,25 +1,65 @@
 package com.example.foods.service.impl;
 
 import com.example.foods.service.FileStorageService;
+import com.example.foods.storage.ImageDiskCache;
+import com.example.foods.storage.RangeNotSatisfiableException;
+import com.example.foods.storage.StoredObject;
+import com.example.foods.storage.StoredObjectNotFoundException;
+import com.example.foods.storage.UploadThrottle;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 
 @Service
 @Slf4j
 public class FileStorageServiceImpl implements FileStorageService {
 
+  /** Smallest part S3 accepts in a multipart upload, except for the last one. */
+  private static final DataSize MIN_PART_SIZE = DataSize.ofMegabytes(5);
+
   private final S3Client s3Client;
   private final String bucketName;
+  private final ImageDiskCache imageDiskCache;
+  private final UploadThrottle uploadThrottle;
+  private final long multipartThreshold;
+  private final long partSize;
 
   public FileStorageServiceImpl(
-      S3Client s3Client, @Value("${aws.s3.bucket-name}") String bucketName) {
+      S3Client s3Client,
+      @Value("${aws.s3.bucket-name}") String bucketName,
+      ImageDiskCache imageDiskCache,
+      UploadThrottle uploadThrottle,
+      @Value("${app.storage.upload.multipart-threshold:16MB}") DataSize multipartThreshold,
+      @Value("${app.storage.upload.part-size:8MB}") DataSize partSize) {
+    if (partSize.toBytes() < MIN_PART_SIZE.toBytes()) {
+      throw new IllegalArgumentException("Multipart upload part size must be at least 5MB");
+    }
     this.s3Client = s3Client;
     this.bucketName = bucketName;
+    this.imageDiskCache = imageDiskCache;
+    this.uploadThrottle = uploadThrottle;
+    this.multipartThreshold = multipartThreshold.toBytes();
+    this.partSize = partSize.toBytes();
   }
 
   @Override
@@ -28,33 +68,83 @@ public class FileStorageServiceImpl implements FileStorageService {
         UUID.randomUUID()
             + "_"
             + (file.getOriginalFilename() != null ? file.getOriginalFilename() : "unknown");
+    upload(uniqueFileName, file);
+    log.info("File uploaded successfully: {}", uniqueFileName);
+    return uniqueFileName;
+  }
+
+  @Override
+  public String uploadFile(String originalFilename, InputStream content, long contentLength) {
+    String uniqueFileName =
+        UUID.randomUUID() + "_" + (originalFilename != null ? originalFilename : "unknown");
     try {
-      s3Client.putObject(
-          builder -> builder.bucket(bucketName).key(uniqueFileName).build(),
-          software.amazon.awssdk.core.sync.RequestBody.fromBytes(file.getBytes()));
-      log.info("File uploaded successfully: {}", uniqueFileName);
-      return uniqueFileName;
+      upload(uniqueFileName, content, contentLength, contentType(uniqueFileName, null));
     } catch (IOException e) {
       log.error("Failed to upload file: {}", uniqueFileName, e);
       throw new RuntimeException("Failed to upload file", e);
     }
+    log.debug("File uploaded successfully: {}", uniqueFileName);
+    return uniqueFileName;
+  }
+
+  @Override
+  public void storeFile(String key, byte[] content) {
+    s3Client.putObject(
+        builder -> builder.bucket(bucketName).key(key).contentType(contentType(key, null)).build(),
+        RequestBody.fromBytes(content));
+    imageDiskCache.evict(key);
+    log.debug("File stored successfully: {}", key);
   }
 
   @Override
   public byte[] downloadFile(String filename) {
-    try {
-      byte[] fileBytes =
-          s3Client
-              .getObjectAsBytes(builder -> builder.bucket(bucketName).key(filename).build())
-              .asByteArray();
+    try (StoredObject file = openFile(filename, null)) {
+      byte[] fileBytes = file.getContent().readAllBytes();
       log.info("File downloaded successfully: {}", filename);
       return fileBytes;
+    } catch (StoredObjectNotFoundException e) {
+      throw e;
     } catch (Exception e) {
       log.error("Failed to download file: {}", filename, e);
       throw new RuntimeException("Failed to download file", e);
     }
   }
 
+  @Override
+  public StoredObject openFile(String filename, String range) {
+    return imageDiskCache.open(filename, range, requested -> openFromStorage(filename, requested));
+  }
+
+  private StoredObject openFromStorage(String filename, String range) {
+    ResponseInputStream<GetObjectResponse> content;
+    try {
+      content =
+          s3Client.getObject(
+              builder -> builder.bucket(bucketName).key(filename).range(range).build());
+    } catch (NoSuchKeyException e) {
+      throw new StoredObjectNotFoundException(filename);
+    } catch (S3Exception e) {
+      if (e.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+        long totalLength =
+            s3Client
+                .headObject(builder -> builder.bucket(bucketName).key(filename).build())
+                .contentLength();
+        throw new RangeNotSatisfiableException(filename, totalLength);
+      }
+      log.error("Failed to open file: {}", filename, e);
+      throw new RuntimeException("Failed to open file", e);
+    }
+    GetObjectResponse response = content.response();
+    log.debug("Opened file {} ({} bytes, range {})", filename, response.contentLength(), range);
+    return new StoredObject(
+        content,
+        contentType(filename, response.contentType()),
+        response.contentLength(),
+        response.contentRange(),
+        response.eTag(),
+        response.lastModified());
+  }
+
   @Override
   public String uploadFileToTemp(MultipartFile file) {
     String uniqueFileName =
@@ -62,22 +152,104 @@ public class FileStorageServiceImpl implements FileStorageService {
             + UUID.randomUUID()
             + "_"
             + (file.getOriginalFilename() != null ? file.getOriginalFilename() : "unknown");
-    try {
-      s3Client.putObject(
-          builder -> builder.bucket(bucketName).key(uniqueFileName).build(),
-          software.amazon.awssdk.core.sync.RequestBody.fromBytes(file.getBytes()));
-      log.info("Temp file uploaded successfully: {}", uniqueFileName);
-      return uniqueFileName;
+    upload(uniqueFileName, file);
+    log.info("Temp file uploaded successfully: {}", uniqueFileName);
+    return uniqueFileName;
+  }
+
+  private void upload(String key, MultipartFile file) {
+    try (InputStream content = file.getInputStream()) {
+      upload(key, content, file.getSize(), contentType(key, file.getContentType()));
     } catch (IOException e) {
-      log.error("Failed to upload temp file: {}", uniqueFileName, e);
+      log.error("Failed to upload file: {}", key, e);
       throw new RuntimeException("Failed to upload file", e);
     }
   }
 
+  /**
+   * Streams {@code contentLength} bytes of {@code content} to {@code key}: a single PUT up to the
+   * multipart threshold, a multipart upload above it. Neither reads the whole body into memory, and
+   * both wait for the node-wide upload throttle first.
+   */
+  private void upload(String key, InputStream content, long contentLength, String contentType)
+      throws IOException {
+    try (UploadThrottle.Permit permit = uploadThrottle.acquire(Math.min(contentLength, partSize))) {
+      if (contentLength <= multipartThreshold) {
+        s3Client.putObject(
+            builder -> builder.bucket(bucketName).key(key).contentType(contentType).build(),
+            RequestBody.fromInputStream(content, contentLength));
+      } else {
+        uploadMultipart(key, content, contentLength, contentType);
+      }
+    }
+  }
+
+  /**
+   * Sends {@code content} in parts of {@code partSize} through one reused buffer, so an upload
+   * holds at most one part in memory. Parts are replayed from the buffer if the SDK retries them.
+   * Any failure aborts the upload so storage does not keep the orphaned parts.
+   */
+  private void uploadMultipart(
+      String key, InputStream content, long contentLength, String contentType) throws IOException {
+    String uploadId =
+        s3Client
+            .createMultipartUpload(
+                builder -> builder.bucket(bucketName).key(key).contentType(contentType).build())
+            .uploadId();
+    try {
+      byte[] buffer = new byte[(int) Math.min(partSize, contentLength)];
+      List<CompletedPart> parts = new ArrayList<>();
+      long remaining = contentLength;
+      while (remaining > 0) {
+        int length = content.readNBytes(buffer, 0, (int) Math.min(buffer.length, remaining));
+        if (length == 0) {
+          throw new EOFException("Upload of " + key + " ended " + remaining + " bytes early");
+        }
+        int partNumber = parts.size() + 1;
+        UploadPartResponse part =
+            s3Client.uploadPart(
+                builder ->
+                    builder
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) length)
+                        .build(),
+                RequestBody.fromContentProvider(
+                    () -> new ByteArrayInputStream(buffer, 0, length), length, contentType));
+        parts.add(CompletedPart.builder().partNumber(partNumber).eTag(part.eTag()).build());
+        remaining -= length;
+      }
+      s3Client.completeMultipartUpload(
+          builder ->
+              builder
+                  .bucket(bucketName)
+                  .key(key)
+                  .uploadId(uploadId)
+                  .multipartUpload(upload -> upload.parts(parts))
+                  .build());
+      log.debug("Uploaded {} in {} parts", key, parts.size());
+    } catch (IOException | RuntimeException e) {
+      abortQuietly(key, uploadId);
+      throw e;
+    }
+  }
+
+  private void abortQuietly(String key, String uploadId) {
+    try {
+      s3Client.abortMultipartUpload(
+          builder -> builder.bucket(bucketName).key(key).uploadId(uploadId).build());
+    } catch (Exception e) {
+      log.warn("Failed to abort multipart upload {} of {}", uploadId, key, e);
+    }
+  }
+
   @Override
   public void deleteFile(String filename) {
     try {
       s3Client.deleteObject(builder -> builder.bucket(bucketName).key(filename).build());
+      imageDiskCache.evict(filename);
       log.info("File deleted successfully: {}", filename);
     } catch (Exception e) {
       log.error("Failed to delete file: {}", filename, e);
@@ -107,10 +279,24 @@ public class FileStorageServiceImpl implements FileStorageService {
                   .destinationKey(destinationKey)
                   .build());
       s3Client.deleteObject(builder -> builder.bucket(bucketName).key(sourceKey).build());
+      imageDiskCache.evict(sourceKey);
       log.info("Moved file from {} to {}", sourceKey, destinationKey);
     } catch (Exception e) {
       log.error("Failed to move file from {} to {}", sourceKey, destinationKey, e);
       throw new RuntimeException("Failed to move file", e);
     }
   }
+
+  /**
+   * The declared content type, or one guessed from the file name when it is missing or generic,
+   * e.g. for objects uploaded before content types were recorded.
+   */
+  private static String contentType(String filename, String declared) {
+    if (declared != null && !declared.isBlank() && !declared.endsWith("octet-stream")) {
+      return declared;
+    }
+    return MediaTypeFactory.getMediaType(filename)
+        .orElse(MediaType.APPLICATION_OCTET_STREAM)
+        .toString();
+  }
 }
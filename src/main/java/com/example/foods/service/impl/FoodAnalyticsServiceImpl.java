@@ -1,9 +1,18 @@
 package com.example.foods.service.impl;
 
+import com.example.foods.analytics.FoodCooccurrences;
+import com.example.foods.analytics.FoodLeaderboard;
+import com.example.foods.analytics.TrendingFoods;
+import com.example.foods.constant.LeaderboardMetric;
+import com.example.foods.constant.LeaderboardWindow;
 import com.example.foods.dto.AnalyticsUpdateDto;
 import com.example.foods.dto.response.FoodAnalyticsResponseDto;
+import com.example.foods.dto.response.FoodRankingDto;
+import com.example.foods.dto.response.FoodResponseDto;
 import com.example.foods.repository.FoodRepository;
 import com.example.foods.service.FoodAnalyticsService;
+import com.example.foods.service.FoodService;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,22 +34,34 @@ public class FoodAnalyticsServiceImpl implements FoodAnalyticsService {
 
   private static final String VIEW_COUNT_KEY_PREFIX = "food:view:";
   private static final String ORDER_COUNT_KEY_PREFIX = "food:order:";
+  private static final String ACTIVE = "ACTIVE";
+  private static final int DEFAULT_TOP_LIMIT = 10;
+  private static final int MAX_TOP_LIMIT = 100;
+  private static final int TOP_OVERFETCH_FACTOR = 2;
 
   private final StringRedisTemplate stringRedisTemplate;
   private final FoodRepository foodRepository;
   private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+  private final FoodLeaderboard foodLeaderboard;
+  private final TrendingFoods trendingFoods;
+  private final FoodCooccurrences foodCooccurrences;
+  private final FoodService foodService;
 
   @Override
-  public void incrementViewCount(Long foodId) {
+  public void incrementViewCount(Long foodId, String category) {
     String key = VIEW_COUNT_KEY_PREFIX + foodId;
     stringRedisTemplate.opsForValue().increment(key);
+    foodLeaderboard.record(LeaderboardMetric.VIEWS, foodId, category, 1);
+    trendingFoods.recordView(foodId);
     log.debug("Incremented view count for food ID: {}", foodId);
   }
 
   @Override
-  public void incrementOrderCount(Long foodId, int quantity) {
+  public void incrementOrderCount(Long foodId, String category, int quantity) {
     String key = ORDER_COUNT_KEY_PREFIX + foodId;
     stringRedisTemplate.opsForValue().increment(key, quantity);
+    foodLeaderboard.record(LeaderboardMetric.ORDERS, foodId, category, quantity);
+    trendingFoods.recordOrder(foodId, quantity);
     log.debug("Incremented order count for food ID: {} by {}", foodId, quantity);
   }
 
@@ -51,6 +72,44 @@ public class FoodAnalyticsServiceImpl implements FoodAnalyticsService {
     return foodRepository.findAllFoodAnalytics();
   }
 
+  @Override
+  public List<FoodRankingDto> getTopFoods(
+      String by, String window, String category, Integer limit) {
+    LeaderboardMetric metric = LeaderboardMetric.from(by);
+    LeaderboardWindow span = LeaderboardWindow.from(window);
+    int maxResults = resolveTopLimit(limit);
+    String categoryFilter = category == null || category.isBlank() ? null : category.trim();
+    log.info(
+        "Retrieving top {} foods by {} for {} in category {}",
+        maxResults,
+        metric,
+        span,
+        categoryFilter);
+
+    // Over-fetch: deleted, inactive and re-categorized foods are dropped after the lookup.
+    Map<Long, Long> scores =
+        foodLeaderboard.top(metric, span, categoryFilter, maxResults * TOP_OVERFETCH_FACTOR);
+    return rank(scores, categoryFilter, maxResults);
+  }
+
+  @Override
+  public List<FoodRankingDto> getTrendingFoods(Integer limit) {
+    int maxResults = resolveTopLimit(limit);
+    log.info("Retrieving top {} trending foods", maxResults);
+    return rank(trendingFoods.top(maxResults * TOP_OVERFETCH_FACTOR), null, maxResults);
+  }
+
+  @Override
+  public List<FoodRankingDto> getFrequentlyBoughtTogether(List<Long> foodIds, Integer limit) {
+    int maxResults = resolveTopLimit(limit);
+    if (foodIds.isEmpty()) {
+      return List.of();
+    }
+    log.info("Retrieving {} foods frequently bought together with {}", maxResults, foodIds);
+    return rank(
+        foodCooccurrences.related(foodIds, maxResults * TOP_OVERFETCH_FACTOR), null, maxResults);
+  }
+
   @Override
   @Transactional
   public void syncRedisToDatabase() {
@@ -71,6 +130,36 @@ public class FoodAnalyticsServiceImpl implements FoodAnalyticsService {
         orderCounts.size());
   }
 
+  private static int resolveTopLimit(Integer limit) {
+    int maxResults = limit == null ? DEFAULT_TOP_LIMIT : limit;
+    if (maxResults < 1 || maxResults > MAX_TOP_LIMIT) {
+      throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TOP_LIMIT);
+    }
+    return maxResults;
+  }
+
+  /** Hydrates ranked ids from the catalog, keeping active foods of {@code category} only. */
+  private List<FoodRankingDto> rank(
+      Map<Long, ? extends Number> scores, String category, int maxResults) {
+    List<FoodRankingDto> ranking = new ArrayList<>();
+    for (FoodResponseDto food : foodService.getFoodsByIds(new ArrayList<>(scores.keySet()))) {
+      if (ranking.size() == maxResults) {
+        break;
+      }
+      if (!ACTIVE.equals(food.getStatus())
+          || (category != null && !category.equals(food.getCategory()))) {
+        continue;
+      }
+      ranking.add(
+          FoodRankingDto.builder()
+              .rank(ranking.size() + 1)
+              .score(scores.get(food.getId()).doubleValue())
+              .food(food)
+              .build());
+    }
+    return ranking;
+  }
+
   private Map<Long, Long> getAndClearCountsByPrefix(String prefix) {
     Map<Long, Long> counts = new HashMap<>();
     
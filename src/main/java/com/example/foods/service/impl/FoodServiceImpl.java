@@ -1,20 +1,67 @@
 package com.example.foods.service.impl;
 
+import com.example.foods.cache.CatalogSnapshot;
+import com.example.foods.cache.CatalogSnapshotCache;
+import com.example.foods.cache.FoodDetailCache;
+import com.example.foods.constant.FoodSortField;
+import com.example.foods.constant.ImageSize;
+import com.example.foods.dto.FoodCursor;
+import com.example.foods.dto.ResourceVersion;
+import com.example.foods.dto.request.FoodBulkUpdateItemDto;
+import com.example.foods.dto.request.FoodBulkUpdateRequestDto;
+import com.example.foods.dto.request.FoodFilterRequestDto;
 import com.example.foods.dto.request.FoodRequestDto;
+import com.example.foods.dto.response.CatalogItem;
+import com.example.foods.dto.response.FoodBulkUpdateResponseDto;
+import com.example.foods.dto.response.FoodBulkUpdateResultDto;
+import com.example.foods.dto.response.FoodBulkUpdateResultDto.Outcome;
+import com.example.foods.dto.response.FoodCardDto;
+import com.example.foods.dto.response.FoodChangesResponseDto;
+import com.example.foods.dto.response.FoodFilterResponseDto;
+import com.example.foods.dto.response.FoodPageResponseDto;
 import com.example.foods.dto.response.FoodResponseDto;
+import com.example.foods.dto.response.FoodSearchResponseDto;
+import com.example.foods.dto.response.FoodTypeaheadDto;
 import com.example.foods.entity.Food;
+import com.example.foods.event.CatalogBatchChangedEvent;
+import com.example.foods.event.CatalogChangedEvent;
+import com.example.foods.event.FoodImagesUploadedEvent;
+import com.example.foods.export.JsonArrayExporter;
 import com.example.foods.mapper.FoodMapper;
 import com.example.foods.repository.FoodRepository;
-import com.example.foods.repository.RatingRepository;
+import com.example.foods.search.CatalogBitmapIndex;
+import com.example.foods.search.CatalogFacetQuery;
+import com.example.foods.search.FoodTypeaheadIndex;
 import com.example.foods.service.FileStorageService;
 import com.example.foods.service.FoodService;
-import com.example.foods.service.RatingService;
+import com.example.foods.storage.ImageUploader;
+import com.example.foods.sync.FoodChange;
+import com.example.foods.sync.FoodChangeLog;
+import java.io.OutputStream;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -22,120 +69,350 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class FoodServiceImpl implements FoodService {
 
+  private static final int DEFAULT_PAGE_SIZE = 24;
+  private static final int MAX_PAGE_SIZE = 100;
+  private static final int DEFAULT_SUGGEST_LIMIT = 8;
+  private static final int MAX_SUGGEST_LIMIT = 20;
+  private static final int BULK_UPDATE_BATCH_SIZE = 500;
+
+  /**
+   * Null parameters keep the current value. The version check makes the batch respect optimistic
+   * locking: a row whose version moved on matches nothing and is reported as a conflict.
+   */
+  private static final String BULK_UPDATE_SQL =
+      "UPDATE foods SET price = COALESCE(:price, price), "
+          + "quantity = COALESCE(:quantity, quantity), "
+          + "status = COALESCE(:status, status), "
+          + "version = version + 1, updated_at = :now "
+          + "WHERE id = :id AND version = :version";
+
+  // Matches on food and key, so renditions of an image replaced meanwhile are not recorded.
+  private static final String RECORD_DERIVATIVES_SQL =
+      "UPDATE food_images SET thumbnail_url = :thumbnailUrl, medium_url = :mediumUrl "
+          + "WHERE food_id = :foodId AND image_url = :imageUrl";
+
+  // New renditions change the food's representation, so its version moves on like any edit.
+  private static final String BUMP_VERSION_SQL =
+      "UPDATE foods SET version = version + 1, updated_at = :now WHERE id = :foodId "
+          + "RETURNING version";
+
+  private static final String FOOD_VERSIONS_SQL =
+      "SELECT id, version FROM foods WHERE id IN (:ids)";
+
   private final FoodRepository foodRepository;
   private final FoodMapper foodMapper;
   private final FileStorageService fileStorageService;
-  private final RatingService ratingService;
-  private final RatingRepository ratingRepository;
+  private final CatalogSnapshotCache catalogSnapshotCache;
+  private final FoodDetailCache foodDetailCache;
+  private final FoodTypeaheadIndex foodTypeaheadIndex;
+  private final CatalogBitmapIndex catalogBitmapIndex;
+  private final ApplicationEventPublisher eventPublisher;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+  private final JsonArrayExporter jsonArrayExporter;
+  private final FoodChangeLog foodChangeLog;
+  private final ImageUploader imageUploader;
+  private final TransactionTemplate transactionTemplate;
 
+  /**
+   * Images are uploaded in parallel before the transaction starts, so no database connection is
+   * held while they are in flight; they are deleted again if the food cannot be saved.
+   */
   @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
   public FoodResponseDto createFood(FoodRequestDto foodDto) {
     log.info("Creating new food: {}", foodDto.getName());
     if (foodRepository.existsByNameIgnoreCase(foodDto.getName())) {
       throw new IllegalArgumentException(
           "Food with name '" + foodDto.getName() + "' already exists");
     }
-    Food food = foodMapper.toEntity(foodDto);
-    log.info("Mapping food DTO to entity with images: {}", foodDto.getFoodImages());
-
-    List<String> uploadedFileKeys = new ArrayList<>();
+    log.info("Uploading images for food: {}", foodDto.getFoodImages());
+    List<String> uploadedFileKeys = imageUploader.uploadAll(foodDto.getFoodImages());
     try {
-      if (foodDto.getFoodImages() != null) {
-        foodDto
-            .getFoodImages()
-            .forEach(
-                image -> {
-                  String fileURL = fileStorageService.uploadFile(image);
-                  uploadedFileKeys.add(fileURL);
-                  food.addFoodImage(foodMapper.toFoodImageEntity(fileURL));
-                  log.info("Uploaded and added image to food: {}", food.getFoodImages().size());
-                });
-      }
-      log.info("Saving food entity to the database: {}", food.getName());
-      Food savedFood = foodRepository.save(food);
-
-      log.info("Successfully created food with ID: {}", savedFood.getId());
-      FoodResponseDto dto = foodMapper.toDto(savedFood);
-      dto.setAverageRating(ratingService.getAverageRating(savedFood.getId()));
-      dto.setRatingCount(ratingService.getRatingCount(savedFood.getId()));
-      return dto;
-    } catch (Exception e) {
+      return transactionTemplate.execute(status -> saveNewFood(foodDto, uploadedFileKeys));
+    } catch (RuntimeException e) {
       log.error("Failed to create food, cleaning up uploaded files: {}", uploadedFileKeys);
       cleanupUploadedFiles(uploadedFileKeys);
       throw e;
     }
   }
 
+  private FoodResponseDto saveNewFood(FoodRequestDto foodDto, List<String> imageKeys) {
+    Food food = foodMapper.toEntity(foodDto);
+    imageKeys.forEach(key -> food.addFoodImage(foodMapper.toFoodImageEntity(key)));
+    log.info("Saving food entity to the database: {}", food.getName());
+    Food savedFood = foodRepository.save(food);
+
+    log.info("Successfully created food with ID: {}", savedFood.getId());
+    eventPublisher.publishEvent(
+        new CatalogChangedEvent(this, savedFood.getId(), savedFood.getVersion(), false));
+    publishImagesUploaded(savedFood.getId(), imageKeys);
+    return foodMapper.toDto(savedFood);
+  }
+
   @Override
-  @Transactional(readOnly = true)
+  @Transactional(propagation = Propagation.SUPPORTS)
   public List<FoodResponseDto> getAllFoods() {
     log.info("Retrieving all foods");
-    List<Food> foods = foodRepository.findAll();
-    List<FoodResponseDto> dtos = foodMapper.toDtoList(foods);
-    populateRatings(dtos);
-    return dtos;
+    return catalogSnapshot().getFoods();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long exportFoods(OutputStream out) {
+    try (Stream<Food> foods = foodRepository.streamAllByOrderById()) {
+      long exported = jsonArrayExporter.write(foods, foodMapper::toDtoList, out);
+      log.info("Exported {} foods", exported);
+      return exported;
+    }
   }
 
   @Override
   @Transactional(readOnly = true)
+  public FoodPageResponseDto<FoodResponseDto> getFoodsPage(
+      String cursor, Integer size, String sort, String direction) {
+    int pageSize = resolvePageSize(size);
+    FoodCursor position = resolveCursor(cursor, sort, direction);
+    log.info(
+        "Retrieving foods page: sort={}, descending={}, size={}",
+        position.getSort(),
+        position.isDescending(),
+        pageSize);
+
+    // Fetch one extra row to learn whether another page exists without a COUNT query.
+    List<Food> foods = foodRepository.findPageAfter(position, pageSize + 1);
+    boolean hasNext = foods.size() > pageSize;
+    if (hasNext) {
+      foods = foods.subList(0, pageSize);
+    }
+    return toPage(position, foodMapper.toDtoList(foods), hasNext);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public FoodPageResponseDto<FoodCardDto> getFoodCardsPage(
+      String cursor, Integer size, String sort, String direction) {
+    int pageSize = resolvePageSize(size);
+    FoodCursor position = resolveCursor(cursor, sort, direction);
+    log.info(
+        "Retrieving food cards page: sort={}, descending={}, size={}",
+        position.getSort(),
+        position.isDescending(),
+        pageSize);
+
+    List<FoodCardDto> cards = foodRepository.findCardsAfter(position, pageSize + 1);
+    boolean hasNext = cards.size() > pageSize;
+    if (hasNext) {
+      cards = cards.subList(0, pageSize);
+    }
+    return toPage(position, cards, hasNext);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
   public FoodResponseDto getFoodById(Long id) {
     log.info("Retrieving food with ID: {}", id);
-    Food food =
-        foodRepository
-            .findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Food not found with ID: " + id));
-    FoodResponseDto dto = foodMapper.toDto(food);
-    dto.setAverageRating(ratingService.getAverageRating(id));
-    dto.setRatingCount(ratingService.getRatingCount(id));
-    return dto;
+    CatalogSnapshot snapshot = catalogSnapshotCache.peek();
+    FoodResponseDto cached = snapshot == null ? null : snapshot.getFoodsById().get(id);
+    if (cached != null) {
+      return cached;
+    }
+    return foodDetailCache.get(id, () -> loadFoodDetail(id));
   }
 
   @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public List<FoodResponseDto> getFoodsByIds(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, FoodResponseDto> foodsById = catalogSnapshot().getFoodsById();
+    return ids.stream().map(foodsById::get).filter(Objects::nonNull).toList();
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public Optional<ResourceVersion> getFoodVersion(Long id) {
+    // Prefer the copies getFoodById would serve, so the tag always describes the body sent.
+    CatalogSnapshot snapshot = catalogSnapshotCache.peek();
+    FoodResponseDto cached = snapshot == null ? null : snapshot.getFoodsById().get(id);
+    if (cached == null) {
+      cached = foodDetailCache.peek(id);
+    }
+    if (cached != null) {
+      long ratingCount = cached.getRatingCount() == null ? 0 : cached.getRatingCount();
+      double average = cached.getAverageRating() == null ? 0 : cached.getAverageRating();
+      return Optional.of(
+          new ResourceVersion(
+              id,
+              cached.getVersion(),
+              ratingCount,
+              Math.round(average * ratingCount),
+              cached.getUpdatedAt()));
+    }
+    return foodRepository.findVersionById(id);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public ResourceVersion getCatalogVersion() {
+    CatalogSnapshot snapshot = catalogSnapshot();
+    return new ResourceVersion(snapshot.getVersionStamp(), snapshot.getBuiltAt());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public FoodChangesResponseDto getFoodChanges(Long since, Integer size) {
+    long from = since == null ? 0 : since;
+    if (from < 0) {
+      throw new IllegalArgumentException("Change sequence must not be negative");
+    }
+    int pageSize = resolvePageSize(size);
+    log.info("Retrieving food changes since {}, size={}", from, pageSize);
+
+    List<FoodChange> changes = foodChangeLog.findAfter(from, pageSize + 1);
+    boolean hasMore = changes.size() > pageSize;
+    if (hasMore) {
+      changes = changes.subList(0, pageSize);
+    }
+    List<Long> changedIds = new ArrayList<>();
+    List<Long> deletedIds = new ArrayList<>();
+    for (FoodChange change : changes) {
+      (change.isDeleted() ? deletedIds : changedIds).add(change.getFoodId());
+    }
+    List<FoodResponseDto> changed = loadInOrder(changedIds);
+    if (changed.size() < changedIds.size()) {
+      // Deleted since the feed was read; report the tombstone now instead of dropping the entry.
+      Set<Long> found = new HashSet<>();
+      changed.forEach(food -> found.add(food.getId()));
+      changedIds.stream().filter(id -> !found.contains(id)).forEach(deletedIds::add);
+    }
+    return FoodChangesResponseDto.builder()
+        .changed(changed)
+        .deleted(deletedIds)
+        .nextSince(changes.isEmpty() ? from : changes.get(changes.size() - 1).getSeq())
+        .hasMore(hasMore)
+        .build();
+  }
+
+  /**
+   * New images replace the current ones. Like {@link #createFood}, they are uploaded in parallel
+   * before the transaction starts and deleted again if the update fails.
+   */
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
   public FoodResponseDto updateFood(Long id, FoodRequestDto foodDto) {
     log.info("Updating food with ID: {}", id);
+    boolean replaceImages = foodDto.getFoodImages() != null && !foodDto.getFoodImages().isEmpty();
+    if (replaceImages) {
+      // Reject invalid updates before uploading anything; the checks repeat in the transaction.
+      findUpdatableFood(id, foodDto.getName());
+    }
+    List<String> uploadedFileKeys =
+        replaceImages ? imageUploader.uploadAll(foodDto.getFoodImages()) : List.of();
+    try {
+      return transactionTemplate.execute(status -> applyUpdate(id, foodDto, uploadedFileKeys));
+    } catch (RuntimeException e) {
+      if (!uploadedFileKeys.isEmpty()) {
+        log.error("Failed to update food, cleaning up uploaded files: {}", uploadedFileKeys);
+        cleanupUploadedFiles(uploadedFileKeys);
+      }
+      throw e;
+    }
+  }
+
+  private FoodResponseDto applyUpdate(Long id, FoodRequestDto foodDto, List<String> imageKeys) {
+    Food existingFood = findUpdatableFood(id, foodDto.getName());
+    foodMapper.updateEntityFromDto(foodDto, existingFood);
+    if (!imageKeys.isEmpty()) {
+      log.info("Updating food images for food ID: {}", id);
+      existingFood.getFoodImages().clear();
+      imageKeys.forEach(key -> existingFood.addFoodImage(foodMapper.toFoodImageEntity(key)));
+      log.info("Updated food images. New image count: {}", existingFood.getFoodImages().size());
+    }
+
+    // Flush so the bumped @Version is known when announcing the change.
+    Food updatedFood = foodRepository.saveAndFlush(existingFood);
 
+    log.info("Successfully updated food with ID: {}", id);
+    eventPublisher.publishEvent(new CatalogChangedEvent(this, id, updatedFood.getVersion(), false));
+    publishImagesUploaded(id, imageKeys);
+    return foodMapper.toDto(updatedFood);
+  }
+
+  /** The food to update, if it exists and renaming it to {@code name} causes no clash. */
+  private Food findUpdatableFood(Long id, String name) {
     Food existingFood =
         foodRepository
             .findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Food not found with ID: " + id));
-
-    if (!existingFood.getName().equalsIgnoreCase(foodDto.getName())
-        && foodRepository.existsByNameIgnoreCase(foodDto.getName())) {
-      throw new IllegalArgumentException(
-          "Food with name '" + foodDto.getName() + "' already exists");
+    if (!existingFood.getName().equalsIgnoreCase(name)
+        && foodRepository.existsByNameIgnoreCase(name)) {
+      throw new IllegalArgumentException("Food with name '" + name + "' already exists");
     }
+    return existingFood;
+  }
 
-    foodMapper.updateEntityFromDto(foodDto, existingFood);
+  @Override
+  public FoodBulkUpdateResponseDto bulkUpdateFoods(FoodBulkUpdateRequestDto request) {
+    List<FoodBulkUpdateItemDto> updates = request.getUpdates();
+    log.info("Bulk updating {} foods", updates.size());
 
-    List<String> uploadedFileKeys = new ArrayList<>();
-    try {
-      if (foodDto.getFoodImages() != null && !foodDto.getFoodImages().isEmpty()) {
-        log.info("Updating food images for food ID: {}", id);
-
-        existingFood.getFoodImages().clear();
-
-        foodDto
-            .getFoodImages()
-            .forEach(
-                image -> {
-                  String fileURL = fileStorageService.uploadFile(image);
-                  uploadedFileKeys.add(fileURL);
-                  existingFood.addFoodImage(foodMapper.toFoodImageEntity(fileURL));
-                  log.info("Added new image to food: {}", fileURL);
-                });
-
-        log.info("Updated food images. New image count: {}", existingFood.getFoodImages().size());
+    FoodBulkUpdateResultDto[] results = new FoodBulkUpdateResultDto[updates.size()];
+    List<Integer> accepted = new ArrayList<>();
+    Set<Long> seenIds = new HashSet<>();
+    for (int i = 0; i < updates.size(); i++) {
+      FoodBulkUpdateItemDto update = updates.get(i);
+      String problem = validateBulkUpdate(update, seenIds);
+      if (problem == null) {
+        accepted.add(i);
+      } else {
+        results[i] =
+            FoodBulkUpdateResultDto.builder()
+                .id(update == null ? null : update.getId())
+                .outcome(Outcome.INVALID)
+                .message(problem)
+                .build();
       }
+    }
 
-      Food updatedFood = foodRepository.save(existingFood);
+    LocalDateTime now = LocalDateTime.now();
+    int[] rowCounts = new int[accepted.size()];
+    for (int from = 0; from < accepted.size(); from += BULK_UPDATE_BATCH_SIZE) {
+      SqlParameterSource[] batch =
+          accepted.subList(from, Math.min(from + BULK_UPDATE_BATCH_SIZE, accepted.size())).stream()
+              .map(index -> bulkUpdateParams(updates.get(index), now))
+              .toArray(SqlParameterSource[]::new);
+      int[] counts = namedParameterJdbcTemplate.batchUpdate(BULK_UPDATE_SQL, batch);
+      System.arraycopy(counts, 0, rowCounts, from, counts.length);
+    }
 
-      log.info("Successfully updated food with ID: {}", id);
-      return foodMapper.toDto(updatedFood);
-    } catch (Exception e) {
-      log.error("Failed to update food, cleaning up uploaded files: {}", uploadedFileKeys);
-      cleanupUploadedFiles(uploadedFileKeys);
-      throw e;
+    Map<Long, Long> versions =
+        currentVersions(accepted.stream().map(index -> updates.get(index).getId()).toList());
+    Map<Long, Long> changed = new LinkedHashMap<>();
+    boolean stockOnly = true;
+    for (int k = 0; k < accepted.size(); k++) {
+      FoodBulkUpdateItemDto update = updates.get(accepted.get(k));
+      Long id = update.getId();
+      FoodBulkUpdateResultDto.FoodBulkUpdateResultDtoBuilder result =
+          FoodBulkUpdateResultDto.builder().id(id).version(versions.get(id));
+      if (rowCounts[k] > 0) {
+        result.outcome(Outcome.UPDATED);
+        changed.put(id, versions.get(id));
+        stockOnly &= update.getPrice() == null && update.getStatus() == null;
+      } else if (!versions.containsKey(id)) {
+        result.outcome(Outcome.NOT_FOUND).message("Food not found with ID: " + id);
+      } else {
+        result
+            .outcome(Outcome.CONFLICT)
+            .message("Food was modified concurrently; expected version " + update.getVersion());
+      }
+      results[accepted.get(k)] = result.build();
+    }
+
+    if (!changed.isEmpty()) {
+      eventPublisher.publishEvent(new CatalogBatchChangedEvent(this, changed, stockOnly));
     }
+    return toBulkUpdateResponse(List.of(results));
   }
 
   @Override
@@ -148,30 +425,113 @@ public class FoodServiceImpl implements FoodService {
 
     foodRepository.deleteById(id);
     log.info("Successfully deleted food with ID: {}", id);
+    eventPublisher.publishEvent(new CatalogChangedEvent(this, id, null, true));
   }
 
   @Override
-  @Transactional(readOnly = true)
+  public void recordImageDerivatives(Long foodId, Map<String, Map<ImageSize, String>> derivatives) {
+    SqlParameterSource[] batch =
+        derivatives.entrySet().stream()
+            .map(
+                entry ->
+                    new MapSqlParameterSource()
+                        .addValue("foodId", foodId)
+                        .addValue("imageUrl", entry.getKey())
+                        .addValue("thumbnailUrl", entry.getValue().get(ImageSize.THUMBNAIL))
+                        .addValue("mediumUrl", entry.getValue().get(ImageSize.MEDIUM)))
+            .toArray(SqlParameterSource[]::new);
+    int[] updated = namedParameterJdbcTemplate.batchUpdate(RECORD_DERIVATIVES_SQL, batch);
+    if (Arrays.stream(updated).allMatch(count -> count == 0)) {
+      return;
+    }
+    List<Long> versions =
+        namedParameterJdbcTemplate.queryForList(
+            BUMP_VERSION_SQL,
+            new MapSqlParameterSource()
+                .addValue("foodId", foodId)
+                .addValue("now", LocalDateTime.now()),
+            Long.class);
+    if (!versions.isEmpty()) {
+      log.info("Recorded image renditions for food ID: {}", foodId);
+      eventPublisher.publishEvent(new CatalogChangedEvent(this, foodId, versions.get(0), false));
+    }
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
   public List<FoodResponseDto> getFoodsByCategory(String category) {
     log.info("Retrieving foods by category: {}", category);
-    List<Food> foods = foodRepository.findByCategory(category);
-    List<FoodResponseDto> dtos = foodMapper.toDtoList(foods);
-    populateRatings(dtos);
-    return dtos;
+    return catalogSnapshot().getFoodsByCategory().getOrDefault(category, List.of());
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<FoodResponseDto> searchFoodsByName(String name) {
     log.info("Searching foods by name: {}", name);
-    List<Food> foods = foodRepository.findByNameContainingIgnoreCase(name);
-    List<FoodResponseDto> dtos = foodMapper.toDtoList(foods);
-    populateRatings(dtos);
-    return dtos;
+    String pattern = name.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    return loadInOrder(foodRepository.findIdsByNameContaining(pattern));
   }
 
   @Override
   @Transactional(readOnly = true)
+  public FoodSearchResponseDto searchFoods(String query, Integer page, Integer size) {
+    log.info("Searching foods: query={}, page={}, size={}", query, page, size);
+    if (query == null || query.isBlank()) {
+      throw new IllegalArgumentException("Search query must not be blank");
+    }
+    int pageNumber = page == null ? 0 : page;
+    if (pageNumber < 0) {
+      throw new IllegalArgumentException("Page must not be negative");
+    }
+    int pageSize = resolvePageSize(size);
+    String term = query.trim();
+
+    List<Long> ids =
+        foodRepository.searchIdsByRelevance(term, pageSize + 1, pageNumber * pageSize);
+    boolean hasNext = ids.size() > pageSize;
+    if (hasNext) {
+      ids = ids.subList(0, pageSize);
+    }
+
+    List<FoodResponseDto> dtos = loadInOrder(ids);
+    return FoodSearchResponseDto.builder()
+        .query(term)
+        .content(dtos)
+        .page(pageNumber)
+        .size(dtos.size())
+        .hasNext(hasNext)
+        .build();
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public List<FoodTypeaheadDto> suggestFoods(String query, Integer limit) {
+    int maxResults = limit == null ? DEFAULT_SUGGEST_LIMIT : limit;
+    if (maxResults < 1 || maxResults > MAX_SUGGEST_LIMIT) {
+      throw new IllegalArgumentException(
+          "Suggestion limit must be between 1 and " + MAX_SUGGEST_LIMIT);
+    }
+    return foodTypeaheadIndex.suggest(query, maxResults);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public FoodFilterResponseDto filterFoods(FoodFilterRequestDto filter) {
+    log.info("Filtering foods: {}", filter);
+    int pageNumber = filter.getPage() == null ? 0 : filter.getPage();
+    if (pageNumber < 0) {
+      throw new IllegalArgumentException("Page must not be negative");
+    }
+    int pageSize = resolvePageSize(filter.getSize());
+    CatalogFacetQuery query = CatalogFacetQuery.from(filter);
+    CatalogSnapshot snapshot = catalogSnapshot();
+    return catalogBitmapIndex
+        .filter(query, snapshot, pageNumber, pageSize)
+        .orElseGet(() -> query.execute(snapshot, pageNumber, pageSize));
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
   public List<FoodResponseDto> getFoodsByPriceRange(Double minPrice, Double maxPrice) {
     log.info("Retrieving foods by price range: {} - {}", minPrice, maxPrice);
 
@@ -179,41 +539,159 @@ public class FoodServiceImpl implements FoodService {
       throw new IllegalArgumentException("Invalid price range");
     }
 
-    List<Food> foods = foodRepository.findByPriceBetween(minPrice, maxPrice);
-    List<FoodResponseDto> dtos = foodMapper.toDtoList(foods);
-    populateRatings(dtos);
-    return dtos;
-  }
-
-  private void populateRatings(List<FoodResponseDto> dtos) {
-    if (dtos == null || dtos.isEmpty()) return;
-    java.util.List<Long> ids = new java.util.ArrayList<>();
-    for (FoodResponseDto d : dtos) {
-      if (d.getId() != null) ids.add(d.getId());
-    }
-    if (ids.isEmpty()) return;
-
-    java.util.List<Object[]> stats = ratingRepository.findStatsByFoodIds(ids);
-    java.util.Map<Long, Double> avgMap = new java.util.HashMap<>();
-    java.util.Map<Long, Long> countMap = new java.util.HashMap<>();
-    if (stats != null) {
-      for (Object[] row : stats) {
-        if (row == null || row.length < 3) continue;
-        Long fid = row[0] == null ? null : ((Number) row[0]).longValue();
-        Double avg = row[1] == null ? 0.0 : ((Number) row[1]).doubleValue();
-        Long cnt = row[2] == null ? 0L : ((Number) row[2]).longValue();
-        if (fid != null) {
-          avgMap.put(fid, avg);
-          countMap.put(fid, cnt);
-        }
-      }
+    CatalogSnapshot snapshot = catalogSnapshot();
+    return catalogBitmapIndex
+        .findByPriceRange(snapshot, minPrice, maxPrice)
+        .orElseGet(
+            () ->
+                snapshot.getFoods().stream()
+                    .filter(
+                        f ->
+                            f.getPrice() != null
+                                && f.getPrice() >= minPrice
+                                && f.getPrice() <= maxPrice)
+                    .toList());
+  }
+
+  private CatalogSnapshot catalogSnapshot() {
+    return catalogSnapshotCache.getSnapshot(this::loadCatalog);
+  }
+
+  private List<FoodResponseDto> loadCatalog() {
+    List<Food> foods = foodRepository.findAll();
+    return foodMapper.toDtoList(foods);
+  }
+
+  private FoodCursor resolveCursor(String cursor, String sort, String direction) {
+    return cursor != null && !cursor.isBlank()
+        ? FoodCursor.decode(cursor)
+        : firstPage(FoodSortField.from(sort), direction);
+  }
+
+  private static FoodCursor firstPage(FoodSortField sort, String direction) {
+    boolean descending =
+        direction == null || direction.isBlank()
+            ? sort.isDescendingByDefault()
+            : "desc".equalsIgnoreCase(direction);
+    return FoodCursor.first(sort, descending);
+  }
+
+  private <T extends CatalogItem> FoodPageResponseDto<T> toPage(
+      FoodCursor position, List<T> content, boolean hasNext) {
+    String nextCursor =
+        hasNext ? FoodCursor.after(position, content.get(content.size() - 1)).encode() : null;
+    return FoodPageResponseDto.<T>builder()
+        .content(content)
+        .size(content.size())
+        .sort(position.getSort().name())
+        .direction(position.isDescending() ? "DESC" : "ASC")
+        .hasNext(hasNext)
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  private int resolvePageSize(Integer size) {
+    int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+    if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    return pageSize;
+  }
+
+  /**
+   * Loads foods for the given ids and returns them in the order of {@code ids}. Images are
+   * initialized by the mapper, one batched {@code IN} query for the whole page.
+   */
+  private List<FoodResponseDto> loadInOrder(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Map<Long, Integer> positions = new HashMap<>();
+    for (int i = 0; i < ids.size(); i++) {
+      positions.put(ids.get(i), i);
+    }
+    List<Food> foods = new ArrayList<>(foodRepository.findAllById(ids));
+    foods.sort(Comparator.comparing(f -> positions.get(f.getId())));
+    return foodMapper.toDtoList(foods);
+  }
+
+  private static String validateBulkUpdate(FoodBulkUpdateItemDto update, Set<Long> seenIds) {
+    if (update == null || update.getId() == null) {
+      return "ID is required";
+    }
+    if (!seenIds.add(update.getId())) {
+      return "Duplicate ID in request: " + update.getId();
     }
+    if (update.getVersion() == null) {
+      return "Version is required";
+    }
+    if (update.getPrice() == null && update.getQuantity() == null && update.getStatus() == null) {
+      return "Nothing to update";
+    }
+    if (update.getPrice() != null && update.getPrice() <= 0) {
+      return "Price must be positive";
+    }
+    if (update.getQuantity() != null && update.getQuantity() < 0) {
+      return "Quantity must be positive or zero";
+    }
+    if (update.getStatus() != null && !update.getStatus().matches(FoodRequestDto.STATUSES)) {
+      return FoodRequestDto.STATUS_MESSAGE;
+    }
+    return null;
+  }
+
+  private static SqlParameterSource bulkUpdateParams(
+      FoodBulkUpdateItemDto update, LocalDateTime now) {
+    return new MapSqlParameterSource()
+        .addValue("id", update.getId())
+        .addValue("version", update.getVersion(), Types.BIGINT)
+        .addValue("price", update.getPrice(), Types.DOUBLE)
+        .addValue("quantity", update.getQuantity(), Types.INTEGER)
+        .addValue("status", update.getStatus(), Types.VARCHAR)
+        .addValue("now", now);
+  }
+
+  private Map<Long, Long> currentVersions(List<Long> ids) {
+    Map<Long, Long> versions = new HashMap<>();
+    if (ids.isEmpty()) {
+      return versions;
+    }
+    namedParameterJdbcTemplate
+        .queryForList(FOOD_VERSIONS_SQL, new MapSqlParameterSource("ids", ids))
+        .forEach(
+            row ->
+                versions.put(
+                    ((Number) row.get("id")).longValue(),
+                    row.get("version") == null ? null : ((Number) row.get("version")).longValue()));
+    return versions;
+  }
+
+  private static FoodBulkUpdateResponseDto toBulkUpdateResponse(
+      List<FoodBulkUpdateResultDto> results) {
+    Map<Outcome, Integer> counts = new HashMap<>();
+    results.forEach(result -> counts.merge(result.getOutcome(), 1, Integer::sum));
+    return FoodBulkUpdateResponseDto.builder()
+        .updated(counts.getOrDefault(Outcome.UPDATED, 0))
+        .conflicts(counts.getOrDefault(Outcome.CONFLICT, 0))
+        .notFound(counts.getOrDefault(Outcome.NOT_FOUND, 0))
+        .invalid(counts.getOrDefault(Outcome.INVALID, 0))
+        .results(results)
+        .build();
+  }
+
+  private FoodResponseDto loadFoodDetail(Long id) {
+    Food food =
+        foodRepository
+            .findWithImagesById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Food not found with ID: " + id));
+    return foodMapper.toDto(food);
+  }
 
-    for (FoodResponseDto d : dtos) {
-      Double a = avgMap.getOrDefault(d.getId(), 0.0);
-      Long c = countMap.getOrDefault(d.getId(), 0L);
-      d.setAverageRating(a);
-      d.setRatingCount(c);
+  /** Has renditions generated for {@code imageKeys} once the current transaction commits. */
+  private void publishImagesUploaded(Long foodId, List<String> imageKeys) {
+    if (!imageKeys.isEmpty()) {
+      eventPublisher.publishEvent(
+          new FoodImagesUploadedEvent(this, foodId, List.copyOf(imageKeys)));
     }
   }
 
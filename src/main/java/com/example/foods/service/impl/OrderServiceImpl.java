@@ -9,13 +9,16 @@ import com.example.foods.entity.Order;
 import com.example.foods.entity.OrderItem;
 import com.example.foods.entity.User;
 import com.example.foods.event.OrderCreatedEvent;
+import com.example.foods.export.JsonArrayExporter;
 import com.example.foods.mapper.OrderMapper;
 import com.example.foods.repository.FoodRepository;
 import com.example.foods.repository.OrderRepository;
 import com.example.foods.repository.UserRepository;
 import com.example.foods.service.PaymentService;
 import jakarta.persistence.OptimisticLockException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -37,6 +40,7 @@ public class OrderServiceImpl implements com.example.foods.service.OrderService
   private final OrderMapper orderMapper;
   private final PaymentService paymentService;
   private final ApplicationEventPublisher eventPublisher;
+  private final JsonArrayExporter jsonArrayExporter;
 
   @Override
   @Retryable(
@@ -329,4 +333,17 @@ public class OrderServiceImpl implements com.example.foods.service.OrderService
     List<Order> orders = orderRepository.findByStatusOrderByCreatedAtDesc(status);
     return orderMapper.toDtoList(orders);
   }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long exportOrders(OrderStatus status, OutputStream out) {
+    try (Stream<Order> orders =
+        status == null
+            ? orderRepository.streamAllForExport()
+            : orderRepository.streamByStatusForExport(status)) {
+      long exported = jsonArrayExporter.write(orders, orderMapper::toDtoList, out);
+      log.info("Exported {} orders with status {}", exported, status);
+      return exported;
+    }
+  }
 }
@@ -1,13 +1,24 @@
 package com.example.foods.service.impl;
 
+import com.example.foods.cache.CatalogSnapshot.RatingLevel;
 import com.example.foods.entity.Food;
 import com.example.foods.entity.Rating;
+import com.example.foods.entity.RatingStats;
+import com.example.foods.event.CatalogChangedEvent;
+import com.example.foods.event.RatingSubmittedEvent;
 import com.example.foods.repository.FoodRepository;
 import com.example.foods.repository.RatingRepository;
 import com.example.foods.repository.UserRepository;
 import com.example.foods.service.RatingService;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,9 +28,24 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class RatingServiceImpl implements RatingService {
 
+  private static final String RATING_AGGREGATE_COLUMNS =
+      "food_id, SUM(score) AS rating_sum, COUNT(*) AS rating_count, "
+          + "COUNT(*) FILTER (WHERE score = 1) AS rating_1_count, "
+          + "COUNT(*) FILTER (WHERE score = 2) AS rating_2_count, "
+          + "COUNT(*) FILTER (WHERE score = 3) AS rating_3_count, "
+          + "COUNT(*) FILTER (WHERE score = 4) AS rating_4_count, "
+          + "COUNT(*) FILTER (WHERE score = 5) AS rating_5_count";
+
+  // The aggregates a rating change leaves on the food row, as broadcast to catalog snapshots.
+  private static final String RATING_LEVEL_COLUMNS =
+      "f.id, f.version, f.rating_sum, f.rating_count, f.rating_1_count, f.rating_2_count, "
+          + "f.rating_3_count, f.rating_4_count, f.rating_5_count";
+
   private final RatingRepository ratingRepository;
   private final FoodRepository foodRepository;
   private final UserRepository userRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
   @Override
   public void submitRating(Long foodId, Long userId, Integer score, String comment) {
@@ -37,9 +63,12 @@ public class RatingServiceImpl implements RatingService {
             .findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
 
-    var existing = ratingRepository.findByFoodIdAndUserId(foodId, userId);
+    // Lock the user's rating so two concurrent edits cannot both apply a delta from the same score.
+    var existing = ratingRepository.findByFoodIdAndUserIdForUpdate(foodId, userId);
+    int previousScore = 0;
     if (existing.isPresent()) {
       Rating r = existing.get();
+      previousScore = r.getScore();
       r.setScore(score);
       r.setComment(comment);
       ratingRepository.save(r);
@@ -49,20 +78,29 @@ public class RatingServiceImpl implements RatingService {
       ratingRepository.save(rating);
       log.info("Saved rating {} for food id {} by user {}", score, foodId, userId);
     }
+    if (previousScore != score) {
+      RatingLevel ratings = applyRatingChange(foodId, previousScore, score);
+      eventPublisher.publishEvent(new CatalogChangedEvent(this, foodId, ratings));
+    }
+    eventPublisher.publishEvent(new RatingSubmittedEvent(this, foodId, user.getUsername()));
   }
 
   @Override
   @Transactional(readOnly = true)
   public Double getAverageRating(Long foodId) {
-    Double avg = ratingRepository.findAverageByFoodId(foodId);
-    return avg == null ? 0.0 : avg;
+    return foodRepository
+        .findById(foodId)
+        .map(food -> food.getRatingStats().getAverage())
+        .orElse(0.0);
   }
 
   @Override
   @Transactional(readOnly = true)
   public Long getRatingCount(Long foodId) {
-    Long count = ratingRepository.countByFoodId(foodId);
-    return count == null ? 0L : count;
+    return foodRepository
+        .findById(foodId)
+        .map(food -> food.getRatingStats().getRatingCount())
+        .orElse(0L);
   }
 
   @Override
@@ -83,4 +121,108 @@ public class RatingServiceImpl implements RatingService {
                     .build())
         .orElse(null);
   }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<Long> findFoodsWithStaleRatingAggregates() {
+    String sql =
+        "SELECT f.id FROM foods f LEFT JOIN (SELECT "
+            + RATING_AGGREGATE_COLUMNS
+            + " FROM ratings GROUP BY food_id) s ON s.food_id = f.id "
+            + "WHERE f.rating_sum <> COALESCE(s.rating_sum, 0) "
+            + "OR f.rating_count <> COALESCE(s.rating_count, 0) "
+            + "OR f.rating_1_count <> COALESCE(s.rating_1_count, 0) "
+            + "OR f.rating_2_count <> COALESCE(s.rating_2_count, 0) "
+            + "OR f.rating_3_count <> COALESCE(s.rating_3_count, 0) "
+            + "OR f.rating_4_count <> COALESCE(s.rating_4_count, 0) "
+            + "OR f.rating_5_count <> COALESCE(s.rating_5_count, 0) "
+            + "ORDER BY f.id";
+    return namedParameterJdbcTemplate.queryForList(sql, Map.of(), Long.class);
+  }
+
+  @Override
+  public int repairRatingAggregates(List<Long> foodIds) {
+    if (foodIds.isEmpty()) {
+      return 0;
+    }
+    Map<String, Object> params = Map.of("ids", foodIds);
+    // Lock the rows first: a rating submitted after this point waits and then applies its delta
+    // on top of the recomputed values; one submitted before it is visible to the recompute.
+    namedParameterJdbcTemplate.queryForList(
+        "SELECT id FROM foods WHERE id IN (:ids) ORDER BY id FOR UPDATE", params, Long.class);
+    String sql =
+        "UPDATE foods f SET "
+            + "rating_sum = COALESCE(s.rating_sum, 0), "
+            + "rating_count = COALESCE(s.rating_count, 0), "
+            + "rating_1_count = COALESCE(s.rating_1_count, 0), "
+            + "rating_2_count = COALESCE(s.rating_2_count, 0), "
+            + "rating_3_count = COALESCE(s.rating_3_count, 0), "
+            + "rating_4_count = COALESCE(s.rating_4_count, 0), "
+            + "rating_5_count = COALESCE(s.rating_5_count, 0) "
+            + "FROM foods t LEFT JOIN (SELECT "
+            + RATING_AGGREGATE_COLUMNS
+            + " FROM ratings WHERE food_id IN (:ids) GROUP BY food_id) s ON s.food_id = t.id "
+            + "WHERE f.id = t.id AND t.id IN (:ids) RETURNING "
+            + RATING_LEVEL_COLUMNS;
+    Map<Long, RatingLevel> repaired = new LinkedHashMap<>();
+    namedParameterJdbcTemplate.query(
+        sql,
+        params,
+        rs -> {
+          repaired.put(rs.getLong("id"), ratingLevel(rs));
+        });
+    repaired.forEach(
+        (foodId, ratings) ->
+            eventPublisher.publishEvent(new CatalogChangedEvent(this, foodId, ratings)));
+    log.warn("Repaired rating aggregates for {} foods", repaired.size());
+    return repaired.size();
+  }
+
+  private RatingLevel applyRatingChange(Long foodId, int previousScore, int score) {
+    String sql =
+        "UPDATE foods f SET "
+            + "rating_sum = rating_sum + :score - :previousScore, "
+            + "rating_count = rating_count + CASE WHEN :previousScore = 0 THEN 1 ELSE 0 END, "
+            + histogramDelta(1)
+            + ", "
+            + histogramDelta(2)
+            + ", "
+            + histogramDelta(3)
+            + ", "
+            + histogramDelta(4)
+            + ", "
+            + histogramDelta(5)
+            + " WHERE id = :foodId RETURNING "
+            + RATING_LEVEL_COLUMNS;
+    Map<String, Object> params =
+        Map.of("foodId", foodId, "previousScore", previousScore, "score", score);
+    return namedParameterJdbcTemplate.queryForObject(sql, params, (rs, rowNum) -> ratingLevel(rs));
+  }
+
+  private static RatingLevel ratingLevel(ResultSet rs) throws SQLException {
+    RatingStats stats =
+        RatingStats.builder()
+            .scoreSum(rs.getLong("rating_sum"))
+            .ratingCount(rs.getLong("rating_count"))
+            .oneStarCount(rs.getLong("rating_1_count"))
+            .twoStarCount(rs.getLong("rating_2_count"))
+            .threeStarCount(rs.getLong("rating_3_count"))
+            .fourStarCount(rs.getLong("rating_4_count"))
+            .fiveStarCount(rs.getLong("rating_5_count"))
+            .build();
+    return new RatingLevel(
+        rs.getLong("version"), stats.getRatingCount(), stats.getAverage(), stats.getHistogram());
+  }
+
+  private static String histogramDelta(int star) {
+    String column = "rating_" + star + "_count";
+    return column
+        + " = "
+        + column
+        + " + CASE WHEN :score = "
+        + star
+        + " THEN 1 ELSE 0 END - CASE WHEN :previousScore = "
+        + star
+        + " THEN 1 ELSE 0 END";
+  }
 }
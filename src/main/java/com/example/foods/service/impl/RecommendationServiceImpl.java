@@ -0,0 +1,216 @@
+package com.example.foods.service.impl;
+
+import com.example.foods.analytics.FoodLeaderboard;
+import com.example.foods.analytics.UserRecommendations;
+import com.example.foods.constant.LeaderboardMetric;
+import com.example.foods.constant.LeaderboardWindow;
+import com.example.foods.constant.OrderStatus;
+import com.example.foods.dto.response.FoodResponseDto;
+import com.example.foods.service.FoodService;
+import com.example.foods.service.RecommendationService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-user "order again / you may like" lists. A food's score combines how often the user
+ * reordered it, how much the user likes its category and how popular it is overall:
+ *
+ * <ul>
+ *   <li>reorder: orders of the user containing the food, relative to the user's most reordered
+ *       food;
+ *   <li>category: half the category's share of the user's ordered foods plus half the user's mean
+ *       rating there, mapped to [-1, 1], so disliked categories score below unknown ones;
+ *   <li>popularity: log of the food's all-time order count, relative to the most ordered
+ *       candidate.
+ * </ul>
+ *
+ * Candidates are the user's ordered foods plus the most ordered foods overall and in the user's
+ * favourite categories. Foods the user rated poorly are left out. Lists are recomputed off the
+ * request path, after each order or rating of the user and nightly for everyone.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RecommendationServiceImpl implements RecommendationService {
+
+  private static final String ACTIVE = "ACTIVE";
+  private static final int DEFAULT_LIMIT = 8;
+  private static final int MAX_LIMIT = 50;
+  private static final int OVERFETCH_FACTOR = 2;
+
+  private static final double REORDER_WEIGHT = 0.5;
+  private static final double CATEGORY_WEIGHT = 0.3;
+  private static final double POPULARITY_WEIGHT = 0.2;
+
+  private static final int POPULAR_CANDIDATES = 100;
+  private static final int FAVOURITE_CATEGORIES = 3;
+  private static final int CATEGORY_CANDIDATES = 30;
+
+  /** Foods the user rated at or below this score are never recommended to them. */
+  private static final int DISLIKED_SCORE = 2;
+
+  private static final String ORDERED_FOODS_SQL =
+      "SELECT oi.food_id, COUNT(DISTINCT o.id) AS times_ordered "
+          + "FROM orders o "
+          + "JOIN users u ON u.id = o.user_id "
+          + "JOIN order_items oi ON oi.order_id = o.id "
+          + "WHERE u.username = :username AND o.status <> :cancelled "
+          + "GROUP BY oi.food_id";
+
+  private static final String RATED_FOODS_SQL =
+      "SELECT r.food_id, r.score FROM ratings r JOIN users u ON u.id = r.user_id "
+          + "WHERE u.username = :username";
+
+  private static final String USERS_WITH_HISTORY_SQL =
+      "SELECT u.username FROM users u "
+          + "WHERE EXISTS (SELECT 1 FROM orders o WHERE o.user_id = u.id) "
+          + "OR EXISTS (SELECT 1 FROM ratings r WHERE r.user_id = u.id) "
+          + "ORDER BY u.id";
+
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+  private final UserRecommendations userRecommendations;
+  private final FoodLeaderboard foodLeaderboard;
+  private final FoodService foodService;
+
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public List<FoodResponseDto> getRecommendationsForUser(String username, Integer limit) {
+    int maxResults = limit == null ? DEFAULT_LIMIT : limit;
+    if (maxResults < 1 || maxResults > MAX_LIMIT) {
+      throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+    }
+    List<Long> ids = userRecommendations.get(username, maxResults * OVERFETCH_FACTOR);
+    if (ids.isEmpty()) {
+      ids = new ArrayList<>(mostOrdered(null, maxResults * OVERFETCH_FACTOR).keySet());
+    }
+    return foodService.getFoodsByIds(ids).stream()
+        .filter(food -> ACTIVE.equals(food.getStatus()))
+        .limit(maxResults)
+        .toList();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void refreshRecommendations(String username) {
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("username", username)
+            .addValue("cancelled", OrderStatus.CANCELLED.name());
+    Map<Long, Long> timesOrdered = new HashMap<>();
+    namedParameterJdbcTemplate.query(
+        ORDERED_FOODS_SQL,
+        params,
+        rs -> {
+          timesOrdered.put(rs.getLong("food_id"), rs.getLong("times_ordered"));
+        });
+    Map<Long, Integer> ratings = new HashMap<>();
+    namedParameterJdbcTemplate.query(
+        RATED_FOODS_SQL,
+        params,
+        rs -> {
+          ratings.put(rs.getLong("food_id"), rs.getInt("score"));
+        });
+
+    Set<Long> historyIds = new LinkedHashSet<>(timesOrdered.keySet());
+    historyIds.addAll(ratings.keySet());
+    Map<Long, String> categories =
+        foodService.getFoodsByIds(new ArrayList<>(historyIds)).stream()
+            .filter(food -> food.getCategory() != null)
+            .collect(Collectors.toMap(FoodResponseDto::getId, FoodResponseDto::getCategory));
+    Map<String, Double> affinity = categoryAffinity(timesOrdered, ratings, categories);
+
+    Set<Long> candidates = new LinkedHashSet<>(timesOrdered.keySet());
+    candidates.addAll(mostOrdered(null, POPULAR_CANDIDATES).keySet());
+    affinity.entrySet().stream()
+        .filter(entry -> entry.getValue() > 0)
+        .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+        .limit(FAVOURITE_CATEGORIES)
+        .forEach(
+            entry -> candidates.addAll(mostOrdered(entry.getKey(), CATEGORY_CANDIDATES).keySet()));
+
+    List<FoodResponseDto> foods = foodService.getFoodsByIds(new ArrayList<>(candidates));
+    long maxTimesOrdered =
+        timesOrdered.values().stream().mapToLong(Long::longValue).max().orElse(1);
+    double maxPopularity =
+        foods.stream().mapToDouble(RecommendationServiceImpl::popularity).max().orElse(0);
+    Map<Long, Double> scores = new HashMap<>();
+    for (FoodResponseDto food : foods) {
+      Integer rating = ratings.get(food.getId());
+      if (!ACTIVE.equals(food.getStatus()) || (rating != null && rating <= DISLIKED_SCORE)) {
+        continue;
+      }
+      double reorder = timesOrdered.getOrDefault(food.getId(), 0L) / (double) maxTimesOrdered;
+      double category = affinity.getOrDefault(food.getCategory(), 0.0);
+      double popularity = maxPopularity == 0 ? 0 : popularity(food) / maxPopularity;
+      scores.put(
+          food.getId(),
+          REORDER_WEIGHT * reorder + CATEGORY_WEIGHT * category + POPULARITY_WEIGHT * popularity);
+    }
+
+    List<Long> ranked =
+        scores.entrySet().stream()
+            .sorted(
+                Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()))
+            .map(Map.Entry::getKey)
+            .toList();
+    userRecommendations.store(username, ranked);
+    log.debug("Refreshed {} recommendations for user {}", ranked.size(), username);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<String> findUsernamesWithHistory() {
+    return namedParameterJdbcTemplate.queryForList(
+        USERS_WITH_HISTORY_SQL, new MapSqlParameterSource(), String.class);
+  }
+
+  private Map<Long, Long> mostOrdered(String category, int limit) {
+    return foodLeaderboard.top(LeaderboardMetric.ORDERS, LeaderboardWindow.ALL, category, limit);
+  }
+
+  /** Category affinity in [-1, 1]: order share and mean rating of the user, equally weighted. */
+  private static Map<String, Double> categoryAffinity(
+      Map<Long, Long> timesOrdered, Map<Long, Integer> ratings, Map<Long, String> categories) {
+    long totalOrdered = timesOrdered.values().stream().mapToLong(Long::longValue).sum();
+    Map<String, Double> affinity = new HashMap<>();
+    timesOrdered.forEach(
+        (foodId, times) -> {
+          String category = categories.get(foodId);
+          if (category != null) {
+            affinity.merge(category, 0.5 * times / totalOrdered, Double::sum);
+          }
+        });
+    Map<String, List<Integer>> ratingsByCategory =
+        ratings.entrySet().stream()
+            .filter(entry -> categories.get(entry.getKey()) != null)
+            .collect(
+                Collectors.groupingBy(
+                    entry -> categories.get(entry.getKey()),
+                    Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+    ratingsByCategory.forEach(
+        (category, scores) -> {
+          double meanRating = scores.stream().mapToInt(Integer::intValue).average().orElse(3);
+          affinity.merge(category, 0.5 * (meanRating - 3) / 2, Double::sum);
+        });
+    return affinity;
+  }
+
+  private static double popularity(FoodResponseDto food) {
+    return food.getOrderCount() == null ? 0 : Math.log1p(food.getOrderCount());
+  }
+}
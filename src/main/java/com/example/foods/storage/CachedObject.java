@@ -0,0 +1,102 @@
+package com.example.foods.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.Instant;
+
+/**
+ * A byte range of an {@link ImageDiskCache} entry opened for reading. {@link #writeTo} hands the
+ * range to the output with {@link FileChannel#transferTo}, so the bytes are never copied into a
+ * heap buffer of the file's size.
+ */
+class CachedObject extends StoredObject {
+
+  private final FileChannel channel;
+  private final long position;
+
+  CachedObject(
+      FileChannel channel,
+      long position,
+      long length,
+      String contentType,
+      String contentRange,
+      String eTag,
+      Instant lastModified) {
+    super(
+        new RangeInputStream(channel, position, length),
+        contentType,
+        length,
+        contentRange,
+        eTag,
+        lastModified);
+    this.channel = channel;
+    this.position = position;
+  }
+
+  @Override
+  public void writeTo(OutputStream out) throws IOException {
+    try {
+      WritableByteChannel target = Channels.newChannel(out);
+      long sent = 0;
+      while (sent < getContentLength()) {
+        long transferred = channel.transferTo(position + sent, getContentLength() - sent, target);
+        if (transferred <= 0) {
+          throw new EOFException("Image cache entry ended early");
+        }
+        sent += transferred;
+      }
+      out.flush();
+    } finally {
+      close();
+    }
+  }
+
+  /** Reads {@code length} bytes from {@code position} without moving the channel's position. */
+  private static final class RangeInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private long position;
+    private long remaining;
+
+    private RangeInputStream(FileChannel channel, long position, long length) {
+      this.channel = channel;
+      this.position = position;
+      this.remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] single = new byte[1];
+      return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      if (length == 0) {
+        return 0;
+      }
+      if (remaining <= 0) {
+        return -1;
+      }
+      int count = (int) Math.min(length, remaining);
+      int read = channel.read(ByteBuffer.wrap(buffer, offset, count), position);
+      if (read == -1) {
+        throw new EOFException("Image cache entry ended early");
+      }
+      position += read;
+      remaining -= read;
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package com.example.foods.storage;
+
+import com.example.foods.constant.ImageSize;
+import com.example.foods.service.FileStorageService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Downscaled renditions of food images: a thumbnail for cards and lists and a medium size for
+ * detail pages, generated once after upload so listings never download full-size photos.
+ *
+ * <p>Renditions are JPEG files stored under {@code derivatives/<size>/<original key>.jpg}. Their
+ * keys are recorded on the {@code food_images} row once all sizes exist, and the image endpoint
+ * finds them through an in-heap lookup of those columns. A node's own generations evict the lookup;
+ * other nodes serve the original until their entry expires.
+ */
+@Component
+@Slf4j
+public class ImageDerivatives {
+
+  /** Format of every rendition. */
+  public static final MediaType CONTENT_TYPE = MediaType.IMAGE_JPEG;
+
+  private static final String KEY_PREFIX = "derivatives/";
+  private static final String KEY_SUFFIX = ".jpg";
+
+  private static final String LOOKUP_SQL =
+      "SELECT thumbnail_url, medium_url FROM food_images WHERE image_url = :imageUrl "
+          + "ORDER BY id LIMIT 1";
+
+  private final FileStorageService fileStorageService;
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final float jpegQuality;
+  private final LoadingCache<String, Map<ImageSize, String>> byImage;
+
+  public ImageDerivatives(
+      FileStorageService fileStorageService,
+      NamedParameterJdbcTemplate jdbcTemplate,
+      @Value("${app.image-derivatives.jpeg-quality:0.8}") float jpegQuality,
+      @Value("${app.image-derivatives.lookup-cache-max-size:10000}") long lookupCacheMaxSize,
+      @Value("${app.image-derivatives.lookup-cache-ttl:PT5M}") Duration lookupCacheTtl) {
+    this.fileStorageService = fileStorageService;
+    this.jdbcTemplate = jdbcTemplate;
+    this.jpegQuality = jpegQuality;
+    this.byImage =
+        Caffeine.newBuilder()
+            .maximumSize(lookupCacheMaxSize)
+            .expireAfterWrite(lookupCacheTtl)
+            .build(this::load);
+  }
+
+  /**
+   * Renders and stores every size of {@code imageKey}. Returns the stored keys by size, or an empty
+   * map when the original is not in a format the JDK can decode.
+   */
+  public Map<ImageSize, String> generate(String imageKey) {
+    BufferedImage original;
+    try (StoredObject stored = fileStorageService.openFile(imageKey, null)) {
+      original = decode(stored);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read image " + imageKey, e);
+    }
+    if (original == null) {
+      log.warn("Skipping renditions of image {}: unsupported format", imageKey);
+      return Map.of();
+    }
+    Map<ImageSize, String> keys = new EnumMap<>(ImageSize.class);
+    for (ImageSize size : ImageSize.values()) {
+      String key = derivativeKey(imageKey, size);
+      fileStorageService.storeFile(key, encode(scale(original, size.getMaxDimension())));
+      keys.put(size, key);
+    }
+    log.info("Generated renditions of image {}: {}", imageKey, keys.values());
+    return keys;
+  }
+
+  /** Key of the {@code size} rendition of {@code imageKey}, or empty if none is recorded. */
+  public Optional<String> find(String imageKey, ImageSize size) {
+    return Optional.ofNullable(byImage.get(imageKey).get(size));
+  }
+
+  /** Drops the cached lookups of {@code imageKeys}, e.g. after their renditions were recorded. */
+  public void evict(Collection<String> imageKeys) {
+    byImage.invalidateAll(imageKeys);
+  }
+
+  static String derivativeKey(String imageKey, ImageSize size) {
+    return KEY_PREFIX + size.getParameter() + "/" + imageKey + KEY_SUFFIX;
+  }
+
+  /**
+   * Scales {@code source} so its longest side is at most {@code maxDimension}, never enlarging it.
+   * Large reductions halve the image step by step first, so bilinear sampling does not skip pixels.
+   */
+  static BufferedImage scale(BufferedImage source, int maxDimension) {
+    double ratio =
+        Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+    int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+    int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+    BufferedImage current = source;
+    while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+      current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+    }
+    return draw(current, width, height);
+  }
+
+  private Map<ImageSize, String> load(String imageKey) {
+    List<Map<ImageSize, String>> rows =
+        jdbcTemplate.query(
+            LOOKUP_SQL,
+            new MapSqlParameterSource("imageUrl", imageKey),
+            (rs, rowNum) -> {
+              Map<ImageSize, String> keys = new EnumMap<>(ImageSize.class);
+              if (rs.getString("thumbnail_url") != null) {
+                keys.put(ImageSize.THUMBNAIL, rs.getString("thumbnail_url"));
+              }
+              if (rs.getString("medium_url") != null) {
+                keys.put(ImageSize.MEDIUM, rs.getString("medium_url"));
+              }
+              return keys;
+            });
+    return rows.isEmpty() ? Map.of() : rows.get(0);
+  }
+
+  /**
+   * Decodes {@code stored}, subsampling while reading so a large photo is never held at full
+   * resolution: the result stays at least twice as large as the largest rendition.
+   */
+  private static BufferedImage decode(StoredObject stored) throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(stored.getContent())) {
+      if (input == null) {
+        return null;
+      }
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        return null;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+        int subsampling = Math.max(1, longest / (2 * largestDimension()));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private byte[] encode(BufferedImage image) {
+    ImageWriter writer = ImageIO.getImageWritersByMIMEType(CONTENT_TYPE.toString()).next();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(jpegQuality);
+      writer.setOutput(output);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to encode image rendition", e);
+    } finally {
+      writer.dispose();
+    }
+    return out.toByteArray();
+  }
+
+  private static BufferedImage draw(BufferedImage source, int width, int height) {
+    BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = target.createGraphics();
+    try {
+      // JPEG has no alpha channel, so transparent areas are flattened onto white.
+      graphics.setColor(Color.WHITE);
+      graphics.fillRect(0, 0, width, height);
+      graphics.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.drawImage(source, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    return target;
+  }
+
+  private static int largestDimension() {
+    int largest = 0;
+    for (ImageSize size : ImageSize.values()) {
+      largest = Math.max(largest, size.getMaxDimension());
+    }
+    return largest;
+  }
+}
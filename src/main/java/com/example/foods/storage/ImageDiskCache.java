@@ -0,0 +1,521 @@
+package com.example.foods.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Size-bounded local disk cache for objects read from storage, evicting the least recently used
+ * entries first. Keys are immutable once uploaded, so entries never need revalidating.
+ *
+ * <p>Each entry is a single file: a preamble with the SHA-256 of the body, a header with the
+ * object's key and metadata, then the body. An entry is written to a temporary file, forced to
+ * disk and renamed into place, so a crash leaves either a complete entry or a stray temporary
+ * file that the next start deletes. On start the index is rebuilt from the headers, oldest first;
+ * a body is checked against its checksum the first time it is served and dropped on mismatch.
+ *
+ * <p>Concurrent misses for the same key share one download. Objects over the entry size limit
+ * are streamed from storage as before.
+ */
+@Component
+@Slf4j
+public class ImageDiskCache {
+
+  private static final int MAGIC = 0x494d4743;
+  private static final int FORMAT_VERSION = 1;
+  private static final int CHECKSUM_LENGTH = 32;
+  private static final int CHECKSUM_OFFSET = 8;
+  private static final int PREAMBLE_LENGTH = CHECKSUM_OFFSET + CHECKSUM_LENGTH + 4;
+  private static final int MAX_HEADER_LENGTH = 64 * 1024;
+  private static final String ENTRY_SUFFIX = ".img";
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  private final boolean enabled;
+  private final Path directory;
+  private final long maxBytes;
+  private final long maxEntryBytes;
+
+  // Access-ordered, so iteration starts at the least recently used entry. Guarded by "this".
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalBytes;
+
+  private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter bypassed;
+  private final Counter bytesSaved;
+
+  public ImageDiskCache(
+      MeterRegistry meterRegistry,
+      @Value("${app.image-cache.enabled:true}") boolean enabled,
+      @Value("${app.image-cache.dir:${java.io.tmpdir}/image-cache}") Path directory,
+      @Value("${app.image-cache.max-size:1GB}") DataSize maxSize,
+      @Value("${app.image-cache.max-entry-size:10MB}") DataSize maxEntrySize) {
+    this.enabled = enabled;
+    this.directory = directory;
+    this.maxBytes = maxSize.toBytes();
+    this.maxEntryBytes = maxEntrySize.toBytes();
+    this.hits = meterRegistry.counter("image.cache.requests", "result", "hit");
+    this.misses = meterRegistry.counter("image.cache.requests", "result", "miss");
+    this.bypassed = meterRegistry.counter("image.cache.bypassed");
+    this.bytesSaved = meterRegistry.counter("image.cache.bytes.saved");
+    meterRegistry.gauge("image.cache.hit.ratio", this, ImageDiskCache::hitRatio);
+    meterRegistry.gauge("image.cache.size.bytes", this, ImageDiskCache::sizeBytes);
+    meterRegistry.gauge("image.cache.entries", this, ImageDiskCache::entryCount);
+  }
+
+  /**
+   * Opens {@code key}, or the given single {@code range} of it, from the cache. On a miss the whole
+   * object is first read into the cache through {@code storage}, called with a {@code null} range.
+   * Falls back to reading the range straight from {@code storage} if the object is not cacheable.
+   */
+  public StoredObject open(String key, String range, Function<String, StoredObject> storage) {
+    if (!enabled) {
+      return storage.apply(range);
+    }
+    StoredObject cached = openEntry(key, range);
+    if (cached != null) {
+      hits.increment();
+      bytesSaved.increment(cached.getContentLength());
+      return cached;
+    }
+    misses.increment();
+    if (fill(key, storage)) {
+      cached = openEntry(key, range);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    return storage.apply(range);
+  }
+
+  /** Drops {@code key}, e.g. after the object was deleted from storage. */
+  public void evict(String key) {
+    Entry removed;
+    synchronized (this) {
+      removed = entries.remove(key);
+      if (removed != null) {
+        totalBytes -= removed.fileLength();
+      }
+    }
+    if (removed != null) {
+      deleteQuietly(removed.path());
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      Files.createDirectories(directory);
+      List<Path> files;
+      try (Stream<Path> listing = Files.list(directory)) {
+        files = listing.toList();
+      }
+      files.stream().filter(path -> hasSuffix(path, TEMP_SUFFIX)).forEach(this::deleteQuietly);
+      files.stream()
+          .filter(path -> hasSuffix(path, ENTRY_SUFFIX))
+          .sorted(Comparator.comparing(ImageDiskCache::lastModified))
+          .forEach(this::loadEntry);
+      log.info("Loaded image cache with {} entries, {} bytes", entryCount(), sizeBytes());
+    } catch (IOException e) {
+      log.error("Failed to load image cache from {}", directory, e);
+    }
+  }
+
+  double hitRatio() {
+    double requests = hits.count() + misses.count();
+    return requests == 0 ? 0 : hits.count() / requests;
+  }
+
+  synchronized long sizeBytes() {
+    return totalBytes;
+  }
+
+  synchronized int entryCount() {
+    return entries.size();
+  }
+
+  private StoredObject openEntry(String key, String range) {
+    Entry entry;
+    synchronized (this) {
+      entry = entries.get(key);
+    }
+    if (entry == null) {
+      return null;
+    }
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(entry.path(), StandardOpenOption.READ);
+      if (!entry.verified()) {
+        if (!matchesChecksum(channel, entry)) {
+          log.warn("Dropping corrupt image cache entry for {}", key);
+          channel.close();
+          remove(entry);
+          return null;
+        }
+        markVerified(entry);
+      }
+      long start = 0;
+      long end = entry.length() - 1;
+      String contentRange = null;
+      if (range != null) {
+        try {
+          HttpRange requested = HttpRange.parseRanges(range).get(0);
+          start = requested.getRangeStart(entry.length());
+          end = requested.getRangeEnd(entry.length());
+        } catch (IllegalArgumentException e) {
+          channel.close();
+          throw new RangeNotSatisfiableException(key, entry.length());
+        }
+        contentRange = "bytes " + start + "-" + end + "/" + entry.length();
+      }
+      return new CachedObject(
+          channel,
+          entry.bodyOffset() + start,
+          end - start + 1,
+          entry.contentType(),
+          contentRange,
+          entry.eTag(),
+          entry.lastModified());
+    } catch (IOException e) {
+      log.warn("Failed to read image cache entry for {}", key, e);
+      closeQuietly(channel);
+      remove(entry);
+      return null;
+    }
+  }
+
+  private boolean fill(String key, Function<String, StoredObject> storage) {
+    CompletableFuture<Boolean> load = new CompletableFuture<>();
+    CompletableFuture<Boolean> existing = inFlight.putIfAbsent(key, load);
+    if (existing != null) {
+      return await(existing);
+    }
+    try {
+      boolean cached = download(key, storage);
+      load.complete(cached);
+      return cached;
+    } catch (RuntimeException e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, load);
+    }
+  }
+
+  private boolean download(String key, Function<String, StoredObject> storage) {
+    try (StoredObject object = storage.apply(null)) {
+      if (object.getContentLength() > maxEntryBytes) {
+        object.abort();
+        bypassed.increment();
+        return false;
+      }
+      Files.createDirectories(directory);
+      Path temp = Files.createTempFile(directory, "entry-", TEMP_SUFFIX);
+      try {
+        Entry entry = write(temp, key, object);
+        Path path = directory.resolve(fileName(key));
+        Files.move(
+            temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        put(entry.withPath(path));
+        return true;
+      } catch (IOException | RuntimeException e) {
+        deleteQuietly(temp);
+        throw e;
+      }
+    } catch (IOException e) {
+      log.warn("Failed to cache image {}", key, e);
+      return false;
+    }
+  }
+
+  private Entry write(Path temp, String key, StoredObject object) throws IOException {
+    byte[] header = header(key, object);
+    MessageDigest digest = sha256();
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+      ByteBuffer preamble =
+          ByteBuffer.allocate(PREAMBLE_LENGTH)
+              .putInt(MAGIC)
+              .putInt(FORMAT_VERSION)
+              .put(new byte[CHECKSUM_LENGTH])
+              .putInt(header.length)
+              .flip();
+      writeFully(channel, preamble);
+      writeFully(channel, ByteBuffer.wrap(header));
+      long length =
+          new DigestInputStream(object.getContent(), digest)
+              .transferTo(Channels.newOutputStream(channel));
+      if (length != object.getContentLength()) {
+        throw new EOFException("Expected " + object.getContentLength() + " bytes, got " + length);
+      }
+      byte[] checksum = digest.digest();
+      channel.write(ByteBuffer.wrap(checksum), CHECKSUM_OFFSET);
+      channel.force(true);
+      return new Entry(
+          key,
+          temp,
+          PREAMBLE_LENGTH + header.length,
+          length,
+          object.getContentType(),
+          object.getETag(),
+          object.getLastModified(),
+          checksum,
+          true);
+    }
+  }
+
+  private void loadEntry(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      Entry entry = readHeader(channel, path);
+      if (entry == null || channel.size() != entry.fileLength()) {
+        log.warn("Deleting incomplete image cache file {}", path);
+        deleteQuietly(path);
+        return;
+      }
+      synchronized (this) {
+        if (!entries.containsKey(entry.key())) {
+          put(entry);
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Deleting unreadable image cache file {}", path, e);
+      deleteQuietly(path);
+    }
+  }
+
+  private static Entry readHeader(FileChannel channel, Path path) throws IOException {
+    ByteBuffer preamble = readFully(channel, 0, PREAMBLE_LENGTH);
+    if (preamble.getInt() != MAGIC || preamble.getInt() != FORMAT_VERSION) {
+      return null;
+    }
+    byte[] checksum = new byte[CHECKSUM_LENGTH];
+    preamble.get(checksum);
+    int headerLength = preamble.getInt();
+    if (headerLength <= 0 || headerLength > MAX_HEADER_LENGTH) {
+      return null;
+    }
+    DataInputStream header =
+        new DataInputStream(
+            new ByteArrayInputStream(
+                readFully(channel, PREAMBLE_LENGTH, headerLength).array()));
+    String key = header.readUTF();
+    String contentType = header.readUTF();
+    String eTag = header.readUTF();
+    long lastModified = header.readLong();
+    long length = header.readLong();
+    return new Entry(
+        key,
+        path,
+        PREAMBLE_LENGTH + headerLength,
+        length,
+        contentType,
+        eTag.isEmpty() ? null : eTag,
+        lastModified < 0 ? null : Instant.ofEpochMilli(lastModified),
+        checksum,
+        false);
+  }
+
+  private static byte[] header(String key, StoredObject object) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream header = new DataOutputStream(bytes);
+    header.writeUTF(key);
+    header.writeUTF(object.getContentType());
+    header.writeUTF(object.getETag() == null ? "" : object.getETag());
+    header.writeLong(
+        object.getLastModified() == null ? -1 : object.getLastModified().toEpochMilli());
+    header.writeLong(object.getContentLength());
+    return bytes.toByteArray();
+  }
+
+  private static boolean matchesChecksum(FileChannel channel, Entry entry) throws IOException {
+    MessageDigest digest = sha256();
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    long position = entry.bodyOffset();
+    long end = entry.fileLength();
+    while (position < end) {
+      buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+      int read = channel.read(buffer, position);
+      if (read == -1) {
+        return false;
+      }
+      digest.update(buffer.flip());
+      position += read;
+    }
+    return MessageDigest.isEqual(digest.digest(), entry.checksum());
+  }
+
+  private void put(Entry entry) {
+    List<Entry> evicted = new ArrayList<>();
+    synchronized (this) {
+      Entry previous = entries.put(entry.key(), entry);
+      totalBytes += entry.fileLength() - (previous == null ? 0 : previous.fileLength());
+      Iterator<Entry> eldest = entries.values().iterator();
+      while (totalBytes > maxBytes && eldest.hasNext()) {
+        Entry candidate = eldest.next();
+        if (candidate == entry) {
+          continue;
+        }
+        eldest.remove();
+        totalBytes -= candidate.fileLength();
+        evicted.add(candidate);
+      }
+    }
+    evicted.forEach(candidate -> deleteQuietly(candidate.path()));
+  }
+
+  private void remove(Entry entry) {
+    boolean removed;
+    synchronized (this) {
+      removed = entries.remove(entry.key(), entry);
+      if (removed) {
+        totalBytes -= entry.fileLength();
+      }
+    }
+    if (removed) {
+      deleteQuietly(entry.path());
+    }
+  }
+
+  private synchronized void markVerified(Entry entry) {
+    entries.replace(entry.key(), entry, entry.asVerified());
+  }
+
+  private static String fileName(String key) {
+    return HexFormat.of().formatHex(sha256().digest(key.getBytes(StandardCharsets.UTF_8)))
+        + ENTRY_SUFFIX;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static ByteBuffer readFully(FileChannel channel, long position, int length)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) == -1) {
+        throw new EOFException("Image cache file is truncated");
+      }
+    }
+    return buffer.flip();
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private static boolean hasSuffix(Path path, String suffix) {
+    return path.getFileName().toString().endsWith(suffix);
+  }
+
+  private static FileTime lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  private void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.warn("Failed to delete image cache file {}", path, e);
+    }
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.debug("Failed to close image cache file", e);
+    }
+  }
+
+  private static boolean await(CompletableFuture<Boolean> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private record Entry(
+      String key,
+      Path path,
+      long bodyOffset,
+      long length,
+      String contentType,
+      String eTag,
+      Instant lastModified,
+      byte[] checksum,
+      boolean verified) {
+
+    long fileLength() {
+      return bodyOffset + length;
+    }
+
+    Entry withPath(Path newPath) {
+      return new Entry(
+          key, newPath, bodyOffset, length, contentType, eTag, lastModified, checksum, verified);
+    }
+
+    Entry asVerified() {
+      return new Entry(
+          key, path, bodyOffset, length, contentType, eTag, lastModified, checksum, true);
+    }
+  }
+}
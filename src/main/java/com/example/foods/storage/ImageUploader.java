@@ -0,0 +1,100 @@
+package com.example.foods.storage;
+
+import com.example.foods.service.FileStorageService;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Uploads the images of one request concurrently, so a create or update with several images takes
+ * about as long as its slowest upload instead of the sum of all of them. Uploads run on virtual
+ * threads, and a per-request limit keeps one request from opening more than a few storage
+ * connections at once.
+ *
+ * <p>All-or-nothing: when any upload fails the rest are still awaited, every image that did upload
+ * is deleted again and the first failure is rethrown.
+ */
+@Component
+@Slf4j
+public class ImageUploader {
+
+  private final FileStorageService fileStorageService;
+  private final int concurrency;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  public ImageUploader(
+      FileStorageService fileStorageService,
+      @Value("${app.image-upload.concurrency:4}") int concurrency) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("Image upload concurrency must be at least 1");
+    }
+    this.fileStorageService = fileStorageService;
+    this.concurrency = concurrency;
+  }
+
+  /** Uploads {@code files} and returns their storage keys in the same order. */
+  public List<String> uploadAll(List<MultipartFile> files) {
+    if (files == null || files.isEmpty()) {
+      return List.of();
+    }
+    Semaphore permits = new Semaphore(concurrency);
+    List<CompletableFuture<String>> uploads = new ArrayList<>(files.size());
+    for (MultipartFile file : files) {
+      uploads.add(CompletableFuture.supplyAsync(() -> upload(file, permits), executor));
+    }
+
+    List<String> keys = new ArrayList<>(files.size());
+    RuntimeException failure = null;
+    for (CompletableFuture<String> upload : uploads) {
+      try {
+        keys.add(upload.join());
+      } catch (CompletionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+      }
+    }
+    if (failure != null) {
+      log.error("Failed to upload images, cleaning up uploaded files: {}", keys);
+      deleteQuietly(keys);
+      throw failure;
+    }
+    log.info("Uploaded {} images", keys.size());
+    return keys;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  private String upload(MultipartFile file, Semaphore permits) {
+    permits.acquireUninterruptibly();
+    try {
+      return fileStorageService.uploadFile(file);
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void deleteQuietly(List<String> keys) {
+    keys.forEach(
+        key -> {
+          try {
+            fileStorageService.deleteFile(key);
+            log.info("Cleaned up orphaned file: {}", key);
+          } catch (Exception e) {
+            log.warn("Failed to cleanup orphaned file: {}", key, e);
+          }
+        });
+  }
+}
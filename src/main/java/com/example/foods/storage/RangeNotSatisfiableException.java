@@ -0,0 +1,15 @@
+package com.example.foods.storage;
+
+import lombok.Getter;
+
+/** Thrown when a requested byte range lies entirely outside the stored object. */
+@Getter
+public class RangeNotSatisfiableException extends RuntimeException {
+
+  private final long totalLength;
+
+  public RangeNotSatisfiableException(String key, long totalLength) {
+    super("Requested range not satisfiable for " + key + " of " + totalLength + " bytes");
+    this.totalLength = totalLength;
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.foods.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.http.Abortable;
+
+/**
+ * An object opened for reading from storage: its bytes as a stream plus the metadata needed to
+ * answer an HTTP request for it. Must be either written out with {@link #writeTo} or closed.
+ */
+@Getter
+@AllArgsConstructor
+@Slf4j
+public class StoredObject implements Closeable {
+
+  private final InputStream content;
+  private final String contentType;
+
+  /** Number of bytes in {@link #getContent()}, i.e. of the range when one was requested. */
+  private final long contentLength;
+
+  /** {@code Content-Range} of a partial read, e.g. {@code bytes 0-1023/4096}, else {@code null}. */
+  private final String contentRange;
+
+  private final String eTag;
+  private final Instant lastModified;
+
+  public boolean isPartial() {
+    return contentRange != null;
+  }
+
+  /**
+   * Copies the content to {@code out} through a small buffer and closes this object. If writing
+   * fails, usually because the client went away, the upstream read is aborted rather than drained.
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    boolean completed = false;
+    try {
+      content.transferTo(out);
+      completed = true;
+    } finally {
+      if (completed) {
+        close();
+      } else {
+        abort();
+      }
+    }
+  }
+
+  /** Stops reading and drops the upstream connection without consuming the remaining bytes. */
+  public void abort() {
+    if (content instanceof Abortable abortable) {
+      abortable.abort();
+    }
+    try {
+      content.close();
+    } catch (IOException e) {
+      log.debug("Failed to close aborted storage stream", e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    content.close();
+  }
+}
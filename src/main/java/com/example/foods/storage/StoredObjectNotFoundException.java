@@ -0,0 +1,9 @@
+package com.example.foods.storage;
+
+/** Thrown when a requested object does not exist in storage. */
+public class StoredObjectNotFoundException extends RuntimeException {
+
+  public StoredObjectNotFoundException(String key) {
+    super("File not found: " + key);
+  }
+}
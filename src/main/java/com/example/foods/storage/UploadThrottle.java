@@ -0,0 +1,72 @@
+package com.example.foods.storage;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Node-wide limit on uploads to object storage: at most {@code max-concurrent} at once, and at most
+ * {@code max-bytes-in-flight} of upload buffers across all of them. An upload blocks until both
+ * fit, so a burst of large uploads from many users queues instead of exhausting the heap. Both
+ * semaphores are fair, so a large upload is not starved by a stream of small ones.
+ */
+@Component
+public class UploadThrottle {
+
+  private final Semaphore uploads;
+  private final Semaphore kilobytes;
+  private final int maxKilobytes;
+
+  public UploadThrottle(
+      @Value("${app.storage.upload.max-concurrent:8}") int maxConcurrent,
+      @Value("${app.storage.upload.max-bytes-in-flight:64MB}") DataSize maxBytesInFlight) {
+    if (maxConcurrent < 1 || maxBytesInFlight.toKilobytes() < 1) {
+      throw new IllegalArgumentException("Upload limits must be positive");
+    }
+    this.uploads = new Semaphore(maxConcurrent, true);
+    this.maxKilobytes = (int) Math.min(Integer.MAX_VALUE, maxBytesInFlight.toKilobytes());
+    this.kilobytes = new Semaphore(maxKilobytes, true);
+  }
+
+  /**
+   * Waits until one more upload buffering up to {@code bytes} may start. Requests above the whole
+   * budget take all of it. Close the returned permit when the upload ends.
+   */
+  public Permit acquire(long bytes) {
+    int needed = (int) Math.min(maxKilobytes, Math.max(1, (bytes + 1023) / 1024));
+    try {
+      uploads.acquire();
+      try {
+        kilobytes.acquire(needed);
+      } catch (InterruptedException e) {
+        uploads.release();
+        throw e;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting to upload", e);
+    }
+    return new Permit(needed);
+  }
+
+  /** A started upload's share of the limits; closing it more than once is harmless. */
+  public final class Permit implements AutoCloseable {
+
+    private final int kilobytesHeld;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(int kilobytesHeld) {
+      this.kilobytesHeld = kilobytesHeld;
+    }
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        kilobytes.release(kilobytesHeld);
+        uploads.release();
+      }
+    }
+  }
+}
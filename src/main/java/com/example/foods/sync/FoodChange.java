@@ -0,0 +1,13 @@
+package com.example.foods.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Latest change recorded for one food in the change feed. */
+@Getter
+@AllArgsConstructor
+public class FoodChange {
+  private final Long foodId;
+  private final long seq;
+  private final boolean deleted;
+}
@@ -0,0 +1,96 @@
+package com.example.foods.sync;
+
+import com.example.foods.event.CatalogBatchChangedEvent;
+import com.example.foods.event.CatalogChangedEvent;
+import com.example.foods.event.OrderCreatedEvent;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Records every catalog write in the {@code food_changes} feed, inside the writing transaction, and
+ * reads the feed back for delta sync. Each food keeps one row with the sequence number of its
+ * latest change, so a client that fell far behind still receives at most one entry per food.
+ *
+ * <p>Sequence numbers must become visible in increasing order, or a client could advance past a
+ * number whose transaction commits later. Recording therefore takes a transaction-scoped advisory
+ * lock just before commit: catalog writers draw their numbers and commit one at a time, while the
+ * rest of each transaction still runs concurrently.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FoodChangeLog {
+
+  /** Advisory lock key serializing change recording; any constant unused elsewhere will do. */
+  private static final long COMMIT_ORDER_LOCK = 0x666f6f64L;
+
+  private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(:key)";
+
+  private static final String RECORD_SQL =
+      "INSERT INTO food_changes (food_id, seq, deleted, changed_at) "
+          + "VALUES (:foodId, nextval('food_change_seq'), :deleted, :now) "
+          + "ON CONFLICT (food_id) DO UPDATE SET seq = EXCLUDED.seq, "
+          + "deleted = EXCLUDED.deleted, changed_at = EXCLUDED.changed_at";
+
+  private static final String CHANGES_AFTER_SQL =
+      "SELECT food_id, seq, deleted FROM food_changes WHERE seq > :since ORDER BY seq LIMIT :limit";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onCatalogChanged(CatalogChangedEvent event) {
+    record(List.of(event.getFoodId()), event.isDeleted());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onCatalogBatchChanged(CatalogBatchChangedEvent event) {
+    record(event.getVersions().keySet(), false);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onOrderCreated(OrderCreatedEvent event) {
+    record(
+        event.getOrder().getItems().stream().map(item -> item.getFood().getId()).toList(), false);
+  }
+
+  /** Up to {@code limit} changes with a sequence number above {@code since}, oldest first. */
+  public List<FoodChange> findAfter(long since, int limit) {
+    return jdbcTemplate.query(
+        CHANGES_AFTER_SQL,
+        new MapSqlParameterSource().addValue("since", since).addValue("limit", limit),
+        (rs, rowNum) ->
+            new FoodChange(rs.getLong("food_id"), rs.getLong("seq"), rs.getBoolean("deleted")));
+  }
+
+  private void record(Collection<Long> foodIds, boolean deleted) {
+    if (foodIds.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.execute(
+        LOCK_SQL, new MapSqlParameterSource("key", COMMIT_ORDER_LOCK), PreparedStatement::execute);
+    LocalDateTime now = LocalDateTime.now();
+    SqlParameterSource[] params =
+        foodIds.stream()
+            .distinct()
+            .sorted()
+            .map(
+                foodId ->
+                    new MapSqlParameterSource()
+                        .addValue("foodId", foodId)
+                        .addValue("deleted", deleted)
+                        .addValue("now", now))
+            .toArray(SqlParameterSource[]::new);
+    jdbcTemplate.batchUpdate(RECORD_SQL, params);
+    log.debug("Recorded catalog changes for {} foods", params.length);
+  }
+}
@@ -0,0 +1,3 @@
+-- Case-insensitive name lookups: existsByNameIgnoreCase on create and the per-chunk duplicate
+-- check of the bulk catalog import.
+CREATE INDEX IF NOT EXISTS idx_foods_lower_name ON foods (LOWER(name));
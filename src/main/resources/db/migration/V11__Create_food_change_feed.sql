@@ -0,0 +1,17 @@
+-- Change feed for client delta sync: one row per food carrying the sequence number of its latest
+-- insert, update or delete. Deleted foods keep their row as a tombstone.
+CREATE SEQUENCE IF NOT EXISTS food_change_seq;
+
+CREATE TABLE IF NOT EXISTS food_changes (
+    food_id BIGINT PRIMARY KEY,
+    seq BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_food_changes_seq ON food_changes (seq);
+
+-- Existing foods enter the feed once, so a client syncing from 0 receives the whole catalog.
+INSERT INTO food_changes (food_id, seq)
+SELECT id, nextval('food_change_seq') FROM foods ORDER BY id
+ON CONFLICT (food_id) DO NOTHING;
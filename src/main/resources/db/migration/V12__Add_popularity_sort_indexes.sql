@@ -0,0 +1,10 @@
+-- "Most ordered", "most viewed" and "top rated" listing sorts. Like V7, each key is paired with id
+-- so keyset pages are index range scans; descending pages scan the same indexes backwards.
+ALTER TABLE foods ADD COLUMN IF NOT EXISTS rating_average DOUBLE PRECISION
+    GENERATED ALWAYS AS (
+        CASE WHEN rating_count = 0 THEN 0 ELSE rating_sum::double precision / rating_count END
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_foods_order_count_id ON foods(order_count, id);
+CREATE INDEX IF NOT EXISTS idx_foods_view_count_id ON foods(view_count, id);
+CREATE INDEX IF NOT EXISTS idx_foods_rating_average_id ON foods(rating_average, id);
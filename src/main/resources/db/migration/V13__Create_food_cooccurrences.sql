@@ -0,0 +1,24 @@
+-- "Frequently bought together": for every ordered pair of foods, the number of orders containing
+-- both. Both directions are stored so the top-N of a food is a single index range scan.
+CREATE TABLE IF NOT EXISTS food_cooccurrences (
+    food_id BIGINT NOT NULL,
+    other_food_id BIGINT NOT NULL,
+    order_count BIGINT NOT NULL,
+    PRIMARY KEY (food_id, other_food_id),
+    CONSTRAINT fk_food_cooccurrences_food FOREIGN KEY (food_id) REFERENCES foods(id) ON DELETE CASCADE,
+    CONSTRAINT fk_food_cooccurrences_other_food
+        FOREIGN KEY (other_food_id) REFERENCES foods(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_food_cooccurrences_top
+    ON food_cooccurrences (food_id, order_count DESC, other_food_id);
+CREATE INDEX IF NOT EXISTS idx_food_cooccurrences_other_food_id
+    ON food_cooccurrences (other_food_id);
+
+-- Existing order history enters the model once; later orders are added as they commit.
+INSERT INTO food_cooccurrences (food_id, other_food_id, order_count)
+SELECT a.food_id, b.food_id, COUNT(DISTINCT a.order_id)
+FROM order_items a
+JOIN order_items b ON b.order_id = a.order_id AND b.food_id <> a.food_id
+GROUP BY a.food_id, b.food_id
+ON CONFLICT (food_id, other_food_id) DO NOTHING;
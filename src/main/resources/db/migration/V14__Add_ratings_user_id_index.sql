@@ -0,0 +1,2 @@
+-- Per-user recommendations read a user's ratings back by user.
+CREATE INDEX IF NOT EXISTS idx_ratings_user_id ON ratings (user_id);
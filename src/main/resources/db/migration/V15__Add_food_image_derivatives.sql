@@ -0,0 +1,6 @@
+-- Keys of the downscaled renditions generated after upload; NULL until generation finishes.
+ALTER TABLE food_images ADD COLUMN IF NOT EXISTS thumbnail_url VARCHAR(500);
+ALTER TABLE food_images ADD COLUMN IF NOT EXISTS medium_url VARCHAR(500);
+
+-- The image endpoint looks renditions up by the original's key.
+CREATE INDEX IF NOT EXISTS idx_food_images_image_url ON food_images(image_url);
@@ -0,0 +1,5 @@
+-- Composite indexes backing keyset pagination of the catalog listing.
+-- Each sort key is paired with id so (value, id) is unique and the next page is an index range scan.
+CREATE INDEX IF NOT EXISTS idx_foods_name_id ON foods(name, id);
+CREATE INDEX IF NOT EXISTS idx_foods_price_id ON foods(price, id);
+CREATE INDEX IF NOT EXISTS idx_foods_created_at_id ON foods(created_at, id);
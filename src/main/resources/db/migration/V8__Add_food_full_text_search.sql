@@ -0,0 +1,14 @@
+-- Ranked, typo-tolerant catalog search.
+-- search_vector weights name above category above description; pg_trgm covers misspellings and
+-- partial words that the full-text parser cannot match.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE foods ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(category, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_foods_search_vector ON foods USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_foods_name_trgm ON foods USING GIN (name gin_trgm_ops);
@@ -0,0 +1,32 @@
+-- Rating aggregates kept on the food row so catalog reads need no GROUP BY over ratings.
+-- Maintained incrementally by RatingServiceImpl.submitRating; RatingAggregateRepairScheduler
+-- recomputes them from the ratings table.
+ALTER TABLE foods ADD COLUMN rating_sum BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE foods ADD COLUMN rating_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE foods ADD COLUMN rating_1_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE foods ADD COLUMN rating_2_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE foods ADD COLUMN rating_3_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE foods ADD COLUMN rating_4_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE foods ADD COLUMN rating_5_count BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE foods f
+SET rating_sum = s.rating_sum,
+    rating_count = s.rating_count,
+    rating_1_count = s.rating_1_count,
+    rating_2_count = s.rating_2_count,
+    rating_3_count = s.rating_3_count,
+    rating_4_count = s.rating_4_count,
+    rating_5_count = s.rating_5_count
+FROM (
+    SELECT food_id,
+           SUM(score) AS rating_sum,
+           COUNT(*) AS rating_count,
+           COUNT(*) FILTER (WHERE score = 1) AS rating_1_count,
+           COUNT(*) FILTER (WHERE score = 2) AS rating_2_count,
+           COUNT(*) FILTER (WHERE score = 3) AS rating_3_count,
+           COUNT(*) FILTER (WHERE score = 4) AS rating_4_count,
+           COUNT(*) FILTER (WHERE score = 5) AS rating_5_count
+    FROM ratings
+    GROUP BY food_id
+) s
+WHERE s.food_id = f.id;
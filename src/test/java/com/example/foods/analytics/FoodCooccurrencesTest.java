@@ -0,0 +1,92 @@
+package com.example.foods.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+@ExtendWith(MockitoExtension.class)
+class FoodCooccurrencesTest {
+
+  @Mock private NamedParameterJdbcTemplate jdbcTemplate;
+
+  private FoodCooccurrences foodCooccurrences;
+
+  @BeforeEach
+  void setUp() {
+    foodCooccurrences = new FoodCooccurrences(jdbcTemplate, 20, 100, Duration.ofMinutes(10));
+  }
+
+  @Test
+  void recordOrder_ShouldUpsertBothDirectionsOfEveryDistinctPair_InKeyOrder() {
+    // When
+    foodCooccurrences.recordOrder(List.of(7L, 3L, 7L, 5L));
+
+    // Then
+    verify(jdbcTemplate)
+        .batchUpdate(
+            anyString(),
+            argThat(
+                (SqlParameterSource[] params) ->
+                    List.of(params).stream()
+                        .map(p -> p.getValue("foodId") + "-" + p.getValue("otherFoodId"))
+                        .toList()
+                        .equals(List.of("3-5", "3-7", "5-3", "5-7", "7-3", "7-5"))));
+  }
+
+  @Test
+  void recordOrder_ShouldSkipOrdersWithASingleFood() {
+    // When
+    foodCooccurrences.recordOrder(List.of(4L, 4L));
+
+    // Then
+    verifyNoInteractions(jdbcTemplate);
+  }
+
+  @Test
+  void related_ShouldSumCountsAcrossFoods_ExcludingGivenFoods_AndCacheTopLists() {
+    // Given
+    Map<Long, Map<Long, Long>> tops =
+        Map.of(
+            1L, Map.of(2L, 10L, 3L, 6L, 4L, 1L),
+            2L, Map.of(1L, 10L, 3L, 5L, 5L, 8L));
+    doAnswer(
+            invocation -> {
+              SqlParameterSource params = invocation.getArgument(1);
+              RowCallbackHandler handler = invocation.getArgument(2);
+              for (Map.Entry<Long, Long> entry :
+                  tops.get((Long) params.getValue("foodId")).entrySet()) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("other_food_id")).thenReturn(entry.getKey());
+                when(rs.getLong("order_count")).thenReturn(entry.getValue());
+                handler.processRow(rs);
+              }
+              return null;
+            })
+        .when(jdbcTemplate)
+        .query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+    // When
+    Map<Long, Long> related = foodCooccurrences.related(List.of(1L, 2L), 2);
+    foodCooccurrences.related(List.of(1L, 2L), 2);
+
+    // Then
+    assertThat(related).containsExactly(Map.entry(3L, 11L), Map.entry(5L, 8L));
+    verify(jdbcTemplate, times(2))
+        .query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.foods.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Clock;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class TrendingFoodsTest {
+
+  private static final double HOUR = 3600;
+
+  private final TrendingFoods trendingFoods =
+      new TrendingFoods(null, Duration.ofHours(1), 5, 1, 1000, Clock.systemUTC());
+
+  @Test
+  void currentScore_ShouldHalveEveryHalfLife() {
+    // Given an event worth 1 recorded two half-lives after the landmark, stored as 1 * 2^2
+    double landmark = 1_000_000;
+    double stored = 4;
+
+    // When & Then
+    assertThat(trendingFoods.currentScore(stored, landmark, landmark + 2 * HOUR))
+        .isCloseTo(1.0, within(1e-9));
+    assertThat(trendingFoods.currentScore(stored, landmark, landmark + 3 * HOUR))
+        .isCloseTo(0.5, within(1e-9));
+  }
+
+  @Test
+  void currentScore_ShouldKeepRankingOrder_ForAnyReadTime() {
+    // Given an older burst and a newer single event, both stored relative to the same landmark
+    double landmark = 0;
+    double olderBurst = 3 * Math.pow(2, 1);
+    double newerEvent = 1 * Math.pow(2, 3);
+
+    // When & Then
+    for (double now : new double[] {3 * HOUR, 10 * HOUR, 100 * HOUR}) {
+      assertThat(trendingFoods.currentScore(newerEvent, landmark, now))
+          .isGreaterThan(trendingFoods.currentScore(olderBurst, landmark, now));
+    }
+  }
+
+  @Test
+  void constructor_ShouldRejectNonPositiveHalfLife() {
+    assertThatThrownBy(() -> new TrendingFoods(null, Duration.ZERO, 5, 1, 1000, Clock.systemUTC()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.foods.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CatalogImportProcessorTest {
+
+  private final CatalogImportProcessor processor = new CatalogImportProcessor();
+
+  @Test
+  void process_ShouldTrimFields_AndDefaultQuantity() {
+    // When
+    CatalogImportRow result = processor.process(row("  Pho ", 8.5));
+
+    // Then
+    assertThat(result.getName()).isEqualTo("Pho");
+    assertThat(result.getCategory()).isEqualTo("Soup");
+    assertThat(result.getQuantity()).isZero();
+  }
+
+  @Test
+  void process_ShouldRejectZeroPrice() {
+    assertThatThrownBy(() -> processor.process(row("Pho", 0.0)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Price must be positive");
+  }
+
+  private static CatalogImportRow row(String name, Double price) {
+    return CatalogImportRow.builder()
+        .name(name)
+        .category(" Soup ")
+        .price(price)
+        .imageNames(List.of())
+        .build();
+  }
+}
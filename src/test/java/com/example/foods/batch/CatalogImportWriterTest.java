@@ -0,0 +1,187 @@
+package com.example.foods.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.foods.event.CatalogBatchChangedEvent;
+import com.example.foods.event.FoodImagesUploadedEvent;
+import com.example.foods.service.FileStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImportWriterTest {
+
+  @Mock private NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Mock private FileStorageService fileStorageService;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @TempDir private Path tempDir;
+
+  private CatalogImportWriter writer;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Path archive = tempDir.resolve("images.zip");
+    try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+      writeEntry(zip, "tacos.jpg");
+      writeEntry(zip, "ramen/front.jpg");
+    }
+    writer =
+        new CatalogImportWriter(
+            jdbcTemplate,
+            fileStorageService,
+            eventPublisher,
+            new SimpleMeterRegistry(),
+            archive,
+            2);
+    writer.open(new ExecutionContext());
+  }
+
+  @AfterEach
+  void tearDown() {
+    writer.close();
+  }
+
+  @Test
+  void write_ShouldDropExistingAndRepeatedNames_AndInsertInBatches() {
+    // Given
+    when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+        .thenReturn(List.of("pizza"));
+    when(fileStorageService.uploadFile(anyString(), any(InputStream.class), anyLong()))
+        .thenAnswer(invocation -> "key_" + invocation.getArgument(0));
+    doAnswer(
+            invocation -> {
+              GeneratedKeyHolder keys = invocation.getArgument(2);
+              keys.getKeyList().add(Map.of("id", 11L));
+              keys.getKeyList().add(Map.of("id", 12L));
+              return new int[] {1, 1};
+            })
+        .when(jdbcTemplate)
+        .batchUpdate(anyString(), any(SqlParameterSource[].class), any(), any(String[].class));
+
+    // When
+    writer.write(
+        new Chunk<>(
+            List.of(
+                row("Pizza"),
+                row("Ramen", "ramen/front.jpg"),
+                row("RAMEN"),
+                row("Tacos", "tacos.jpg"))));
+
+    // Then
+    ArgumentCaptor<SqlParameterSource[]> foods =
+        ArgumentCaptor.forClass(SqlParameterSource[].class);
+    verify(jdbcTemplate).batchUpdate(anyString(), foods.capture(), any(), any(String[].class));
+    assertThat(foods.getValue())
+        .extracting(params -> params.getValue("name"))
+        .containsExactly("Ramen", "Tacos");
+
+    ArgumentCaptor<SqlParameterSource[]> images =
+        ArgumentCaptor.forClass(SqlParameterSource[].class);
+    verify(jdbcTemplate).batchUpdate(anyString(), images.capture());
+    assertThat(images.getValue())
+        .extracting(params -> params.getValue("foodId"), params -> params.getValue("imageUrl"))
+        .containsExactly(tuple(11L, "key_front.jpg"), tuple(12L, "key_tacos.jpg"));
+
+    ArgumentCaptor<ApplicationEvent> events = ArgumentCaptor.forClass(ApplicationEvent.class);
+    verify(eventPublisher, times(3)).publishEvent(events.capture());
+    assertThat(events.getAllValues().get(0))
+        .isInstanceOfSatisfying(
+            CatalogBatchChangedEvent.class,
+            event -> assertThat(event.getVersions()).containsOnlyKeys(11L, 12L));
+    assertThat(events.getAllValues().subList(1, 3))
+        .map(FoodImagesUploadedEvent.class::cast)
+        .extracting(FoodImagesUploadedEvent::getFoodId, FoodImagesUploadedEvent::getImageKeys)
+        .containsExactly(
+            tuple(11L, List.of("key_front.jpg")), tuple(12L, List.of("key_tacos.jpg")));
+  }
+
+  @Test
+  void write_ShouldNotRequestRenditions_ForFoodsWithoutImages() {
+    // Given
+    when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+        .thenReturn(List.of());
+    doAnswer(
+            invocation -> {
+              GeneratedKeyHolder keys = invocation.getArgument(2);
+              keys.getKeyList().add(Map.of("id", 21L));
+              return new int[] {1};
+            })
+        .when(jdbcTemplate)
+        .batchUpdate(anyString(), any(SqlParameterSource[].class), any(), any(String[].class));
+
+    // When
+    writer.write(new Chunk<>(List.of(row("Soup"))));
+
+    // Then
+    verify(eventPublisher).publishEvent(any(CatalogBatchChangedEvent.class));
+    verify(eventPublisher, never()).publishEvent(any(FoodImagesUploadedEvent.class));
+  }
+
+  @Test
+  void write_ShouldDeleteUploadedImages_WhenAnImageIsMissing() {
+    // Given
+    when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+        .thenReturn(List.of());
+    when(fileStorageService.uploadFile(anyString(), any(InputStream.class), anyLong()))
+        .thenReturn("uploaded-key");
+
+    // When & Then
+    assertThatThrownBy(
+            () -> writer.write(new Chunk<>(List.of(row("Tacos", "tacos.jpg", "missing.jpg")))))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("missing.jpg");
+
+    verify(fileStorageService).deleteFile("uploaded-key");
+    verify(jdbcTemplate, never())
+        .batchUpdate(anyString(), any(SqlParameterSource[].class), any(), any(String[].class));
+    verify(eventPublisher, never()).publishEvent(any(CatalogBatchChangedEvent.class));
+  }
+
+  private static CatalogImportRow row(String name, String... images) {
+    return CatalogImportRow.builder()
+        .name(name)
+        .category("Test")
+        .price(9.5)
+        .quantity(3)
+        .imageNames(List.of(images))
+        .build();
+  }
+
+  private static void writeEntry(ZipOutputStream zip, String name) throws IOException {
+    zip.putNextEntry(new ZipEntry(name));
+    zip.write(new byte[] {1, 2, 3});
+    zip.closeEntry();
+  }
+}
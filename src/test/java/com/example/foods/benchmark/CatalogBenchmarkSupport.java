@@ -0,0 +1,118 @@
+package com.example.foods.benchmark;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds a large synthetic catalog and times queries against it. Benchmarks need a schema created by
+ * Flyway (not Hibernate create-drop) and only run with {@code -Dbenchmark=true}, e.g.
+ *
+ * <pre>./mvnw test -Dtest='*BenchmarkTest' -Dbenchmark=true</pre>
+ */
+@Slf4j
+final class CatalogBenchmarkSupport {
+
+  static final int CATALOG_SIZE = Integer.getInteger("benchmark.rows", 100_000);
+  static final String NAME_PREFIX = "bench ";
+
+  private CatalogBenchmarkSupport() {}
+
+  static void seed(JdbcTemplate jdbcTemplate, int rows) {
+    cleanup(jdbcTemplate);
+    log.info("Seeding {} benchmark foods", rows);
+    jdbcTemplate.update(
+        "INSERT INTO foods (name, description, category, price, quantity, status, "
+            + "created_at, updated_at, version, view_count, order_count) "
+            + "SELECT '"
+            + NAME_PREFIX
+            + "' || (ARRAY['Margherita','Pepperoni','Spicy','Garlic','Teriyaki','Smoky',"
+            + "'Crispy','Creamy'])[1 + g % 8] || ' ' || (ARRAY['Pizza','Burger','Sushi','Tacos',"
+            + "'Ramen','Salad','Curry','Noodles','Pasta','Wrap'])[1 + (g / 8) % 10] || ' ' || g, "
+            + "'Benchmark dish ' || g || ' served with ' || (ARRAY['rice','fries','salad','bread',"
+            + "'soup'])[1 + g % 5], "
+            + "(ARRAY['Italian','American','Japanese','Mexican','Thai','Indian'])[1 + g % 6], "
+            + "round((5 + random() * 45)::numeric, 2), g % 50, "
+            + "CASE WHEN g % 10 = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END, "
+            + "now() - make_interval(secs => g), now(), 0, (g * 7) % 1000, (g * 13) % 500 "
+            + "FROM generate_series(1, ?) g",
+        rows);
+    jdbcTemplate.execute("ANALYZE foods");
+  }
+
+  /** Gives every benchmark food {@code perFood} images. */
+  static void seedImages(JdbcTemplate jdbcTemplate, int perFood) {
+    log.info("Seeding {} images per benchmark food", perFood);
+    jdbcTemplate.update(
+        "INSERT INTO food_images (image_url, food_id, created_at, updated_at) "
+            + "SELECT 'bench/' || f.id || '-' || n || '.jpg', f.id, now(), now() "
+            + "FROM foods f CROSS JOIN generate_series(1, ?) n WHERE f.name LIKE ?",
+        perFood,
+        NAME_PREFIX + "%");
+    jdbcTemplate.execute("ANALYZE food_images");
+  }
+
+  static void cleanup(JdbcTemplate jdbcTemplate) {
+    jdbcTemplate.update("DELETE FROM foods WHERE name LIKE ?", NAME_PREFIX + "%");
+  }
+
+  static Stats measure(String label, int warmup, int iterations, Runnable query) {
+    for (int i = 0; i < warmup; i++) {
+      query.run();
+    }
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long[] samples = new long[iterations];
+    long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+    for (int i = 0; i < iterations; i++) {
+      long start = System.nanoTime();
+      query.run();
+      samples[i] = System.nanoTime() - start;
+    }
+    long allocatedPerRun =
+        (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / iterations;
+    Arrays.sort(samples);
+    Stats stats =
+        new Stats(
+            label, samples[iterations / 2], samples[(int) (iterations * 0.95)], allocatedPerRun);
+    log.info(
+        "{}: median={} ms, p95={} ms, allocated={} KB/op",
+        label,
+        String.format("%.3f", stats.medianMillis()),
+        String.format("%.3f", stats.p95Millis()),
+        stats.allocatedBytes() / 1024);
+    return stats;
+  }
+
+  static final class Stats {
+    private final String label;
+    private final long medianNanos;
+    private final long p95Nanos;
+    private final long allocatedBytes;
+
+    Stats(String label, long medianNanos, long p95Nanos, long allocatedBytes) {
+      this.label = label;
+      this.medianNanos = medianNanos;
+      this.p95Nanos = p95Nanos;
+      this.allocatedBytes = allocatedBytes;
+    }
+
+    String label() {
+      return label;
+    }
+
+    double medianMillis() {
+      return medianNanos / 1_000_000.0;
+    }
+
+    double p95Millis() {
+      return p95Nanos / 1_000_000.0;
+    }
+
+    /** Heap allocated by the measuring thread per run, on average. */
+    long allocatedBytes() {
+      return allocatedBytes;
+    }
+  }
+}
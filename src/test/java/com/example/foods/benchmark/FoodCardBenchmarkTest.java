@@ -0,0 +1,82 @@
+package com.example.foods.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.foods.dto.response.CatalogItem;
+import com.example.foods.dto.response.FoodCardDto;
+import com.example.foods.dto.response.FoodPageResponseDto;
+import com.example.foods.dto.response.FoodResponseDto;
+import com.example.foods.service.FoodService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Compares the card projection with the entity path (ids, then join-fetched entities with all
+ * images, mapped to full DTOs) for the keyset-paginated listing.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.jpa.hibernate.ddl-auto=validate"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class FoodCardBenchmarkTest {
+
+  private static final int IMAGES_PER_FOOD = 4;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private FoodService foodService;
+
+  @BeforeAll
+  void seedCatalog() {
+    CatalogBenchmarkSupport.seed(jdbcTemplate, CatalogBenchmarkSupport.CATALOG_SIZE);
+    CatalogBenchmarkSupport.seedImages(jdbcTemplate, IMAGES_PER_FOOD);
+  }
+
+  @AfterAll
+  void cleanupCatalog() {
+    CatalogBenchmarkSupport.cleanup(jdbcTemplate);
+  }
+
+  @Test
+  void cardProjection_ShouldAllocateLessThanEntityPath() {
+    for (int size : new int[] {24, 100}) {
+      CatalogBenchmarkSupport.Stats entities =
+          CatalogBenchmarkSupport.measure(
+              "entities size=" + size,
+              10,
+              100,
+              () -> foodService.getFoodsPage(null, size, "name", "asc"));
+      CatalogBenchmarkSupport.Stats cards =
+          CatalogBenchmarkSupport.measure(
+              "cards size=" + size,
+              10,
+              100,
+              () -> foodService.getFoodCardsPage(null, size, "name", "asc"));
+      log.info(
+          "Page size {}: cards are {}x faster and allocate {}x less",
+          size,
+          String.format("%.1f", entities.medianMillis() / cards.medianMillis()),
+          String.format("%.1f", (double) entities.allocatedBytes() / cards.allocatedBytes()));
+      assertThat(cards.allocatedBytes()).isLessThan(entities.allocatedBytes());
+    }
+
+    // Both paths page identically.
+    FoodPageResponseDto<FoodResponseDto> full = foodService.getFoodsPage(null, 50, "price", "desc");
+    FoodPageResponseDto<FoodCardDto> slim = foodService.getFoodCardsPage(null, 50, "price", "desc");
+    assertThat(slim.getContent())
+        .extracting(CatalogItem::getId)
+        .containsExactlyElementsOf(full.getContent().stream().map(CatalogItem::getId).toList());
+    assertThat(slim.getNextCursor()).isEqualTo(full.getNextCursor());
+  }
+}
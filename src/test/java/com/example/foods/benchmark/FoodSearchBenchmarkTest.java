@@ -0,0 +1,70 @@
+package com.example.foods.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.foods.repository.FoodRepository;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/** Compares the ranked full-text/trigram search with the previous LIKE '%term%' scan. */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.jpa.hibernate.ddl-auto=validate"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class FoodSearchBenchmarkTest {
+
+  private static final String LEGACY_LIKE_QUERY =
+      "SELECT DISTINCT f.id FROM foods f LEFT JOIN food_images fi ON fi.food_id = f.id "
+          + "WHERE LOWER(f.name) LIKE LOWER(CONCAT('%', ?, '%'))";
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private FoodRepository foodRepository;
+
+  @BeforeAll
+  void seedCatalog() {
+    CatalogBenchmarkSupport.seed(jdbcTemplate, CatalogBenchmarkSupport.CATALOG_SIZE);
+  }
+
+  @AfterAll
+  void cleanupCatalog() {
+    CatalogBenchmarkSupport.cleanup(jdbcTemplate);
+  }
+
+  @Test
+  void rankedSearch_ShouldOutperformLikeScan() {
+    for (String term : List.of("pizza", "teriyaki ramen", "margerita")) {
+      CatalogBenchmarkSupport.Stats legacy =
+          CatalogBenchmarkSupport.measure(
+              "LIKE '" + term + "'",
+              5,
+              50,
+              () -> jdbcTemplate.queryForList(LEGACY_LIKE_QUERY, Long.class, term));
+      CatalogBenchmarkSupport.Stats ranked =
+          CatalogBenchmarkSupport.measure(
+              "ranked '" + term + "'",
+              5,
+              50,
+              () -> foodRepository.searchIdsByRelevance(term, 25, 0));
+      log.info(
+          "Search '{}' speedup: {}x",
+          term,
+          String.format("%.1f", legacy.medianMillis() / ranked.medianMillis()));
+    }
+
+    // Typo tolerance: the misspelled term still finds Margherita dishes.
+    assertThat(foodRepository.searchIdsByRelevance("margerita", 25, 0)).isNotEmpty();
+  }
+}
@@ -0,0 +1,124 @@
+package com.example.foods.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.foods.dto.response.CatalogItem;
+import com.example.foods.dto.response.FoodCardDto;
+import com.example.foods.dto.response.FoodPageResponseDto;
+import com.example.foods.service.FoodService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Checks that the popularity and rating sorts read their top page from the V12 indexes, and
+ * compares them with the same query forced into a full sort.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.jpa.hibernate.ddl-auto=validate"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class PopularitySortBenchmarkTest {
+
+  private static final int PAGE_SIZE = 24;
+
+  /** Sort parameter to sort column. */
+  private static final Map<String, String> SORTS =
+      Map.of(
+          "orderCount", "order_count", "viewCount", "view_count", "rating", "rating_average");
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private FoodService foodService;
+
+  @BeforeAll
+  void seedCatalog() {
+    CatalogBenchmarkSupport.seed(jdbcTemplate, CatalogBenchmarkSupport.CATALOG_SIZE);
+    jdbcTemplate.update(
+        "UPDATE foods SET rating_count = id % 40, rating_sum = (id % 40) * (1 + id % 5) "
+            + "WHERE name LIKE ?",
+        CatalogBenchmarkSupport.NAME_PREFIX + "%");
+    jdbcTemplate.execute("ANALYZE foods");
+  }
+
+  @AfterAll
+  void cleanupCatalog() {
+    CatalogBenchmarkSupport.cleanup(jdbcTemplate);
+  }
+
+  @Test
+  void popularitySorts_ShouldServeTopPageFromIndex() {
+    SORTS.forEach(
+        (sort, column) -> {
+          String plan =
+              String.join(
+                  "\n",
+                  jdbcTemplate.queryForList(
+                      "EXPLAIN SELECT id FROM foods ORDER BY "
+                          + column
+                          + " DESC, id DESC LIMIT "
+                          + (PAGE_SIZE + 1),
+                      String.class));
+          log.info("Plan for {}:\n{}", sort, plan);
+          assertThat(plan).contains("Index Scan Backward").doesNotContain("Sort");
+
+          CatalogBenchmarkSupport.Stats fullSort =
+              CatalogBenchmarkSupport.measure(
+                  "full sort " + sort,
+                  5,
+                  50,
+                  () ->
+                      jdbcTemplate.queryForList(
+                          "SELECT id FROM foods ORDER BY "
+                              + column
+                              + " + 0 DESC, id DESC LIMIT ?",
+                          Long.class,
+                          PAGE_SIZE + 1));
+          CatalogBenchmarkSupport.Stats indexed =
+              CatalogBenchmarkSupport.measure(
+                  "indexed " + sort,
+                  5,
+                  50,
+                  () -> foodService.getFoodCardsPage(null, PAGE_SIZE, sort, null));
+          log.info(
+              "Sort {}: indexed top page is {}x faster than a full sort",
+              sort,
+              String.format("%.1f", fullSort.medianMillis() / indexed.medianMillis()));
+          assertThat(indexed.medianMillis()).isLessThan(fullSort.medianMillis());
+        });
+  }
+
+  @Test
+  void popularitySorts_ShouldPageInSameOrderAsDatabase() {
+    SORTS.forEach(
+        (sort, column) -> {
+          List<Long> paged = new ArrayList<>();
+          String cursor = null;
+          for (int page = 0; page < 3; page++) {
+            FoodPageResponseDto<FoodCardDto> result =
+                foodService.getFoodCardsPage(cursor, PAGE_SIZE, sort, null);
+            result.getContent().stream().map(CatalogItem::getId).forEach(paged::add);
+            cursor = result.getNextCursor();
+          }
+          List<Long> expected =
+              jdbcTemplate.queryForList(
+                  "SELECT id FROM foods ORDER BY " + column + " DESC, id DESC LIMIT ?",
+                  Long.class,
+                  PAGE_SIZE * 3);
+          assertThat(paged).as(sort).containsExactlyElementsOf(expected);
+        });
+  }
+}
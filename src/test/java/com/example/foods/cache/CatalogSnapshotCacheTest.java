@@ -0,0 +1,105 @@
+package com.example.foods.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.foods.cache.CatalogSnapshot.RatingLevel;
+import com.example.foods.cache.CatalogSnapshot.StockLevel;
+import com.example.foods.dto.response.FoodResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotCacheTest {
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private CatalogSnapshotCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache =
+        new CatalogSnapshotCache(
+            transactionManager, new SimpleMeterRegistry(), Duration.ofMinutes(5));
+  }
+
+  @Test
+  void applyStock_ShouldPatchSnapshotInPlace_WithoutRebuild() {
+    // Given
+    CatalogSnapshot before = cache.getSnapshot(loader());
+
+    // When
+    cache.applyStock(Map.of(1L, new StockLevel(4L, 7)));
+    CatalogSnapshot after = cache.getSnapshot(loader());
+
+    // Then
+    assertThat(loads).hasValue(1);
+    assertThat(after.getFoodsById().get(1L).getQuantity()).isEqualTo(7);
+    assertThat(after.getFoodsById().get(1L).getVersion()).isEqualTo(4L);
+    assertThat(after.getFoodsById().get(2L)).isSameAs(before.getFoodsById().get(2L));
+    assertThat(after.getBuiltAt()).isEqualTo(before.getBuiltAt());
+    assertThat(after.getVersionStamp()).isNotEqualTo(before.getVersionStamp());
+  }
+
+  @Test
+  void applyStock_ShouldIgnoreLevels_OlderThanSnapshotRow() {
+    // Given
+    cache.getSnapshot(loader());
+
+    // When
+    cache.applyStock(Map.of(1L, new StockLevel(2L, 0)));
+
+    // Then
+    FoodResponseDto food = cache.peek().getFoodsById().get(1L);
+    assertThat(food.getQuantity()).isEqualTo(10);
+    assertThat(food.getVersion()).isEqualTo(3L);
+  }
+
+  @Test
+  void applyRatings_ShouldPatchRatingAggregates_WithoutRebuild() {
+    // Given
+    CatalogSnapshot before = cache.getSnapshot(loader());
+
+    // When
+    cache.applyRatings(Map.of(1L, new RatingLevel(3L, 2L, 4.5, List.of(0L, 0L, 0L, 1L, 1L))));
+    CatalogSnapshot after = cache.getSnapshot(loader());
+
+    // Then
+    assertThat(loads).hasValue(1);
+    FoodResponseDto food = after.getFoodsById().get(1L);
+    assertThat(food.getRatingCount()).isEqualTo(2L);
+    assertThat(food.getAverageRating()).isEqualTo(4.5);
+    assertThat(food.getRatingHistogram()).containsExactly(0L, 0L, 0L, 1L, 1L);
+    assertThat(food.getQuantity()).isEqualTo(10);
+    assertThat(after.getVersionStamp()).isNotEqualTo(before.getVersionStamp());
+  }
+
+  private Supplier<List<FoodResponseDto>> loader() {
+    return () -> {
+      loads.incrementAndGet();
+      return List.of(food(1L, "Pho", "Soup", 10, 3L), food(2L, "Banh Mi", "Bread", 5, 1L));
+    };
+  }
+
+  private static FoodResponseDto food(
+      Long id, String name, String category, int quantity, Long version) {
+    return FoodResponseDto.builder()
+        .id(id)
+        .name(name)
+        .category(category)
+        .quantity(quantity)
+        .version(version)
+        .build();
+  }
+}
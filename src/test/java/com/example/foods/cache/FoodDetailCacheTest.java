@@ -0,0 +1,154 @@
+package com.example.foods.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+import com.example.foods.dto.response.FoodResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import tools.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class FoodDetailCacheTest {
+
+  @Mock private StringRedisTemplate stringRedisTemplate;
+
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  @Mock private ObjectMapper objectMapper;
+
+  private FoodDetailCache cache;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    lenient().when(valueOperations.get(anyString())).thenReturn(null);
+    cache =
+        new FoodDetailCache(
+            stringRedisTemplate,
+            objectMapper,
+            new SimpleMeterRegistry(),
+            100,
+            Duration.ofMinutes(1),
+            Duration.ofMinutes(30));
+  }
+
+  @Test
+  void get_ShouldCoalesceConcurrentMisses_IntoSingleLoad() throws Exception {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    FoodResponseDto food = FoodResponseDto.builder().id(1L).name("Pizza").version(3L).build();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // When
+    List<Future<FoodResponseDto>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      results.add(
+          executor.submit(
+              () ->
+                  cache.get(
+                      1L,
+                      () -> {
+                        loads.incrementAndGet();
+                        awaitQuietly(release);
+                        return food;
+                      })));
+    }
+    Thread.sleep(100);
+    release.countDown();
+
+    // Then
+    for (Future<FoodResponseDto> result : results) {
+      assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(food);
+    }
+    assertThat(loads).hasValue(1);
+    executor.shutdownNow();
+  }
+
+  @Test
+  void get_ShouldServeFromL1_UntilEvicted() {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+    FoodResponseDto food = FoodResponseDto.builder().id(2L).version(1L).build();
+
+    // When
+    cache.get(2L, () -> countedLoad(loads, food));
+    cache.get(2L, () -> countedLoad(loads, food));
+    cache.evictLocal(2L);
+    cache.get(2L, () -> countedLoad(loads, food));
+
+    // Then
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void get_ShouldNotKeepLoadInL1_WhenEvictedWhileLoading() {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+    FoodResponseDto stale = FoodResponseDto.builder().id(4L).averageRating(3.0).build();
+    FoodResponseDto fresh = FoodResponseDto.builder().id(4L).averageRating(4.0).build();
+
+    // When
+    FoodResponseDto first =
+        cache.get(
+            4L,
+            () -> {
+              // A rating commits after the row was read but before the load finishes.
+              cache.evictLocal(4L);
+              return countedLoad(loads, stale);
+            });
+    FoodResponseDto second = cache.get(4L, () -> countedLoad(loads, fresh));
+
+    // Then
+    assertThat(first).isSameAs(stale);
+    assertThat(second).isSameAs(fresh);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void get_ShouldPropagateLoaderFailure_AndNotCacheIt() {
+    // When & Then
+    assertThatThrownBy(
+            () ->
+                cache.get(
+                    3L,
+                    () -> {
+                      throw new IllegalArgumentException("Food not found with ID: 3");
+                    }))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    FoodResponseDto food = FoodResponseDto.builder().id(3L).version(0L).build();
+    assertThat(cache.get(3L, () -> food)).isSameAs(food);
+  }
+
+  private static FoodResponseDto countedLoad(AtomicInteger loads, FoodResponseDto food) {
+    loads.incrementAndGet();
+    return food;
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.foods.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+class JsonArrayExporterTest {
+
+  @Mock private EntityManager entityManager;
+
+  private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+  private JsonArrayExporter exporter;
+
+  @BeforeEach
+  void setUp() {
+    exporter = new JsonArrayExporter(jsonMapper, entityManager);
+  }
+
+  @Test
+  void write_ShouldWriteJsonArrayChunkByChunk_AndClearPersistenceContext() {
+    // Given
+    List<Integer> chunkSizes = new ArrayList<>();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // When
+    long written =
+        exporter.write(
+            IntStream.range(0, 250).boxed(),
+            chunk -> {
+              chunkSizes.add(chunk.size());
+              return chunk.stream().map(i -> "food-" + i).toList();
+            },
+            out);
+
+    // Then
+    assertThat(written).isEqualTo(250);
+    assertThat(chunkSizes).containsExactly(100, 100, 50);
+    verify(entityManager, times(3)).clear();
+    List<?> json = jsonMapper.readValue(out.toByteArray(), List.class);
+    assertThat(json).hasSize(250).startsWith("food-0").endsWith("food-249");
+  }
+
+  @Test
+  void write_ShouldWriteEmptyArray_WhenThereAreNoRows() {
+    // Given
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // When
+    long written = exporter.write(Stream.<Integer>empty(), chunk -> chunk, out);
+
+    // Then
+    assertThat(written).isZero();
+    assertThat(out.toString()).isEqualTo("[]");
+    verifyNoInteractions(entityManager);
+  }
+
+  @Test
+  void write_ShouldStopReadingRows_WhenClientDisconnects() {
+    // Given
+    AtomicInteger read = new AtomicInteger();
+    Stream<Integer> rows = IntStream.range(0, 100_000).boxed().peek(i -> read.incrementAndGet());
+    OutputStream disconnected =
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            throw new IOException("Broken pipe");
+          }
+        };
+
+    // When & Then
+    assertThatThrownBy(() -> exporter.write(rows, chunk -> chunk, disconnected))
+        .hasRootCauseInstanceOf(IOException.class);
+    assertThat(read.get()).isEqualTo(JsonArrayExporter.CHUNK_SIZE);
+  }
+}
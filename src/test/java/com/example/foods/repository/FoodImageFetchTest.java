@@ -0,0 +1,104 @@
+package com.example.foods.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.foods.dto.response.FoodPageResponseDto;
+import com.example.foods.dto.response.FoodResponseDto;
+import com.example.foods.entity.Food;
+import com.example.foods.entity.FoodImage;
+import com.example.foods.service.FoodService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Counts the statements and rows behind food listings: a page is one bounded query for the foods
+ * plus one batched query for their images, however many images each food has.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(
+    properties = {
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+@Transactional
+class FoodImageFetchTest {
+
+  private static final int FOOD_COUNT = 30;
+  private static final int IMAGES_PER_FOOD = 3;
+  private static final int PAGE_SIZE = 10;
+
+  @Autowired private FoodRepository foodRepository;
+
+  @Autowired private FoodService foodService;
+
+  @Autowired private EntityManager entityManager;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private Long lastFoodId;
+
+  @BeforeEach
+  void setUp() {
+    for (int i = 0; i < FOOD_COUNT; i++) {
+      Food food = Food.builder().name("Fetch test " + i).category("Test").price(5.0 + i).build();
+      for (int j = 0; j < IMAGES_PER_FOOD; j++) {
+        food.addFoodImage(FoodImage.builder().imageUrl("fetch-test/" + i + "/" + j).build());
+      }
+      lastFoodId = foodRepository.save(food).getId();
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  void getFoodsPage_ShouldLoadPageAndImagesInTwoStatements() {
+    // When
+    FoodPageResponseDto<FoodResponseDto> page =
+        foodService.getFoodsPage(null, PAGE_SIZE, "id", "desc");
+
+    // Then
+    assertThat(page.getContent()).hasSize(PAGE_SIZE);
+    assertThat(page.getContent())
+        .allSatisfy(food -> assertThat(food.getFoodImages()).hasSize(IMAGES_PER_FOOD));
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    // The look-ahead row is a managed food too, so its images arrive in the same batch.
+    assertThat(statistics.getEntityLoadCount())
+        .isEqualTo((PAGE_SIZE + 1) * (1 + IMAGES_PER_FOOD));
+  }
+
+  @Test
+  void findAll_ShouldNotMultiplyFoodRowsByImages() {
+    // When
+    List<Food> foods = foodRepository.findAll();
+
+    // Then
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(statistics.getEntityLoadCount()).isEqualTo(foods.size());
+  }
+
+  @Test
+  void findWithImagesById_ShouldReadDetailInOneStatement() {
+    // When
+    Food food = foodRepository.findWithImagesById(lastFoodId).orElseThrow();
+
+    // Then
+    assertThat(food.getFoodImages()).hasSize(IMAGES_PER_FOOD);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(statistics.getEntityLoadCount()).isEqualTo(1 + IMAGES_PER_FOOD);
+  }
+}
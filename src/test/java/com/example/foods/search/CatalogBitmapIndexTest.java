@@ -0,0 +1,140 @@
+package com.example.foods.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.foods.cache.CatalogSnapshot;
+import com.example.foods.cache.CatalogSnapshot.RatingLevel;
+import com.example.foods.cache.CatalogSnapshot.StockLevel;
+import com.example.foods.dto.request.FoodFilterRequestDto;
+import com.example.foods.dto.response.FoodFilterResponseDto;
+import com.example.foods.dto.response.FoodResponseDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CatalogBitmapIndexTest {
+
+  private static final String[] CATEGORIES = {"Italian", "American", "Japanese", "Mexican"};
+
+  private final List<FoodResponseDto> foods = new ArrayList<>();
+  private final CatalogBitmapIndex index = new CatalogBitmapIndex();
+
+  @BeforeEach
+  void setUp() {
+    for (long id = 1; id <= 200; id++) {
+      foods.add(
+          FoodResponseDto.builder()
+              .id(id)
+              .name("Food " + id)
+              .category(CATEGORIES[(int) (id % CATEGORIES.length)])
+              .status(id % 7 == 0 ? "INACTIVE" : "ACTIVE")
+              .price((id * 37 % 12000) / 100.0)
+              .averageRating((id * 13 % 51) / 10.0)
+              .version(1L)
+              .build());
+    }
+  }
+
+  @Test
+  void filter_ShouldMatchSnapshotScan() {
+    assertMatchesScan(CatalogSnapshot.of(foods));
+  }
+
+  @Test
+  void filter_ShouldMatchSnapshotScan_AfterRatingPatchAndReload() {
+    // Given
+    CatalogSnapshot loaded = CatalogSnapshot.of(foods);
+    assertMatchesScan(loaded);
+
+    // When: a rating lifts food 1 from the 1-star bucket to 5 stars
+    CatalogSnapshot rated =
+        loaded.withRatings(Map.of(1L, new RatingLevel(1L, 1L, 5.0, List.of(0L, 0L, 0L, 0L, 1L))));
+
+    // Then
+    assertMatchesScan(rated);
+    CatalogFacetQuery fiveStars =
+        CatalogFacetQuery.from(FoodFilterRequestDto.builder().minRating(5.0).build());
+    assertThat(index.filter(fiveStars, rated, 0, 50).orElseThrow().getContent())
+        .extracting(FoodResponseDto::getId)
+        .contains(1L);
+
+    // When: a reload moves food 2 to a new category and price and drops food 3
+    foods.set(1, foods.get(1).toBuilder().category("Thai").price(61.0).build());
+    foods.remove(2);
+
+    // Then
+    assertMatchesScan(CatalogSnapshot.of(foods));
+  }
+
+  private void assertMatchesScan(CatalogSnapshot snapshot) {
+    List<FoodFilterRequestDto> filters =
+        List.of(
+            new FoodFilterRequestDto(),
+            FoodFilterRequestDto.builder().category("italian").build(),
+            FoodFilterRequestDto.builder().minPrice(12.5).maxPrice(47.3).build(),
+            FoodFilterRequestDto.builder().minPrice(20.0).maxPrice(50.0).status("ACTIVE").build(),
+            FoodFilterRequestDto.builder().minRating(3.5).category("Mexican").build(),
+            FoodFilterRequestDto.builder().maxPrice(9.99).minRating(0.0).build(),
+            FoodFilterRequestDto.builder().minPrice(101.0).minRating(5.0).build(),
+            FoodFilterRequestDto.builder().category("Thai").build());
+
+    for (FoodFilterRequestDto filter : filters) {
+      CatalogFacetQuery query = CatalogFacetQuery.from(filter);
+      for (int page = 0; page < 3; page++) {
+        FoodFilterResponseDto expected = query.execute(snapshot, page, 25);
+        Optional<FoodFilterResponseDto> actual = index.filter(query, snapshot, page, 25);
+
+        assertThat(actual).as("filter %s page %d", filter, page).contains(expected);
+      }
+    }
+  }
+
+  @Test
+  void filter_ShouldFallBackForTextQueries() {
+    CatalogFacetQuery query =
+        CatalogFacetQuery.from(FoodFilterRequestDto.builder().q("food").build());
+
+    assertThat(index.filter(query, CatalogSnapshot.of(foods), 0, 10)).isEmpty();
+  }
+
+  @Test
+  void filter_ShouldFollowNewerSnapshot_AndResolveStockPatches() {
+    // Given
+    CatalogSnapshot old = CatalogSnapshot.of(foods);
+    CatalogFacetQuery query = CatalogFacetQuery.from(new FoodFilterRequestDto());
+    index.filter(query, old, 0, 10);
+    foods.removeIf(food -> food.getId() <= 5);
+    CatalogSnapshot current =
+        CatalogSnapshot.of(foods).withStock(Map.of(6L, new StockLevel(2L, 3)));
+
+    // When
+    Optional<FoodFilterResponseDto> result = index.filter(query, current, 0, 10);
+
+    // Then
+    assertThat(result).isPresent();
+    assertThat(result.get().getTotalElements()).isEqualTo(195);
+    assertThat(result.get().getContent()).hasSize(10);
+    assertThat(result.get().getContent().get(0).getId()).isEqualTo(6L);
+    assertThat(result.get().getContent().get(0).getQuantity()).isEqualTo(3);
+    assertThat(index.filter(query, old, 0, 10)).isEmpty();
+  }
+
+  @Test
+  void findByPriceRange_ShouldReturnFoodsWithinRange() {
+    // When
+    Optional<List<FoodResponseDto>> result =
+        index.findByPriceRange(CatalogSnapshot.of(foods), 12.5, 47.3);
+
+    // Then
+    assertThat(result).isPresent();
+    assertThat(result.get())
+        .isNotEmpty()
+        .allSatisfy(food -> assertThat(food.getPrice()).isBetween(12.5, 47.3));
+    long expected =
+        foods.stream().filter(food -> food.getPrice() >= 12.5 && food.getPrice() <= 47.3).count();
+    assertThat(result.get()).hasSize((int) expected);
+  }
+}
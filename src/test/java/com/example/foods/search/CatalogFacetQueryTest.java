@@ -0,0 +1,105 @@
+package com.example.foods.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.example.foods.cache.CatalogSnapshot;
+import com.example.foods.dto.request.FoodFilterRequestDto;
+import com.example.foods.dto.response.FacetCountDto;
+import com.example.foods.dto.response.FoodFilterResponseDto;
+import com.example.foods.dto.response.FoodResponseDto;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CatalogFacetQueryTest {
+
+  private final CatalogSnapshot snapshot =
+      CatalogSnapshot.of(
+          List.of(
+              food(1L, "Margherita Pizza", "Italian", 12.99, 4.5),
+              food(2L, "Spaghetti Carbonara", "Italian", 11.75, 3.2),
+              food(3L, "Beef Burger", "American", 9.99, 4.1),
+              food(4L, "Salmon Sushi", "Japanese", 55.0, null)));
+
+  @Test
+  void execute_ShouldCountEachFacetWithoutItsOwnFilter() {
+    // Given
+    FoodFilterRequestDto filter =
+        FoodFilterRequestDto.builder().category("Italian").minRating(4.0).build();
+
+    // When
+    FoodFilterResponseDto result = CatalogFacetQuery.from(filter).execute(snapshot, 0, 10);
+
+    // Then
+    assertThat(result.getContent()).extracting(FoodResponseDto::getId).containsExactly(1L);
+    assertThat(result.getFacets().getCategories())
+        .extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+        .containsExactly(tuple("American", 1L), tuple("Italian", 1L));
+    assertThat(result.getFacets().getPriceRanges())
+        .extracting(FacetCountDto::getCount)
+        .containsExactly(0L, 1L, 0L, 0L);
+    assertThat(result.getFacets().getRatings())
+        .extracting(FacetCountDto::getCount)
+        .containsExactly(1L, 2L, 2L, 2L);
+  }
+
+  @Test
+  void execute_ShouldMatchTextByTokenPrefix() {
+    // Given
+    FoodFilterRequestDto filter = FoodFilterRequestDto.builder().q("spag CARB").build();
+
+    // When
+    FoodFilterResponseDto result = CatalogFacetQuery.from(filter).execute(snapshot, 0, 10);
+
+    // Then
+    assertThat(result.getContent()).extracting(FoodResponseDto::getId).containsExactly(2L);
+    assertThat(result.getTotalElements()).isEqualTo(1);
+  }
+
+  @Test
+  void execute_ShouldPage() {
+    // When
+    FoodFilterResponseDto result =
+        CatalogFacetQuery.from(new FoodFilterRequestDto()).execute(snapshot, 1, 3);
+
+    // Then
+    assertThat(result.getContent()).extracting(FoodResponseDto::getId).containsExactly(4L);
+    assertThat(result.isHasNext()).isFalse();
+    assertThat(result.getTotalElements()).isEqualTo(4);
+  }
+
+  @Test
+  void execute_ShouldSortMatchesOfWholeCatalog_ByRequestedKey() {
+    // Given
+    FoodFilterRequestDto filter =
+        FoodFilterRequestDto.builder().category("Italian").sort("price").direction("asc").build();
+
+    // When
+    FoodFilterResponseDto result = CatalogFacetQuery.from(filter).execute(snapshot, 0, 10);
+
+    // Then
+    assertThat(result.getContent()).extracting(FoodResponseDto::getId).containsExactly(2L, 1L);
+  }
+
+  @Test
+  void from_ShouldRejectInvertedPriceRange() {
+    FoodFilterRequestDto filter =
+        FoodFilterRequestDto.builder().minPrice(20.0).maxPrice(10.0).build();
+
+    assertThatThrownBy(() -> CatalogFacetQuery.from(filter))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private FoodResponseDto food(
+      Long id, String name, String category, Double price, Double averageRating) {
+    return FoodResponseDto.builder()
+        .id(id)
+        .name(name)
+        .category(category)
+        .price(price)
+        .status("ACTIVE")
+        .averageRating(averageRating)
+        .build();
+  }
+}
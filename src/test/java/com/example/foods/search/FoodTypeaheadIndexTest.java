@@ -0,0 +1,129 @@
+package com.example.foods.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import com.example.foods.dto.response.FoodTypeaheadDto;
+import com.example.foods.repository.FoodRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FoodTypeaheadIndexTest {
+
+  @Mock private FoodRepository foodRepository;
+
+  private FoodTypeaheadIndex index;
+
+  @BeforeEach
+  void setUp() {
+    when(foodRepository.findAllTypeaheadEntries())
+        .thenReturn(
+            List.of(
+                entry(1L, "Phở Bò", "Noodles", 5L),
+                entry(2L, "Pizza Margherita", "Pizza", 40L),
+                entry(3L, "Pepperoni Pizza", "Pizza", 90L),
+                entry(4L, "Caesar Salad", "Salads", 10L)));
+    index = new FoodTypeaheadIndex(foodRepository);
+    index.rebuild();
+  }
+
+  @Test
+  void suggest_ShouldMatchPrefixIgnoringCaseAndDiacritics() {
+    // When
+    List<FoodTypeaheadDto> result = index.suggest("PHO", 10);
+
+    // Then
+    assertThat(result).extracting(FoodTypeaheadDto::getId).containsExactly(1L);
+  }
+
+  @Test
+  void suggest_ShouldRankNamePrefixBeforePopularity() {
+    // When
+    List<FoodTypeaheadDto> result = index.suggest("piz", 10);
+
+    // Then
+    assertThat(result).extracting(FoodTypeaheadDto::getId).containsExactly(2L, 3L);
+  }
+
+  @Test
+  void suggest_ShouldRequireEveryToken() {
+    // When
+    List<FoodTypeaheadDto> result = index.suggest("pizza pep", 10);
+
+    // Then
+    assertThat(result).extracting(FoodTypeaheadDto::getId).containsExactly(3L);
+  }
+
+  @Test
+  void reindex_ShouldDropFoodThatIsNoLongerActive() {
+    // Given
+    when(foodRepository.findTypeaheadEntryById(4L)).thenReturn(Optional.empty());
+
+    // When
+    index.reindex(4L);
+
+    // Then
+    assertThat(index.suggest("caesar", 10)).isEmpty();
+    assertThat(index.suggest("sal", 10)).isEmpty();
+  }
+
+  @Test
+  void suggest_ShouldFindRareMatch_AmongManyFoodsSharingAToken() {
+    // Given
+    List<FoodTypeaheadDto> foods = new ArrayList<>();
+    for (long id = 1; id <= 5000; id++) {
+      foods.add(entry(id, "Spicy Dish " + id, "Mains", id));
+    }
+    foods.add(entry(9999L, "Spicy Ramen", "Noodles", 0L));
+    when(foodRepository.findAllTypeaheadEntries()).thenReturn(foods);
+    index.rebuild();
+
+    // When
+    List<FoodTypeaheadDto> result = index.suggest("spicy ramen", 5);
+
+    // Then
+    assertThat(result).extracting(FoodTypeaheadDto::getId).containsExactly(9999L);
+  }
+
+  @Test
+  void suggest_ShouldReturnTrueTopK_WhenCandidatesExceedLimit() {
+    // Given
+    List<FoodTypeaheadDto> foods = new ArrayList<>();
+    for (long id = 1; id <= 5000; id++) {
+      foods.add(entry(id, "Soup " + id, "Soups", id));
+    }
+    when(foodRepository.findAllTypeaheadEntries()).thenReturn(foods);
+    index.rebuild();
+
+    // When
+    List<FoodTypeaheadDto> result = index.suggest("soup", 3);
+
+    // Then
+    assertThat(result).extracting(FoodTypeaheadDto::getId).containsExactly(5000L, 4999L, 4998L);
+  }
+
+  @Test
+  void reindex_ShouldKeepFood_WhenLoadFails() {
+    // Given
+    when(foodRepository.findTypeaheadEntryById(4L))
+        .thenThrow(new IllegalStateException("connection refused"));
+
+    // When
+    assertThatThrownBy(() -> index.reindex(4L)).isInstanceOf(IllegalStateException.class);
+
+    // Then
+    assertThat(index.suggest("caesar", 10)).extracting(FoodTypeaheadDto::getId).containsExactly(4L);
+  }
+
+  private FoodTypeaheadDto entry(Long id, String name, String category, Long orderCount) {
+    return new FoodTypeaheadDto(id, name, category, null, orderCount);
+  }
+}
@@ -0,0 +1,333 @@
+package com.example.foods.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.example.foods.service.impl.FileStorageServiceImpl;
+import com.example.foods.storage.ImageDiskCache;
+import com.example.foods.storage.StoredObject;
+import com.example.foods.storage.StoredObjectNotFoundException;
+import com.example.foods.storage.UploadThrottle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.Abortable;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+@ExtendWith(MockitoExtension.class)
+class FileStorageServiceImplTest {
+
+  @Mock private S3Client s3Client;
+
+  @Mock private Abortable abortable;
+
+  @TempDir private Path cacheDir;
+
+  private FileStorageServiceImpl fileStorageService;
+
+  @BeforeEach
+  void setUp() {
+    fileStorageService = fileStorageService(imageDiskCache(false));
+  }
+
+  @Test
+  void openFile_ShouldRequestRange_AndReturnPartialContentMetadata() throws IOException {
+    // Given
+    GetObjectResponse response =
+        GetObjectResponse.builder()
+            .contentType("image/png")
+            .contentLength(4L)
+            .contentRange("bytes 0-3/10")
+            .eTag("\"abc\"")
+            .build();
+    when(s3Client.getObject(any(Consumer.class))).thenReturn(stream(response, "0123"));
+
+    // When
+    StoredObject image = fileStorageService.openFile("foods/a.png", "bytes=0-3");
+
+    // Then
+    ArgumentCaptor<Consumer<GetObjectRequest.Builder>> request =
+        ArgumentCaptor.forClass(Consumer.class);
+    verify(s3Client).getObject(request.capture());
+    GetObjectRequest.Builder builder = GetObjectRequest.builder();
+    request.getValue().accept(builder);
+    assertThat(builder.build().range()).isEqualTo("bytes=0-3");
+    assertThat(image.isPartial()).isTrue();
+    assertThat(image.getContentType()).isEqualTo("image/png");
+    assertThat(image.getContentLength()).isEqualTo(4);
+    assertThat(image.getContentRange()).isEqualTo("bytes 0-3/10");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    image.writeTo(out);
+    assertThat(out.toString()).isEqualTo("0123");
+    verifyNoInteractions(abortable);
+  }
+
+  @Test
+  void openFile_ShouldGuessContentTypeFromName_WhenStoredAsOctetStream() {
+    // Given
+    GetObjectResponse response =
+        GetObjectResponse.builder().contentType("binary/octet-stream").contentLength(3L).build();
+    when(s3Client.getObject(any(Consumer.class))).thenReturn(stream(response, "abc"));
+
+    // When
+    StoredObject image = fileStorageService.openFile("foods/uuid_pho.png", null);
+
+    // Then
+    assertThat(image.getContentType()).isEqualTo("image/png");
+    assertThat(image.isPartial()).isFalse();
+  }
+
+  @Test
+  void openFile_ShouldThrowNotFound_WhenKeyIsMissing() {
+    // Given
+    when(s3Client.getObject(any(Consumer.class)))
+        .thenThrow(NoSuchKeyException.builder().message("missing").build());
+
+    // When & Then
+    assertThatThrownBy(() -> fileStorageService.openFile("foods/gone.jpg", null))
+        .isInstanceOf(StoredObjectNotFoundException.class);
+  }
+
+  @Test
+  void writeTo_ShouldAbortUpstreamRead_WhenClientDisconnects() {
+    // Given
+    GetObjectResponse response = GetObjectResponse.builder().contentLength(3L).build();
+    when(s3Client.getObject(any(Consumer.class))).thenReturn(stream(response, "abc"));
+    StoredObject image = fileStorageService.openFile("foods/a.jpg", null);
+    OutputStream disconnected =
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            throw new IOException("Broken pipe");
+          }
+        };
+
+    // When & Then
+    assertThatThrownBy(() -> image.writeTo(disconnected)).isInstanceOf(IOException.class);
+    verify(abortable).abort();
+  }
+
+  @Test
+  void openFile_ShouldServeRepeatReadsAndRangesFromDiskCache() throws IOException {
+    // Given
+    fileStorageService = fileStorageService(imageDiskCache(true));
+    GetObjectResponse response =
+        GetObjectResponse.builder().contentType("image/jpeg").contentLength(10L).build();
+    when(s3Client.getObject(any(Consumer.class))).thenReturn(stream(response, "0123456789"));
+
+    // When
+    byte[] whole = fileStorageService.downloadFile("foods/a.jpg");
+    StoredObject range = fileStorageService.openFile("foods/a.jpg", "bytes=2-4");
+
+    // Then
+    assertThat(new String(whole)).isEqualTo("0123456789");
+    assertThat(range.getContentRange()).isEqualTo("bytes 2-4/10");
+    assertThat(range.getContentType()).isEqualTo("image/jpeg");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    range.writeTo(out);
+    assertThat(out.toString()).isEqualTo("234");
+    verify(s3Client, times(1)).getObject(any(Consumer.class));
+  }
+
+  @Test
+  void uploadFile_ShouldStreamSmallFileInSinglePut() throws IOException {
+    // Given
+    MockMultipartFile file =
+        new MockMultipartFile("image", "a.png", "image/png", "png-bytes".getBytes());
+
+    // When
+    String key = fileStorageService.uploadFile(file);
+
+    // Then
+    ArgumentCaptor<RequestBody> body = ArgumentCaptor.forClass(RequestBody.class);
+    verify(s3Client).putObject(any(Consumer.class), body.capture());
+    assertThat(key).endsWith("_a.png");
+    assertThat(body.getValue().contentLength()).isEqualTo(9L);
+    assertThat(body.getValue().contentStreamProvider().newStream().readAllBytes())
+        .isEqualTo("png-bytes".getBytes());
+    verify(s3Client, never()).createMultipartUpload(any(Consumer.class));
+  }
+
+  @Test
+  void uploadFile_ShouldKeepHeapFlat_WhenUploadingLargeFileInParts() {
+    // Given a 256MB upload that can only be read as a stream
+    long size = DataSize.ofMegabytes(256).toBytes();
+    when(s3Client.createMultipartUpload(any(Consumer.class)))
+        .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+    AtomicLong received = new AtomicLong();
+    AtomicInteger parts = new AtomicInteger();
+    when(s3Client.uploadPart(any(Consumer.class), any(RequestBody.class)))
+        .thenAnswer(
+            invocation -> {
+              try (InputStream part =
+                  invocation.<RequestBody>getArgument(1).contentStreamProvider().newStream()) {
+                received.addAndGet(part.transferTo(OutputStream.nullOutputStream()));
+              }
+              return UploadPartResponse.builder().eTag("etag-" + parts.incrementAndGet()).build();
+            });
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+
+    // When
+    fileStorageService.uploadFile(new StreamOnlyFile("large.png", size));
+
+    // Then
+    long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+    assertThat(received.get()).isEqualTo(size);
+    assertThat(parts.get()).isEqualTo(52);
+    verify(s3Client).completeMultipartUpload(any(Consumer.class));
+    // One 5MB part buffer plus per-part bookkeeping: a small fraction of the 256MB file.
+    assertThat(allocated).isLessThan(size / 8);
+  }
+
+  @Test
+  void uploadFile_ShouldAbortMultipartUpload_WhenPartFails() {
+    // Given
+    when(s3Client.createMultipartUpload(any(Consumer.class)))
+        .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+    when(s3Client.uploadPart(any(Consumer.class), any(RequestBody.class)))
+        .thenThrow(SdkClientException.create("Connection reset"));
+    StreamOnlyFile file = new StreamOnlyFile("large.png", DataSize.ofMegabytes(12).toBytes());
+
+    // When & Then
+    assertThatThrownBy(() -> fileStorageService.uploadFile(file))
+        .isInstanceOf(SdkClientException.class);
+    ArgumentCaptor<Consumer<AbortMultipartUploadRequest.Builder>> abort =
+        ArgumentCaptor.forClass(Consumer.class);
+    verify(s3Client).abortMultipartUpload(abort.capture());
+    AbortMultipartUploadRequest.Builder builder = AbortMultipartUploadRequest.builder();
+    abort.getValue().accept(builder);
+    assertThat(builder.build().uploadId()).isEqualTo("upload-1");
+    verify(s3Client, never()).completeMultipartUpload(any(Consumer.class));
+  }
+
+  private FileStorageServiceImpl fileStorageService(ImageDiskCache imageDiskCache) {
+    return new FileStorageServiceImpl(
+        s3Client,
+        "foods",
+        imageDiskCache,
+        new UploadThrottle(4, DataSize.ofMegabytes(32)),
+        DataSize.ofMegabytes(5),
+        DataSize.ofMegabytes(5));
+  }
+
+  private ImageDiskCache imageDiskCache(boolean enabled) {
+    return new ImageDiskCache(
+        new SimpleMeterRegistry(),
+        enabled,
+        cacheDir,
+        DataSize.ofMegabytes(1),
+        DataSize.ofKilobytes(64));
+  }
+
+  private ResponseInputStream<GetObjectResponse> stream(GetObjectResponse response, String body) {
+    AbortableInputStream content =
+        AbortableInputStream.create(new ByteArrayInputStream(body.getBytes()), abortable);
+    return new ResponseInputStream<>(response, content);
+  }
+
+  /** An upload whose bytes exist only as a stream, like a large part spooled to disk. */
+  private static class StreamOnlyFile implements MultipartFile {
+
+    private final String filename;
+    private final long size;
+
+    StreamOnlyFile(String filename, long size) {
+      this.filename = filename;
+      this.size = size;
+    }
+
+    @Override
+    public String getName() {
+      return "image";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+      return filename;
+    }
+
+    @Override
+    public String getContentType() {
+      return "image/png";
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+      return size;
+    }
+
+    @Override
+    public byte[] getBytes() {
+      throw new UnsupportedOperationException("Uploads must not be read into memory");
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return new InputStream() {
+        private long remaining = size;
+
+        @Override
+        public int read() {
+          if (remaining == 0) {
+            return -1;
+          }
+          remaining--;
+          return 0;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+          if (remaining == 0) {
+            return -1;
+          }
+          int read = (int) Math.min(length, remaining);
+          remaining -= read;
+          return read;
+        }
+      };
+    }
+
+    @Override
+    public void transferTo(File dest) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
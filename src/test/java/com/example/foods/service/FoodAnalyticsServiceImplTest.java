@@ -0,0 +1,71 @@
+package com.example.foods.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+import com.example.foods.analytics.FoodLeaderboard;
+import com.example.foods.constant.LeaderboardMetric;
+import com.example.foods.constant.LeaderboardWindow;
+import com.example.foods.dto.response.FoodRankingDto;
+import com.example.foods.dto.response.FoodResponseDto;
+import com.example.foods.service.impl.FoodAnalyticsServiceImpl;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FoodAnalyticsServiceImplTest {
+
+  @Mock private FoodLeaderboard foodLeaderboard;
+
+  @Mock private FoodService foodService;
+
+  @InjectMocks private FoodAnalyticsServiceImpl foodAnalyticsService;
+
+  @Test
+  void getTopFoods_ShouldRankActiveFoodsOfCategory_InLeaderboardOrder() {
+    // Given
+    Map<Long, Long> scores = new LinkedHashMap<>();
+    scores.put(3L, 120L);
+    scores.put(5L, 90L);
+    scores.put(8L, 70L);
+    scores.put(2L, 40L);
+    when(foodLeaderboard.top(LeaderboardMetric.ORDERS, LeaderboardWindow.WEEK, "Japanese", 4))
+        .thenReturn(scores);
+    FoodResponseDto ramen = food(3L, "Japanese", "ACTIVE");
+    FoodResponseDto retired = food(5L, "Japanese", "INACTIVE");
+    FoodResponseDto moved = food(8L, "Thai", "ACTIVE");
+    FoodResponseDto sushi = food(2L, "Japanese", "ACTIVE");
+    when(foodService.getFoodsByIds(List.of(3L, 5L, 8L, 2L)))
+        .thenReturn(List.of(ramen, retired, moved, sushi));
+
+    // When
+    List<FoodRankingDto> result = foodAnalyticsService.getTopFoods("orders", "week", "Japanese", 2);
+
+    // Then
+    assertThat(result)
+        .extracting(FoodRankingDto::getRank, FoodRankingDto::getScore, FoodRankingDto::getFood)
+        .containsExactly(tuple(1, 120.0, ramen), tuple(2, 40.0, sushi));
+  }
+
+  @Test
+  void getTopFoods_ShouldRejectUnknownMetric() {
+    // When & Then
+    assertThatThrownBy(() -> foodAnalyticsService.getTopFoods("likes", null, null, null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Unsupported leaderboard metric");
+
+    verifyNoInteractions(foodLeaderboard);
+  }
+
+  private static FoodResponseDto food(Long id, String category, String status) {
+    return FoodResponseDto.builder().id(id).category(category).status(status).build();
+  }
+}
@@ -3,25 +3,60 @@ package com.example.foods.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import com.example.foods.cache.CatalogSnapshot;
+import com.example.foods.cache.CatalogSnapshotCache;
+import com.example.foods.cache.FoodDetailCache;
+import com.example.foods.constant.FoodSortField;
+import com.example.foods.constant.ImageSize;
+import com.example.foods.dto.FoodCursor;
+import com.example.foods.dto.ResourceVersion;
+import com.example.foods.dto.request.FoodBulkUpdateItemDto;
+import com.example.foods.dto.request.FoodBulkUpdateRequestDto;
 import com.example.foods.dto.request.FoodRequestDto;
+import com.example.foods.dto.response.FoodBulkUpdateResponseDto;
+import com.example.foods.dto.response.FoodBulkUpdateResultDto;
+import com.example.foods.dto.response.FoodBulkUpdateResultDto.Outcome;
+import com.example.foods.dto.response.FoodCardDto;
+import com.example.foods.dto.response.FoodChangesResponseDto;
+import com.example.foods.dto.response.FoodPageResponseDto;
 import com.example.foods.dto.response.FoodResponseDto;
 import com.example.foods.entity.Food;
+import com.example.foods.entity.FoodImage;
+import com.example.foods.event.CatalogBatchChangedEvent;
+import com.example.foods.event.CatalogChangedEvent;
 import com.example.foods.mapper.FoodMapper;
 import com.example.foods.repository.FoodRepository;
-import com.example.foods.repository.RatingRepository;
+import com.example.foods.search.CatalogBitmapIndex;
 import com.example.foods.service.impl.FoodServiceImpl;
+import com.example.foods.storage.ImageUploader;
+import com.example.foods.sync.FoodChange;
+import com.example.foods.sync.FoodChangeLog;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
 @ExtendWith(MockitoExtension.class)
 class FoodServiceImplTest {
@@ -32,9 +67,21 @@ class FoodServiceImplTest {
 
   @Mock private FileStorageService fileStorageService;
 
-  @Mock private RatingService ratingService;
+  @Mock private CatalogSnapshotCache catalogSnapshotCache;
 
-  @Mock private RatingRepository ratingRepository;
+  @Mock private FoodDetailCache foodDetailCache;
+
+  @Mock private CatalogBitmapIndex catalogBitmapIndex;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Mock private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  @Mock private FoodChangeLog foodChangeLog;
+
+  @Mock private ImageUploader imageUploader;
+
+  @Mock private TransactionTemplate transactionTemplate;
 
   @InjectMocks private FoodServiceImpl foodService;
 
@@ -43,7 +90,22 @@ class FoodServiceImplTest {
   private Food food;
 
   @BeforeEach
+  @SuppressWarnings("unchecked")
   void setUp() {
+    lenient()
+        .when(catalogSnapshotCache.getSnapshot(any()))
+        .thenAnswer(
+            invocation ->
+                CatalogSnapshot.of(
+                    ((Supplier<List<FoodResponseDto>>) invocation.getArgument(0)).get()));
+    lenient()
+        .when(foodDetailCache.get(anyLong(), any()))
+        .thenAnswer(invocation -> ((Supplier<FoodResponseDto>) invocation.getArgument(1)).get());
+    lenient()
+        .when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
     foodResponseDto =
         FoodResponseDto.builder()
             .id(1L)
@@ -88,6 +150,43 @@ class FoodServiceImplTest {
     verify(foodRepository).save(any(Food.class));
   }
 
+  @Test
+  void createFood_ShouldDeleteUploadedImages_WhenSaveFails() {
+    // Given
+    List<MultipartFile> images =
+        List.of(
+            new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[] {1}),
+            new MockMultipartFile("images", "b.jpg", "image/jpeg", new byte[] {2}));
+    foodRequestDto.setFoodImages(images);
+    when(foodRepository.existsByNameIgnoreCase(anyString())).thenReturn(false);
+    when(imageUploader.uploadAll(images)).thenReturn(List.of("key-a", "key-b"));
+    when(foodMapper.toEntity(any(FoodRequestDto.class))).thenReturn(food);
+    when(foodMapper.toFoodImageEntity(anyString()))
+        .thenAnswer(invocation -> FoodImage.builder().imageUrl(invocation.getArgument(0)).build());
+    when(foodRepository.save(any(Food.class))).thenThrow(new IllegalStateException("DB down"));
+
+    // When & Then
+    assertThatThrownBy(() -> foodService.createFood(foodRequestDto))
+        .isInstanceOf(IllegalStateException.class);
+    verify(fileStorageService).deleteFile("key-a");
+    verify(fileStorageService).deleteFile("key-b");
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void updateFood_ShouldNotUploadImages_WhenFoodNotFound() {
+    // Given
+    foodRequestDto.setFoodImages(
+        List.of(new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[] {1})));
+    when(foodRepository.findById(9L)).thenReturn(Optional.empty());
+
+    // When & Then
+    assertThatThrownBy(() -> foodService.updateFood(9L, foodRequestDto))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("not found");
+    verifyNoInteractions(imageUploader, transactionTemplate);
+  }
+
   @Test
   void createFood_ShouldThrowException_WhenFoodAlreadyExists() {
     // Given
@@ -104,7 +203,7 @@ class FoodServiceImplTest {
   @Test
   void getFoodById_ShouldReturnFood_WhenFoodExists() {
     // Given
-    when(foodRepository.findById(1L)).thenReturn(Optional.of(food));
+    when(foodRepository.findWithImagesById(1L)).thenReturn(Optional.of(food));
     when(foodMapper.toDto(any(Food.class))).thenReturn(foodResponseDto);
 
     // When
@@ -113,20 +212,46 @@ class FoodServiceImplTest {
     // Then
     assertThat(result).isNotNull();
     assertThat(result.getId()).isEqualTo(1L);
-    verify(foodRepository).findById(1L);
+    verify(foodRepository).findWithImagesById(1L);
   }
 
   @Test
   void getFoodById_ShouldThrowException_WhenFoodNotFound() {
     // Given
-    when(foodRepository.findById(1L)).thenReturn(Optional.empty());
+    when(foodRepository.findWithImagesById(1L)).thenReturn(Optional.empty());
 
     // When & Then
     assertThatThrownBy(() -> foodService.getFoodById(1L))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessageContaining("Food not found");
 
-    verify(foodRepository).findById(1L);
+    verify(foodRepository).findWithImagesById(1L);
+  }
+
+  @Test
+  void getFoodVersion_ShouldMatchDatabaseValidators_WhenServedFromSnapshot() {
+    // Given
+    LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+    ResourceVersion fromDatabase = new ResourceVersion(1L, 3L, 4L, 14L, updatedAt);
+    when(foodRepository.findVersionById(1L)).thenReturn(Optional.of(fromDatabase));
+    FoodResponseDto cached =
+        FoodResponseDto.builder()
+            .id(1L)
+            .version(3L)
+            .ratingCount(4L)
+            .averageRating(3.5)
+            .updatedAt(updatedAt)
+            .build();
+
+    // When
+    ResourceVersion uncached = foodService.getFoodVersion(1L).orElseThrow();
+    when(catalogSnapshotCache.peek()).thenReturn(CatalogSnapshot.of(List.of(cached)));
+    ResourceVersion snapshotted = foodService.getFoodVersion(1L).orElseThrow();
+
+    // Then
+    assertThat(snapshotted.getEtag()).isEqualTo(uncached.getEtag());
+    assertThat(snapshotted.getLastModified()).isEqualTo(uncached.getLastModified());
+    verify(foodRepository, times(1)).findVersionById(1L);
   }
 
   @Test
@@ -147,6 +272,200 @@ class FoodServiceImplTest {
     verify(foodRepository).findAll();
   }
 
+  @Test
+  void getFoodsByPriceRange_ShouldFilterSnapshot() {
+    // Given
+    Food cheap = Food.builder().id(2L).name("Cheap").category("Italian").price(3.0).build();
+    FoodResponseDto cheapDto = FoodResponseDto.builder().id(2L).name("Cheap").price(3.0).build();
+    when(foodRepository.findAll()).thenReturn(List.of(food, cheap));
+    when(foodMapper.toDtoList(List.of(food, cheap)))
+        .thenReturn(List.of(foodResponseDto, cheapDto));
+
+    // When
+    List<FoodResponseDto> result = foodService.getFoodsByPriceRange(10.0, 20.0);
+
+    // Then
+    assertThat(result).extracting(FoodResponseDto::getId).containsExactly(1L);
+    verify(foodRepository, never()).findByPriceBetween(any(), any());
+  }
+
+  @Test
+  void getFoodsPage_ShouldReturnNextCursor_WhenMoreRowsExist() {
+    // Given
+    Food second = Food.builder().id(2L).name("Second").category("Italian").price(9.99).build();
+    FoodResponseDto secondDto = FoodResponseDto.builder().id(2L).name("Second").build();
+    Food third = Food.builder().id(3L).name("Third").category("Italian").price(7.99).build();
+    when(foodRepository.findPageAfter(any(FoodCursor.class), eq(3)))
+        .thenReturn(List.of(second, food, third));
+    when(foodMapper.toDtoList(List.of(second, food)))
+        .thenReturn(List.of(secondDto, foodResponseDto));
+
+    // When
+    FoodPageResponseDto<FoodResponseDto> result = foodService.getFoodsPage(null, 2, "name", "asc");
+
+    // Then
+    assertThat(result.getContent()).extracting(FoodResponseDto::getId).containsExactly(2L, 1L);
+    assertThat(result.isHasNext()).isTrue();
+    FoodCursor next = FoodCursor.decode(result.getNextCursor());
+    assertThat(next.getLastId()).isEqualTo(1L);
+    assertThat(next.getLastValue()).isEqualTo("Test Pizza");
+  }
+
+  @Test
+  void getFoodCardsPage_ShouldListMostOrderedFirst_WhenNoDirectionGiven() {
+    // Given
+    FoodCardDto top = FoodCardDto.builder().id(4L).name("Ramen").orderCount(90L).build();
+    FoodCardDto next = FoodCardDto.builder().id(2L).name("Tacos").orderCount(75L).build();
+    FoodCardDto extra = FoodCardDto.builder().id(9L).name("Salad").orderCount(75L).build();
+    when(foodRepository.findCardsAfter(any(FoodCursor.class), eq(3)))
+        .thenReturn(List.of(top, next, extra));
+
+    // When
+    FoodPageResponseDto<FoodCardDto> result =
+        foodService.getFoodCardsPage(null, 2, "order-count", null);
+
+    // Then
+    ArgumentCaptor<FoodCursor> position = ArgumentCaptor.forClass(FoodCursor.class);
+    verify(foodRepository).findCardsAfter(position.capture(), eq(3));
+    assertThat(position.getValue().getSort()).isEqualTo(FoodSortField.ORDER_COUNT);
+    assertThat(position.getValue().isDescending()).isTrue();
+    FoodCursor cursor = FoodCursor.decode(result.getNextCursor());
+    assertThat(cursor.getLastId()).isEqualTo(2L);
+    assertThat(cursor.getLastValue()).isEqualTo(75L);
+  }
+
+  @Test
+  void getFoodsPage_ShouldThrowException_WhenCursorIsInvalid() {
+    // When & Then
+    assertThatThrownBy(() -> foodService.getFoodsPage("not-a-cursor", 10, null, null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Invalid cursor");
+
+    verify(foodRepository, never()).findPageAfter(any(), anyInt());
+  }
+
+  @Test
+  void searchFoodsByName_ShouldMatchWildcardsLiterally() {
+    // Given
+    when(foodRepository.findIdsByNameContaining("100\\%\\_pi")).thenReturn(List.of(1L));
+    when(foodRepository.findAllById(List.of(1L))).thenReturn(List.of(food));
+    when(foodMapper.toDtoList(List.of(food))).thenReturn(List.of(foodResponseDto));
+
+    // When
+    List<FoodResponseDto> result = foodService.searchFoodsByName("100%_pi");
+
+    // Then
+    assertThat(result).containsExactly(foodResponseDto);
+  }
+
+  @Test
+  void getFoodChanges_ShouldSplitChangesAndTombstones_AndReturnNextSince() {
+    // Given
+    Food other = Food.builder().id(7L).name("Ramen").build();
+    FoodResponseDto otherDto = FoodResponseDto.builder().id(7L).name("Ramen").build();
+    when(foodChangeLog.findAfter(40L, 4))
+        .thenReturn(
+            List.of(
+                new FoodChange(7L, 41L, false),
+                new FoodChange(3L, 42L, true),
+                new FoodChange(1L, 43L, false),
+                new FoodChange(9L, 44L, false)));
+    when(foodRepository.findAllById(List.of(7L, 1L))).thenReturn(List.of(food, other));
+    when(foodMapper.toDtoList(List.of(other, food))).thenReturn(List.of(otherDto, foodResponseDto));
+
+    // When
+    FoodChangesResponseDto result = foodService.getFoodChanges(40L, 3);
+
+    // Then
+    assertThat(result.getChanged()).containsExactly(otherDto, foodResponseDto);
+    assertThat(result.getDeleted()).containsExactly(3L);
+    assertThat(result.getNextSince()).isEqualTo(43L);
+    assertThat(result.isHasMore()).isTrue();
+  }
+
+  @Test
+  void bulkUpdateFoods_ShouldReportOutcomePerRow() {
+    // Given
+    FoodBulkUpdateRequestDto request =
+        FoodBulkUpdateRequestDto.builder()
+            .updates(
+                List.of(
+                    FoodBulkUpdateItemDto.builder().id(1L).version(7L).quantity(40).build(),
+                    FoodBulkUpdateItemDto.builder().id(2L).version(3L).quantity(5).build(),
+                    FoodBulkUpdateItemDto.builder().id(3L).version(1L).quantity(7).build(),
+                    FoodBulkUpdateItemDto.builder().id(4L).version(1L).price(-1.0).build(),
+                    FoodBulkUpdateItemDto.builder().id(1L).version(8L).quantity(1).build(),
+                    FoodBulkUpdateItemDto.builder().id(5L).quantity(2).build(),
+                    FoodBulkUpdateItemDto.builder().id(6L).version(1L).status("SOLD").build()))
+            .build();
+    when(namedParameterJdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+        .thenReturn(new int[] {1, 0, 0});
+    when(namedParameterJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class)))
+        .thenReturn(List.of(Map.of("id", 1L, "version", 8L), Map.of("id", 2L, "version", 4L)));
+
+    // When
+    FoodBulkUpdateResponseDto response = foodService.bulkUpdateFoods(request);
+
+    // Then
+    assertThat(response.getResults())
+        .extracting(FoodBulkUpdateResultDto::getOutcome)
+        .containsExactly(
+            Outcome.UPDATED,
+            Outcome.CONFLICT,
+            Outcome.NOT_FOUND,
+            Outcome.INVALID,
+            Outcome.INVALID,
+            Outcome.INVALID,
+            Outcome.INVALID);
+    assertThat(response.getResults().get(0).getVersion()).isEqualTo(8L);
+    assertThat(response.getResults().get(1).getVersion()).isEqualTo(4L);
+    assertThat(response.getResults().get(5).getMessage()).isEqualTo("Version is required");
+    assertThat(response.getUpdated()).isEqualTo(1);
+    assertThat(response.getInvalid()).isEqualTo(4);
+
+    ArgumentCaptor<CatalogBatchChangedEvent> event =
+        ArgumentCaptor.forClass(CatalogBatchChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertThat(event.getValue().getVersions()).containsExactly(Map.entry(1L, 8L));
+    assertThat(event.getValue().isStockOnly()).isTrue();
+  }
+
+  @Test
+  void recordImageDerivatives_ShouldBumpFoodVersion_WhenRenditionsRecorded() {
+    // Given
+    when(namedParameterJdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+        .thenReturn(new int[] {1});
+    when(namedParameterJdbcTemplate.queryForList(
+            anyString(), any(SqlParameterSource.class), eq(Long.class)))
+        .thenReturn(List.of(6L));
+
+    // When
+    foodService.recordImageDerivatives(
+        1L, Map.of("pizza.jpg", Map.of(ImageSize.THUMBNAIL, "thumb.jpg")));
+
+    // Then
+    ArgumentCaptor<CatalogChangedEvent> event = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertThat(event.getValue().getFoodId()).isEqualTo(1L);
+    assertThat(event.getValue().getVersion()).isEqualTo(6L);
+  }
+
+  @Test
+  void recordImageDerivatives_ShouldNotBumpVersion_WhenImagesWereReplaced() {
+    // Given
+    when(namedParameterJdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+        .thenReturn(new int[] {0});
+
+    // When
+    foodService.recordImageDerivatives(
+        1L, Map.of("pizza.jpg", Map.of(ImageSize.THUMBNAIL, "thumb.jpg")));
+
+    // Then
+    verify(namedParameterJdbcTemplate, never())
+        .queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class));
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
   @Test
   void deleteFood_ShouldDeleteFood_WhenFoodExists() {
     // Given
@@ -158,6 +477,7 @@ class FoodServiceImplTest {
     // Then
     verify(foodRepository).existsById(1L);
     verify(foodRepository).deleteById(1L);
+    verify(eventPublisher).publishEvent(any(CatalogChangedEvent.class));
   }
 
   @Test
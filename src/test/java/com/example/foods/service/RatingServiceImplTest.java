@@ -0,0 +1,124 @@
+package com.example.foods.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.example.foods.cache.CatalogSnapshot.RatingLevel;
+import com.example.foods.entity.Food;
+import com.example.foods.entity.Rating;
+import com.example.foods.entity.User;
+import com.example.foods.event.CatalogChangedEvent;
+import com.example.foods.repository.FoodRepository;
+import com.example.foods.repository.RatingRepository;
+import com.example.foods.repository.UserRepository;
+import com.example.foods.service.impl.RatingServiceImpl;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class RatingServiceImplTest {
+
+  @Mock private RatingRepository ratingRepository;
+
+  @Mock private FoodRepository foodRepository;
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Mock private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  @InjectMocks private RatingServiceImpl ratingService;
+
+  private Food food;
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    food = Food.builder().id(1L).name("Test Pizza").build();
+    user = new User();
+    user.setId(2L);
+    when(foodRepository.findById(1L)).thenReturn(Optional.of(food));
+    when(userRepository.findById(2L)).thenReturn(Optional.of(user));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void submitRating_ShouldCountNewRating_AndPublishNewAggregates() {
+    // Given
+    RatingLevel ratings = new RatingLevel(3L, 1L, 4.0, List.of(0L, 0L, 0L, 1L, 0L));
+    when(ratingRepository.findByFoodIdAndUserIdForUpdate(1L, 2L)).thenReturn(Optional.empty());
+    when(namedParameterJdbcTemplate.queryForObject(anyString(), anyMap(), any(RowMapper.class)))
+        .thenReturn(ratings);
+
+    // When
+    ratingService.submitRating(1L, 2L, 4, "Good");
+
+    // Then
+    ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+    verify(namedParameterJdbcTemplate)
+        .queryForObject(anyString(), params.capture(), any(RowMapper.class));
+    assertThat(params.getValue())
+        .containsEntry("foodId", 1L)
+        .containsEntry("previousScore", 0)
+        .containsEntry("score", 4);
+    verify(ratingRepository).save(any(Rating.class));
+    verify(eventPublisher)
+        .publishEvent(
+            argThat(
+                (ApplicationEvent event) ->
+                    event instanceof CatalogChangedEvent changed
+                        && changed.getFoodId().equals(1L)
+                        && ratings.equals(changed.getRatings())));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void submitRating_ShouldMoveChangedScoreBetweenHistogramBuckets() {
+    // Given
+    Rating existing = Rating.builder().id(5L).food(food).user(user).score(2).build();
+    when(ratingRepository.findByFoodIdAndUserIdForUpdate(1L, 2L))
+        .thenReturn(Optional.of(existing));
+
+    // When
+    ratingService.submitRating(1L, 2L, 5, "Better now");
+
+    // Then
+    ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+    verify(namedParameterJdbcTemplate)
+        .queryForObject(anyString(), params.capture(), any(RowMapper.class));
+    assertThat(params.getValue()).containsEntry("previousScore", 2).containsEntry("score", 5);
+    assertThat(existing.getScore()).isEqualTo(5);
+  }
+
+  @Test
+  void submitRating_ShouldLeaveAggregatesAlone_WhenOnlyCommentChanges() {
+    // Given
+    Rating existing = Rating.builder().id(5L).food(food).user(user).score(3).build();
+    when(ratingRepository.findByFoodIdAndUserIdForUpdate(1L, 2L))
+        .thenReturn(Optional.of(existing));
+
+    // When
+    ratingService.submitRating(1L, 2L, 3, "Edited comment");
+
+    // Then
+    verifyNoInteractions(namedParameterJdbcTemplate);
+    verify(eventPublisher, never()).publishEvent(any(CatalogChangedEvent.class));
+    assertThat(existing.getComment()).isEqualTo("Edited comment");
+  }
+}
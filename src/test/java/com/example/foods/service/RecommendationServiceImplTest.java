@@ -0,0 +1,147 @@
+package com.example.foods.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.example.foods.analytics.FoodLeaderboard;
+import com.example.foods.analytics.UserRecommendations;
+import com.example.foods.constant.LeaderboardMetric;
+import com.example.foods.constant.LeaderboardWindow;
+import com.example.foods.dto.response.FoodResponseDto;
+import com.example.foods.service.impl.RecommendationServiceImpl;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationServiceImplTest {
+
+  @Mock private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  @Mock private UserRecommendations userRecommendations;
+
+  @Mock private FoodLeaderboard foodLeaderboard;
+
+  @Mock private FoodService foodService;
+
+  @InjectMocks private RecommendationServiceImpl recommendationService;
+
+  @Test
+  void getRecommendationsForUser_ShouldServeStoredList_WithoutQueries() {
+    // Given
+    FoodResponseDto ramen = food(3L, "Japanese", "ACTIVE", 0L);
+    FoodResponseDto retired = food(5L, "Japanese", "INACTIVE", 0L);
+    when(userRecommendations.get("alice", 4)).thenReturn(List.of(5L, 3L));
+    when(foodService.getFoodsByIds(List.of(5L, 3L))).thenReturn(List.of(retired, ramen));
+
+    // When
+    List<FoodResponseDto> result = recommendationService.getRecommendationsForUser("alice", 2);
+
+    // Then
+    assertThat(result).containsExactly(ramen);
+    verifyNoInteractions(namedParameterJdbcTemplate, foodLeaderboard);
+  }
+
+  @Test
+  void getRecommendationsForUser_ShouldFallBackToMostOrdered_WhenNothingStored() {
+    // Given
+    FoodResponseDto pizza = food(7L, "Italian", "ACTIVE", 0L);
+    when(userRecommendations.get("newbie", 2)).thenReturn(List.of());
+    when(foodLeaderboard.top(LeaderboardMetric.ORDERS, LeaderboardWindow.ALL, null, 2))
+        .thenReturn(Map.of(7L, 40L));
+    when(foodService.getFoodsByIds(List.of(7L))).thenReturn(List.of(pizza));
+
+    // When
+    List<FoodResponseDto> result = recommendationService.getRecommendationsForUser("newbie", 1);
+
+    // Then
+    assertThat(result).containsExactly(pizza);
+  }
+
+  @Test
+  void refreshRecommendations_ShouldRankReordersAndLikedCategories_AndSkipDislikedFoods() {
+    // Given alice reorders a pizza, loves Italian food and rated a Thai dish 1 star
+    List<FoodResponseDto> catalog =
+        List.of(
+            food(1L, "Italian", "ACTIVE", 20L),
+            food(2L, "Italian", "ACTIVE", 10L),
+            food(3L, "Thai", "ACTIVE", 100L),
+            food(4L, "Thai", "ACTIVE", 500L),
+            food(5L, "Italian", "ACTIVE", 50L));
+    when(foodService.getFoodsByIds(anyList()))
+        .thenAnswer(
+            invocation ->
+                invocation.<List<Long>>getArgument(0).stream()
+                    .map(
+                        id ->
+                            catalog.stream()
+                                .filter(food -> food.getId().equals(id))
+                                .findFirst()
+                                .orElse(null))
+                    .filter(Objects::nonNull)
+                    .toList());
+    doAnswer(
+            invocation -> {
+              String sql = invocation.getArgument(0);
+              RowCallbackHandler handler = invocation.getArgument(2);
+              if (sql.contains("order_items")) {
+                handler.processRow(row("times_ordered", 1L, 3L));
+                handler.processRow(row("times_ordered", 2L, 1L));
+              } else {
+                handler.processRow(row("score", 2L, 5L));
+                handler.processRow(row("score", 3L, 1L));
+              }
+              return null;
+            })
+        .when(namedParameterJdbcTemplate)
+        .query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    Map<Long, Long> popular = new LinkedHashMap<>();
+    popular.put(4L, 500L);
+    popular.put(3L, 100L);
+    when(foodLeaderboard.top(LeaderboardMetric.ORDERS, LeaderboardWindow.ALL, null, 100))
+        .thenReturn(popular);
+    when(foodLeaderboard.top(LeaderboardMetric.ORDERS, LeaderboardWindow.ALL, "Italian", 30))
+        .thenReturn(Map.of(5L, 50L));
+
+    // When
+    recommendationService.refreshRecommendations("alice");
+
+    // Then
+    verify(userRecommendations).store("alice", List.of(1L, 2L, 5L, 4L));
+    verify(foodLeaderboard, never())
+        .top(LeaderboardMetric.ORDERS, LeaderboardWindow.ALL, "Thai", 30);
+  }
+
+  private static ResultSet row(String valueColumn, long foodId, long value) throws Exception {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getLong("food_id")).thenReturn(foodId);
+    if ("score".equals(valueColumn)) {
+      when(rs.getInt(valueColumn)).thenReturn((int) value);
+    } else {
+      when(rs.getLong(valueColumn)).thenReturn(value);
+    }
+    return rs;
+  }
+
+  private static FoodResponseDto food(Long id, String category, String status, Long orderCount) {
+    return FoodResponseDto.builder()
+        .id(id)
+        .category(category)
+        .status(status)
+        .orderCount(orderCount)
+        .build();
+  }
+}
@@ -0,0 +1,112 @@
+package com.example.foods.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.foods.constant.ImageSize;
+import com.example.foods.service.FileStorageService;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ImageDerivativesTest {
+
+  @Mock private FileStorageService fileStorageService;
+
+  @Mock private NamedParameterJdbcTemplate jdbcTemplate;
+
+  private ImageDerivatives imageDerivatives;
+
+  @BeforeEach
+  void setUp() {
+    imageDerivatives =
+        new ImageDerivatives(fileStorageService, jdbcTemplate, 0.8f, 100, Duration.ofMinutes(5));
+  }
+
+  @Test
+  void generate_ShouldStoreDownscaledJpegPerSize() throws IOException {
+    // Given a 4000x2000 PNG photo
+    byte[] original = png(4000, 2000);
+    when(fileStorageService.openFile("photo.png", null)).thenReturn(stored(original));
+
+    // When
+    Map<ImageSize, String> keys = imageDerivatives.generate("photo.png");
+
+    // Then
+    assertThat(keys)
+        .containsEntry(ImageSize.THUMBNAIL, "derivatives/thumb/photo.png.jpg")
+        .containsEntry(ImageSize.MEDIUM, "derivatives/medium/photo.png.jpg");
+    BufferedImage thumbnail = read("derivatives/thumb/photo.png.jpg");
+    BufferedImage medium = read("derivatives/medium/photo.png.jpg");
+    assertThat(thumbnail.getWidth()).isEqualTo(320);
+    assertThat(thumbnail.getHeight()).isEqualTo(160);
+    assertThat(medium.getWidth()).isEqualTo(960);
+    assertThat(medium.getHeight()).isEqualTo(480);
+  }
+
+  @Test
+  void generate_ShouldNotEnlargeSmallImages() throws IOException {
+    // Given
+    when(fileStorageService.openFile("icon.png", null)).thenReturn(stored(png(200, 100)));
+
+    // When
+    imageDerivatives.generate("icon.png");
+
+    // Then
+    BufferedImage medium = read("derivatives/medium/icon.png.jpg");
+    assertThat(medium.getWidth()).isEqualTo(200);
+    assertThat(medium.getHeight()).isEqualTo(100);
+  }
+
+  @Test
+  void generate_ShouldSkipUnsupportedFormats() {
+    // Given
+    when(fileStorageService.openFile("notes.txt", null))
+        .thenReturn(stored("not an image".getBytes()));
+
+    // When
+    Map<ImageSize, String> keys = imageDerivatives.generate("notes.txt");
+
+    // Then
+    assertThat(keys).isEmpty();
+    verify(fileStorageService, never()).storeFile(any(), any());
+  }
+
+  private BufferedImage read(String key) throws IOException {
+    ArgumentCaptor<byte[]> content = ArgumentCaptor.forClass(byte[].class);
+    verify(fileStorageService).storeFile(eq(key), content.capture());
+    return ImageIO.read(new ByteArrayInputStream(content.getValue()));
+  }
+
+  private static StoredObject stored(byte[] content) {
+    return new StoredObject(
+        new ByteArrayInputStream(content), "image/png", content.length, null, null, null);
+  }
+
+  private static byte[] png(int width, int height) throws IOException {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D graphics = image.createGraphics();
+    graphics.setColor(Color.ORANGE);
+    graphics.fillRect(0, 0, width / 2, height);
+    graphics.dispose();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", out);
+    return out.toByteArray();
+  }
+}
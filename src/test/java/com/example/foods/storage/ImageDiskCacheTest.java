@@ -0,0 +1,156 @@
+package com.example.foods.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class ImageDiskCacheTest {
+
+  private static final Map<String, String> OBJECTS =
+      Map.of(
+          "a.jpg", "a".repeat(400),
+          "b.jpg", "b".repeat(400),
+          "c.jpg", "c".repeat(400),
+          "big.jpg", "x".repeat(5000));
+
+  @TempDir private Path directory;
+
+  private final List<String> storageReads = new ArrayList<>();
+
+  private ImageDiskCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = newCache();
+    cache.load();
+  }
+
+  @Test
+  void open_ShouldReadStorageOnce_ThenServeFromDisk() throws IOException {
+    // When
+    String first = read(cache.open("a.jpg", null, storage("a.jpg")));
+    String second = read(cache.open("a.jpg", null, storage("a.jpg")));
+
+    // Then
+    assertThat(first).isEqualTo(OBJECTS.get("a.jpg"));
+    assertThat(second).isEqualTo(OBJECTS.get("a.jpg"));
+    assertThat(storageReads).containsExactly("a.jpg");
+    assertThat(cache.hitRatio()).isEqualTo(0.5);
+  }
+
+  @Test
+  void open_ShouldEvictLeastRecentlyUsedEntry_WhenOverMaxSize() throws IOException {
+    // Given a cache that holds two entries, where "a" was used after "b"
+    read(cache.open("a.jpg", null, storage("a.jpg")));
+    read(cache.open("b.jpg", null, storage("b.jpg")));
+    read(cache.open("a.jpg", null, storage("a.jpg")));
+
+    // When
+    read(cache.open("c.jpg", null, storage("c.jpg")));
+    read(cache.open("a.jpg", null, storage("a.jpg")));
+    read(cache.open("b.jpg", null, storage("b.jpg")));
+
+    // Then
+    assertThat(storageReads).containsExactly("a.jpg", "b.jpg", "c.jpg", "b.jpg");
+    assertThat(cache.sizeBytes()).isLessThanOrEqualTo(DataSize.ofKilobytes(1).toBytes());
+  }
+
+  @Test
+  void open_ShouldStreamFromStorage_WhenObjectExceedsEntryLimit() throws IOException {
+    // When
+    read(cache.open("big.jpg", null, storage("big.jpg")));
+    read(cache.open("big.jpg", null, storage("big.jpg")));
+
+    // Then
+    assertThat(storageReads).hasSize(4);
+    assertThat(cache.entryCount()).isZero();
+  }
+
+  @Test
+  void open_ShouldRejectRangeBeyondEnd() throws IOException {
+    // Given
+    read(cache.open("a.jpg", null, storage("a.jpg")));
+
+    // When & Then
+    assertThatThrownBy(() -> cache.open("a.jpg", "bytes=1000-", storage("a.jpg")))
+        .isInstanceOf(RangeNotSatisfiableException.class)
+        .extracting("totalLength")
+        .isEqualTo(400L);
+  }
+
+  @Test
+  void load_ShouldKeepIntactEntries_AndDropCorruptAndPartialFiles() throws IOException {
+    // Given
+    read(cache.open("a.jpg", null, storage("a.jpg")));
+    read(cache.open("b.jpg", null, storage("b.jpg")));
+    Path corrupt = entryFileContaining("b".repeat(400));
+    byte[] bytes = Files.readAllBytes(corrupt);
+    bytes[bytes.length - 1] = 'z';
+    Files.write(corrupt, bytes);
+    Files.writeString(directory.resolve("entry-123.tmp"), "half written");
+
+    // When the application restarts
+    ImageDiskCache restarted = newCache();
+    restarted.load();
+    storageReads.clear();
+    String a = read(restarted.open("a.jpg", null, storage("a.jpg")));
+    String b = read(restarted.open("b.jpg", null, storage("b.jpg")));
+
+    // Then
+    assertThat(a).isEqualTo(OBJECTS.get("a.jpg"));
+    assertThat(b).isEqualTo(OBJECTS.get("b.jpg"));
+    assertThat(storageReads).containsExactly("b.jpg");
+    assertThat(directory.resolve("entry-123.tmp")).doesNotExist();
+  }
+
+  private ImageDiskCache newCache() {
+    return new ImageDiskCache(
+        new SimpleMeterRegistry(),
+        true,
+        directory,
+        DataSize.ofKilobytes(1),
+        DataSize.ofKilobytes(1));
+  }
+
+  private Function<String, StoredObject> storage(String key) {
+    return range -> {
+      storageReads.add(key);
+      byte[] body = OBJECTS.get(key).getBytes(StandardCharsets.UTF_8);
+      return new StoredObject(
+          new ByteArrayInputStream(body), "image/jpeg", body.length, null, "\"etag\"", null);
+    };
+  }
+
+  private Path entryFileContaining(String body) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        if (Files.readString(file, StandardCharsets.ISO_8859_1).endsWith(body)) {
+          return file;
+        }
+      }
+    }
+    throw new IllegalStateException("No cache file for body");
+  }
+
+  private static String read(StoredObject object) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    object.writeTo(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
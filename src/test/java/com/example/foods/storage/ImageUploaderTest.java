@@ -0,0 +1,93 @@
+package com.example.foods.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.example.foods.service.FileStorageService;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+@ExtendWith(MockitoExtension.class)
+class ImageUploaderTest {
+
+  @Mock private FileStorageService fileStorageService;
+
+  private ImageUploader imageUploader;
+
+  @BeforeEach
+  void setUp() {
+    imageUploader = new ImageUploader(fileStorageService, 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    imageUploader.shutdown();
+  }
+
+  @Test
+  void uploadAll_ShouldUploadConcurrently_UpToLimit_AndKeepOrder() {
+    // Given uploads that only finish once two of them run at the same time
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    when(fileStorageService.uploadFile(any(MultipartFile.class)))
+        .thenAnswer(
+            invocation -> {
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              bothStarted.countDown();
+              bothStarted.await(5, TimeUnit.SECONDS);
+              Thread.sleep(20);
+              running.decrementAndGet();
+              return "key-" + invocation.<MultipartFile>getArgument(0).getOriginalFilename();
+            });
+
+    // When
+    List<String> keys = imageUploader.uploadAll(files("a.jpg", "b.jpg", "c.jpg", "d.jpg"));
+
+    // Then
+    assertThat(keys).containsExactly("key-a.jpg", "key-b.jpg", "key-c.jpg", "key-d.jpg");
+    assertThat(bothStarted.getCount()).isZero();
+    assertThat(maxRunning.get()).isEqualTo(2);
+  }
+
+  @Test
+  void uploadAll_ShouldDeleteUploadedImages_WhenAnyUploadFails() {
+    // Given
+    when(fileStorageService.uploadFile(any(MultipartFile.class)))
+        .thenAnswer(
+            invocation -> {
+              String name = invocation.<MultipartFile>getArgument(0).getOriginalFilename();
+              if (name.equals("b.jpg")) {
+                throw new RuntimeException("Failed to upload file");
+              }
+              return "key-" + name;
+            });
+
+    // When & Then
+    assertThatThrownBy(() -> imageUploader.uploadAll(files("a.jpg", "b.jpg", "c.jpg")))
+        .hasMessage("Failed to upload file");
+    verify(fileStorageService).deleteFile("key-a.jpg");
+    verify(fileStorageService).deleteFile("key-c.jpg");
+    verify(fileStorageService, times(2)).deleteFile(any());
+  }
+
+  private static List<MultipartFile> files(String... names) {
+    return Arrays.stream(names)
+        .<MultipartFile>map(
+            name -> new MockMultipartFile("images", name, "image/jpeg", new byte[] {1}))
+        .toList();
+  }
+}